@@ -34,12 +34,15 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /* Clase interna privada para vértices. */
-    private class Vertice implements VerticeGrafica<T>, Comparable<Vertice> {
+    private class Vertice implements VerticeGrafica<T>, Comparable<Vertice>,
+                                     ConIndice {
 
         /* El elemento del vértice. */
         private T elemento;
         /* La distancia del vértice. */
         private double distancia;
+        /* La posición del vértice en el montículo de Dijkstra. */
+        private int posicion = -1;
         /* El diccionario de vecinos del vértice. */
         private Map<T, Vecino> vecinos;
 
@@ -56,6 +59,16 @@ public class Grafica<T> implements Coleccion<T> {
             return elemento;
         }
 
+        /* Regresa la posición del vértice en el montículo. */
+        @Override public int getIndice() {
+            return posicion;
+        }
+
+        /* Define la posición del vértice en el montículo. */
+        @Override public void setIndice(int posicion) {
+            this.posicion = posicion;
+        }
+
         /* Regresa el grado del vértice. */
         @Override public int getGrado() {
             // Aquí va su código.
@@ -786,15 +799,13 @@ public class Grafica<T> implements Coleccion<T> {
 
         //Procedemos a determinar el tipo de monticulo para el algoritmo.
         MonticuloDijkstra<Vertice> m;//Nos apoyaremos de la interfaz.
-        int n = vertices.size();
-        
-        /*
-        if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de vértices para el número de aristas.
+        long n = vertices.size();//Usamos long para que n*n no se desborde.
+
+        if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de aristas para el número de vértices.
             m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
-        }else{//Cantidades lineales de vértices para el número de aristas.
+        }else{//Cantidades lineales de aristas para el número de vértices.
             m = new MonticuloMinimo<Vertice>(vertices.values(), vertices.size());
-        }*/
-        m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
+        }
 
         //Procedemos con el algoritmo de Djikstra.
         while(!m.esVacia()){
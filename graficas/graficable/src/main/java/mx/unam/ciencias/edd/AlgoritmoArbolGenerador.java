@@ -0,0 +1,302 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Enumeración para los algoritmos que calculan árboles generadores de peso
+ * mínimo.</p>
+ *
+ * <p>Los algoritmos reciben las aristas de la gráfica por vértice, cada una
+ * en las dos direcciones: las del vértice <i>u</i> están en las posiciones
+ * <code>inicios[u]</code> a <code>inicios[u+1]-1</code>. Si la gráfica no es
+ * conexa, calculan un bosque generador de peso mínimo.</p>
+ */
+public enum AlgoritmoArbolGenerador {
+
+    /**
+     * Algoritmo de Kruskal: ordena las aristas por peso y las agrega con
+     * conjuntos disjuntos. Toma tiempo <i>O</i>(<i>m</i>) para ordenar, pues
+     * usa radix sort sobre los bits de los pesos, y conviene en gráficas
+     * dispersas.
+     */
+    KRUSKAL {
+        @Override int calcula(int[] inicios, int[] destinos, double[] pesos,
+                              int[] origenesArbol, int[] destinosArbol,
+                              double[] pesosArbol, ForkJoinPool pool) {
+            int n = inicios.length - 1;
+
+            //Tomamos cada arista una sola vez.
+            int m = 0;
+            for (int u = 0; u < n; u++)
+                for (int j = inicios[u]; j < inicios[u + 1]; j++)
+                    if (u < destinos[j])
+                        m++;
+            int[] origenes = new int[m];
+            int[] aristas = new int[m];
+            long[] llaves = new long[m];
+            for (int u = 0, i = 0; u < n; u++) {
+                for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                    if (u < destinos[j]) {
+                        origenes[i] = u;
+                        aristas[i] = j;
+                        //Los pesos son positivos, así que sus bits se ordenan
+                        //igual que ellos.
+                        llaves[i++] = Double.doubleToLongBits(pesos[j]);
+                    }
+                }
+            }
+            int[] orden = ordena(llaves);
+
+            ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(n);
+            int k = 0;
+            for (int i = 0; i < m && k < n - 1; i++) {
+                int e = orden[i];
+                int j = aristas[e];
+                if (conjuntos.une(origenes[e], destinos[j])) {
+                    origenesArbol[k] = origenes[e];
+                    destinosArbol[k] = destinos[j];
+                    pesosArbol[k++] = pesos[j];
+                }
+            }
+            return k;
+        }
+    },
+
+    /**
+     * Algoritmo de Prim: crece el árbol desde un vértice con un {@link
+     * MonticuloIndexado} sobre los vértices. Toma tiempo <i>O</i>(<i>m</i>
+     * log <i>n</i>) sin ordenar las aristas, y conviene en gráficas densas.
+     */
+    PRIM {
+        @Override int calcula(int[] inicios, int[] destinos, double[] pesos,
+                              int[] origenesArbol, int[] destinosArbol,
+                              double[] pesosArbol, ForkJoinPool pool) {
+            int n = inicios.length - 1;
+            double[] claves = new double[n];
+            int[] anteriores = new int[n];
+            BitSet enArbol = new BitSet(n);
+            MonticuloIndexado monticulo = new MonticuloIndexado(n);
+            int k = 0;
+
+            for (int s = 0; s < n; s++) {
+                if (enArbol.get(s))
+                    continue;
+                //Cada raíz empieza un árbol nuevo del bosque.
+                anteriores[s] = -1;
+                monticulo.agrega(s, 0);
+                while (!monticulo.esVacia()) {
+                    int u = monticulo.elimina();
+                    enArbol.set(u);
+                    if (anteriores[u] != -1) {
+                        origenesArbol[k] = anteriores[u];
+                        destinosArbol[k] = u;
+                        pesosArbol[k++] = claves[u];
+                    }
+                    for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                        int w = destinos[j];
+                        if (enArbol.get(w))
+                            continue;
+                        if (!monticulo.contiene(w) || pesos[j] < claves[w]) {
+                            claves[w] = pesos[j];
+                            anteriores[w] = u;
+                            monticulo.actualiza(w, pesos[j]);
+                        }
+                    }
+                }
+            }
+            return k;
+        }
+    },
+
+    /**
+     * Algoritmo de Borůvka en paralelo: en cada ronda, los hilos de un {@link
+     * ForkJoinPool} buscan la arista más ligera que sale de cada componente,
+     * y las componentes se contraen con conjuntos disjuntos concurrentes. Cada
+     * ronda al menos divide a la mitad el número de componentes, por lo que
+     * toma tiempo <i>O</i>(<i>m</i> log <i>n</i>) repartido entre los hilos.
+     * Los empates entre pesos se rompen con los extremos de las aristas, así
+     * que el peso total es el mismo que con los otros algoritmos.
+     */
+    BORUVKA {
+        @Override int calcula(int[] inicios, int[] destinos, double[] pesos,
+                              int[] origenesArbol, int[] destinosArbol,
+                              double[] pesosArbol, ForkJoinPool pool) {
+            int n = inicios.length - 1;
+            int pedazos = Math.max(1, Math.min(n, pool.getParallelism() * 4));
+            int[] origenes = new int[destinos.length];
+            paralelo(pool, pedazos, c -> {
+                    for (int u = desde(n, pedazos, c); u < desde(n, pedazos, c + 1); u++)
+                        Arrays.fill(origenes, inicios[u], inicios[u + 1], u);
+                });
+
+            AtomicIntegerArray padres = new AtomicIntegerArray(n);
+            for (int u = 0; u < n; u++)
+                padres.set(u, u);
+            int[] componentes = new int[n];
+            //La arista más ligera que sale de cada componente, o -1.
+            AtomicIntegerArray mejores = new AtomicIntegerArray(n);
+            AtomicInteger k = new AtomicInteger();
+            boolean[] cambio = { true };
+
+            while (cambio[0]) {
+                //Aplanamos las componentes.
+                paralelo(pool, pedazos, c -> {
+                        for (int u = desde(n, pedazos, c); u < desde(n, pedazos, c + 1); u++) {
+                            componentes[u] = busca(padres, u);
+                            mejores.set(u, -1);
+                        }
+                    });
+
+                //Cada vértice propone su arista más ligera a su componente.
+                paralelo(pool, pedazos, c -> {
+                        for (int u = desde(n, pedazos, c); u < desde(n, pedazos, c + 1); u++) {
+                            int cu = componentes[u];
+                            int mejor = -1;
+                            for (int j = inicios[u]; j < inicios[u + 1]; j++)
+                                if (cu != componentes[destinos[j]] &&
+                                    (mejor == -1 || menor(j, mejor, origenes, destinos, pesos)))
+                                    mejor = j;
+                            if (mejor == -1)
+                                continue;
+                            int actual;
+                            do {
+                                actual = mejores.get(cu);
+                                if (actual != -1 &&
+                                    !menor(mejor, actual, origenes, destinos, pesos))
+                                    break;
+                            } while (!mejores.compareAndSet(cu, actual, mejor));
+                        }
+                    });
+
+                //Contraemos las componentes por sus aristas más ligeras; si
+                //dos componentes eligen la misma arista, sólo la primera une.
+                cambio[0] = false;
+                paralelo(pool, pedazos, c -> {
+                        for (int u = desde(n, pedazos, c); u < desde(n, pedazos, c + 1); u++) {
+                            int j = mejores.get(u);
+                            if (j == -1 || !une(padres, origenes[j], destinos[j]))
+                                continue;
+                            int i = k.getAndIncrement();
+                            origenesArbol[i] = origenes[j];
+                            destinosArbol[i] = destinos[j];
+                            pesosArbol[i] = pesos[j];
+                            cambio[0] = true;
+                        }
+                    });
+            }
+            return k.get();
+        }
+    };
+
+    /* Llena los arreglos del árbol con las aristas del árbol generador de
+     * peso mínimo, y regresa cuántas son. */
+    abstract int calcula(int[] inicios, int[] destinos, double[] pesos,
+                         int[] origenesArbol, int[] destinosArbol,
+                         double[] pesosArbol, ForkJoinPool pool);
+
+    /* Nos dice si la arista i es más ligera que la arista j. Los empates se
+     * rompen con el menor y el mayor de los extremos, que no dependen de la
+     * dirección en que se guardó la arista. */
+    private static boolean menor(int i, int j, int[] origenes, int[] destinos,
+                                 double[] pesos) {
+        if (pesos[i] != pesos[j])
+            return pesos[i] < pesos[j];
+        int a = Math.min(origenes[i], destinos[i]);
+        int b = Math.min(origenes[j], destinos[j]);
+        if (a != b)
+            return a < b;
+        return Math.max(origenes[i], destinos[i]) < Math.max(origenes[j], destinos[j]);
+    }
+
+    /* Regresa el representante de u, acortando la trayectoria a la mitad. */
+    private static int busca(AtomicIntegerArray padres, int u) {
+        while (true) {
+            int p = padres.get(u);
+            if (p == u)
+                return u;
+            int a = padres.get(p);
+            if (a != p)
+                padres.compareAndSet(u, p, a);
+            u = p;
+        }
+    }
+
+    /* Une los conjuntos de a y b colgando la raíz mayor de la menor; regresa
+     * true si eran distintos. */
+    private static boolean une(AtomicIntegerArray padres, int a, int b) {
+        while (true) {
+            a = busca(padres, a);
+            b = busca(padres, b);
+            if (a == b)
+                return false;
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (padres.compareAndSet(a, a, b))
+                return true;
+        }
+    }
+
+    /* Regresa dónde empieza el pedazo c de los n vértices. */
+    private static int desde(int n, int pedazos, int c) {
+        return (int)((long)n * c / pedazos);
+    }
+
+    /* Hace las tareas de 0 a k-1 en el pool. */
+    private static void paralelo(ForkJoinPool pool, int k, IntConsumer tarea) {
+        pool.submit(() -> IntStream.range(0, k).parallel().forEach(tarea)).join();
+    }
+
+    /**
+     * Regresa el algoritmo secuencial que conviene para una gráfica: Prim si
+     * el grado promedio es mayor que el logaritmo de su número de vértices,
+     * Kruskal en otro caso.
+     * @param n el número de vértices.
+     * @param m el número de aristas.
+     * @return el algoritmo que conviene.
+     */
+    public static AlgoritmoArbolGenerador elige(int n, int m) {
+        int logaritmo = 32 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+        return 2L * m > (long)n * logaritmo ? PRIM : KRUSKAL;
+    }
+
+    /* Regresa las posiciones de las llaves en orden creciente, con radix sort
+     * estable de 16 bits por pasada. Las pasadas en que todas las llaves
+     * tienen el mismo dígito se omiten. */
+    private static int[] ordena(long[] llaves) {
+        int m = llaves.length;
+        int[] orden = new int[m];
+        int[] auxiliar = new int[m];
+        for (int i = 0; i < m; i++)
+            orden[i] = i;
+        int[] cuentas = new int[1 << 16];
+        for (int corrimiento = 0; corrimiento < 64; corrimiento += 16) {
+            Arrays.fill(cuentas, 0);
+            for (int i = 0; i < m; i++)
+                cuentas[(int)(llaves[i] >>> corrimiento) & 0xFFFF]++;
+            if (m == 0 || cuentas[(int)(llaves[0] >>> corrimiento) & 0xFFFF] == m)
+                continue;
+            for (int d = 0, suma = 0; d < cuentas.length; d++) {
+                int c = cuentas[d];
+                cuentas[d] = suma;
+                suma += c;
+            }
+            for (int i = 0; i < m; i++) {
+                int e = orden[i];
+                auxiliar[cuentas[(int)(llaves[e] >>> corrimiento) & 0xFFFF]++] = e;
+            }
+            int[] t = orden;
+            orden = auxiliar;
+            auxiliar = t;
+        }
+        return orden;
+    }
+}
@@ -0,0 +1,105 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Clase para árboles de trayectorias mínimas desde un origen.</p>
+ *
+ * <p>El árbol guarda, para cada vértice de la gráfica, su distancia desde el
+ * origen y el índice del vértice anterior en una trayectoria mínima, en dos
+ * arreglos primitivos. Con él se pueden consultar la distancia y la
+ * trayectoria a tantos destinos como se quiera sin volver a correr el
+ * algoritmo de Dijkstra: la distancia se consulta en tiempo constante y la
+ * trayectoria en tiempo proporcional a su longitud.</p>
+ *
+ * <p>El árbol es válido mientras la gráfica de la que salió no cambie.</p>
+ */
+public class ArbolDistancias<T> {
+
+    /* El origen del árbol. */
+    private T origen;
+    /* Las distancias desde el origen, por índice. */
+    private double[] distancias;
+    /* El índice del vértice anterior, por índice; -1 si no se alcanza. */
+    private int[] anteriores;
+    /* Regresa el índice de un elemento de la gráfica. */
+    private ToIntFunction<T> indices;
+    /* Regresa el elemento de un índice de la gráfica. */
+    private IntFunction<T> elementos;
+
+    /* Construye un árbol a partir de sus arreglos. Los arreglos pasan a ser
+     * del árbol. */
+    ArbolDistancias(T origen, double[] distancias, int[] anteriores,
+                    ToIntFunction<T> indices, IntFunction<T> elementos) {
+        this.origen = origen;
+        this.distancias = distancias;
+        this.anteriores = anteriores;
+        this.indices = indices;
+        this.elementos = elementos;
+    }
+
+    /**
+     * Regresa el origen del árbol.
+     * @return el origen del árbol.
+     */
+    public T getOrigen() {
+        return origen;
+    }
+
+    /**
+     * Nos dice si el destino se alcanza desde el origen.
+     * @param destino el destino.
+     * @return <code>true</code> si hay una trayectoria del origen al destino,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si el destino no está en la gráfica.
+     */
+    public boolean alcanza(T destino) {
+        return anteriores[indice(destino)] != -1;
+    }
+
+    /**
+     * Regresa la distancia del origen al destino.
+     * @param destino el destino.
+     * @return la distancia del origen al destino, o infinito si el destino no
+     *         se alcanza desde el origen.
+     * @throws NoSuchElementException si el destino no está en la gráfica.
+     */
+    public double distancia(T destino) {
+        return distancias[indice(destino)];
+    }
+
+    /**
+     * Regresa una trayectoria mínima del origen al destino.
+     * @param destino el destino.
+     * @return una lista con los elementos de una trayectoria mínima del origen
+     *         al destino; si el destino no se alcanza, una lista vacía.
+     * @throws NoSuchElementException si el destino no está en la gráfica.
+     */
+    public List<T> trayectoria(T destino) {
+        int t = indice(destino);
+        List<T> trayectoria = new ArrayList<>();
+        if (anteriores[t] == -1)
+            return trayectoria;
+        int u = t;
+        while (anteriores[u] != u) {
+            trayectoria.add(elementos.apply(u));
+            u = anteriores[u];
+        }
+        trayectoria.add(elementos.apply(u));
+        Collections.reverse(trayectoria);
+        return trayectoria;
+    }
+
+    /* Regresa el índice del elemento, verificando que sea del árbol. */
+    private int indice(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        if (i >= distancias.length)
+            throw new NoSuchElementException("El elemento no está en el árbol: " + elemento);
+        return i;
+    }
+}
@@ -0,0 +1,114 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * <p>Clase para árboles generadores de peso mínimo de una gráfica.</p>
+ *
+ * <p>El árbol guarda sus aristas en tres arreglos primitivos: los
+ * identificadores en la gráfica de sus extremos, y sus pesos. Si la gráfica
+ * no es conexa, el árbol es un bosque con un árbol por componente
+ * conexa.</p>
+ *
+ * <p>Los identificadores son válidos mientras la gráfica de la que salió el
+ * árbol no cambie.</p>
+ */
+public class ArbolGeneradorMinimo<T> {
+
+    /* El número de vértices de la gráfica. */
+    private int vertices;
+    /* El número de aristas del árbol. */
+    private int aristas;
+    /* El primer extremo de cada arista. */
+    private int[] origenes;
+    /* El segundo extremo de cada arista. */
+    private int[] destinos;
+    /* El peso de cada arista. */
+    private double[] pesos;
+    /* Regresa el elemento de un identificador de la gráfica. */
+    private IntFunction<T> elementos;
+
+    /* Construye un árbol con las primeras aristas de los arreglos. Los
+     * arreglos pasan a ser del árbol. */
+    ArbolGeneradorMinimo(int vertices, int aristas, int[] origenes,
+                         int[] destinos, double[] pesos,
+                         IntFunction<T> elementos) {
+        this.vertices = vertices;
+        this.aristas = aristas;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.elementos = elementos;
+    }
+
+    /**
+     * Regresa el número de aristas del árbol.
+     * @return el número de aristas del árbol.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Regresa el número de árboles del bosque, que es el número de
+     * componentes conexas de la gráfica.
+     * @return el número de árboles del bosque.
+     */
+    public int getArboles() {
+        return vertices - aristas;
+    }
+
+    /**
+     * Regresa el peso total del árbol.
+     * @return la suma de los pesos de sus aristas.
+     */
+    public double getPeso() {
+        double peso = 0;
+        for (int i = 0; i < aristas; i++)
+            peso += pesos[i];
+        return peso;
+    }
+
+    /**
+     * Regresa el primer extremo de cada arista del árbol.
+     * @return un arreglo nuevo con los identificadores de los primeros
+     *         extremos.
+     */
+    public int[] origenes() {
+        return Arrays.copyOf(origenes, aristas);
+    }
+
+    /**
+     * Regresa el segundo extremo de cada arista del árbol, en el mismo orden
+     * que {@link #origenes}.
+     * @return un arreglo nuevo con los identificadores de los segundos
+     *         extremos.
+     */
+    public int[] destinos() {
+        return Arrays.copyOf(destinos, aristas);
+    }
+
+    /**
+     * Regresa el peso de cada arista del árbol, en el mismo orden que {@link
+     * #origenes}.
+     * @return un arreglo nuevo con los pesos.
+     */
+    public double[] pesos() {
+        return Arrays.copyOf(pesos, aristas);
+    }
+
+    /**
+     * Construye el árbol como una gráfica nueva con todos los vértices de la
+     * gráfica original, en el mismo orden, y sólo las aristas del árbol.
+     * @return una gráfica nueva con el árbol.
+     */
+    public Grafica<T> getGrafica() {
+        Grafica<T> grafica = new Grafica<>();
+        for (int i = 0; i < vertices; i++)
+            grafica.agrega(elementos.apply(i));
+        for (int i = 0; i < aristas; i++)
+            grafica.conectaPorId(origenes[i], destinos[i], pesos[i]);
+        return grafica;
+    }
+}
@@ -0,0 +1,230 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para combinar muchas gráficas dirigidas en una sola.</p>
+ *
+ * <p>Los vértices con elementos iguales se consideran uno solo, y se queda el
+ * elemento de la primera gráfica que lo tiene. Las aristas repetidas se
+ * consideran una sola, y su peso se resuelve con una {@link
+ * PoliticaConflicto}.</p>
+ *
+ * <p>La combinación se hace en fases que se reparten entre los hilos de un
+ * {@link ForkJoinPool}: la unión de los vértices calcula el hash de cada
+ * elemento una sola vez, cada gráfica traduce sus aristas a identificadores
+ * globales por separado, y las aristas repetidas se detectan por vértice de
+ * origen con marcas en arreglos, sin diccionarios. Al final la gráfica se
+ * construye en una sola pasada, como en {@link ConstructorGraficaDirigida}.
+ * Las gráficas no deben modificarse mientras se combinan.</p>
+ */
+public class CombinadorGraficas<T> {
+
+    /* Clase interna para el dueño de un elemento: la primera gráfica, y el
+     * vértice en ella, donde aparece. */
+    private static class Propietario {
+
+        /* La gráfica del dueño. */
+        private int grafica;
+        /* El identificador del vértice en la gráfica del dueño. */
+        private int vertice;
+        /* El identificador del vértice en la gráfica combinada. */
+        private int id;
+
+        /* Crea un dueño. */
+        Propietario(int grafica, int vertice) {
+            this.grafica = grafica;
+            this.vertice = vertice;
+        }
+
+        /* Se vuelve el dueño si la gráfica recibida es anterior. */
+        synchronized void reclama(int grafica, int vertice) {
+            if (grafica < this.grafica) {
+                this.grafica = grafica;
+                this.vertice = vertice;
+            }
+        }
+    }
+
+    /* Clase interna para las marcas con las que un hilo detecta aristas
+     * repetidas. Las marcas de un origen u valen u+1, así que no hay que
+     * limpiarlas entre orígenes ni entre pedazos. */
+    private static class Marcas {
+
+        /* El último origen que llegó a cada destino, más uno. */
+        private int[] marcas;
+        /* La posición de la arista del último origen a cada destino. */
+        private int[] posiciones;
+
+        /* Crea marcas para n vértices. */
+        Marcas(int n) {
+            marcas = new int[n];
+            posiciones = new int[n];
+        }
+    }
+
+    /* La política para los pesos de las aristas repetidas. */
+    private PoliticaConflicto politica;
+    /* El pool donde se combinan las gráficas. */
+    private ForkJoinPool pool;
+
+    /**
+     * Construye un combinador con la política {@link
+     * PoliticaConflicto#PRIMERO} que usa el {@link ForkJoinPool#commonPool}.
+     */
+    public CombinadorGraficas() {
+        politica = PoliticaConflicto.PRIMERO;
+        pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Define la política para los pesos de las aristas repetidas.
+     * @param politica la política.
+     * @return el combinador, para encadenar llamadas.
+     */
+    public CombinadorGraficas<T> setPolitica(PoliticaConflicto politica) {
+        this.politica = politica;
+        return this;
+    }
+
+    /**
+     * Define el pool donde se combinan las gráficas.
+     * @param pool el pool.
+     * @return el combinador, para encadenar llamadas.
+     */
+    public CombinadorGraficas<T> setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Combina las gráficas recibidas en una nueva gráfica. Los identificadores
+     * de la nueva gráfica siguen el orden en que los elementos aparecen por
+     * primera vez en la lista de gráficas.
+     * @param graficas las gráficas a combinar.
+     * @return la gráfica combinada.
+     */
+    public GraficaDirigida<T> combina(List<GraficaDirigida<T>> graficas) {
+        int k = graficas.size();
+
+        //Unimos los vértices; cada elemento se dispersa una sola vez.
+        ConcurrentHashMap<T, Propietario> propietarios = new ConcurrentHashMap<>();
+        Propietario[][] vertices = new Propietario[k][];
+        paralelo(k, g -> {
+            GraficaDirigida<T> grafica = graficas.get(g);
+            Propietario[] arreglo = new Propietario[grafica.getElementos()];
+            for (int i = 0; i < arreglo.length; i++) {
+                int vertice = i;
+                Propietario p = propietarios.computeIfAbsent(grafica.elemento(i),
+                                                            e -> new Propietario(g, vertice));
+                p.reclama(g, i);
+                arreglo[i] = p;
+            }
+            vertices[g] = arreglo;
+        });
+
+        //Numeramos los dueños en orden.
+        List<T> elementos = new ArrayList<>(propietarios.size());
+        for (int g = 0; g < k; g++) {
+            for (int i = 0; i < vertices[g].length; i++) {
+                Propietario p = vertices[g][i];
+                if (p.grafica == g && p.vertice == i) {
+                    p.id = elementos.size();
+                    elementos.add(graficas.get(g).elemento(i));
+                }
+            }
+        }
+        int n = elementos.size();
+
+        //Cada gráfica traduce sus aristas a identificadores globales.
+        int[] desplazamientos = new int[k + 1];
+        for (int g = 0; g < k; g++)
+            desplazamientos[g + 1] = desplazamientos[g] + graficas.get(g).getAristas();
+        int total = desplazamientos[k];
+        int[] origenes = new int[total];
+        int[] destinos = new int[total];
+        double[] pesos = new double[total];
+        paralelo(k, g -> {
+            GraficaDirigida<T> grafica = graficas.get(g);
+            int j = desplazamientos[g];
+            for (int i = 0; i < vertices[g].length; i++) {
+                int u = vertices[g][i].id;
+                //La gráfica escribe sus aristas directo en los arreglos
+                //globales; luego traducimos los destinos.
+                int fin = j + grafica.vecinos(i, destinos, pesos, j);
+                for (; j < fin; j++) {
+                    origenes[j] = u;
+                    destinos[j] = vertices[g][destinos[j]].id;
+                }
+            }
+        });
+
+        //Agrupamos las aristas por origen, sin perder el orden de las gráficas.
+        int[] inicios = new int[n + 1];
+        for (int j = 0; j < total; j++)
+            inicios[origenes[j] + 1]++;
+        for (int u = 0; u < n; u++)
+            inicios[u + 1] += inicios[u];
+        int[] siguiente = inicios.clone();
+        int[] agrupados = new int[total];
+        double[] pesosAgrupados = new double[total];
+        for (int j = 0; j < total; j++) {
+            int p = siguiente[origenes[j]]++;
+            agrupados[p] = destinos[j];
+            pesosAgrupados[p] = pesos[j];
+        }
+
+        //Quitamos las aristas repetidas de cada origen; cada arista es una
+        //sola consulta a un arreglo de marcas. Los pedazos reutilizan las
+        //marcas, así que se crean tantas como pedazos corran a la vez.
+        int[] finales = new int[n];
+        int pedazos = Math.max(1, Math.min(n, pool.getParallelism() * 4));
+        Queue<Marcas> libres = new ConcurrentLinkedQueue<>();
+        paralelo(pedazos, c -> {
+            Marcas libre = libres.poll();
+            Marcas mc = libre != null ? libre : new Marcas(n);
+            int[] marcas = mc.marcas;
+            int[] posiciones = mc.posiciones;
+            for (int u = (int)((long)n * c / pedazos); u < (long)n * (c + 1) / pedazos; u++) {
+                int w = inicios[u];
+                for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                    int v = agrupados[j];
+                    if (marcas[v] != u + 1) {
+                        marcas[v] = u + 1;
+                        posiciones[v] = w;
+                        agrupados[w] = v;
+                        pesosAgrupados[w++] = pesosAgrupados[j];
+                    } else {
+                        pesosAgrupados[posiciones[v]] =
+                            politica.resuelve(pesosAgrupados[posiciones[v]], pesosAgrupados[j]);
+                    }
+                }
+                finales[u] = w;
+            }
+            libres.offer(mc);
+        });
+
+        //Compactamos las aristas que quedaron.
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int j = inicios[u]; j < finales[u]; j++, m++) {
+                origenes[m] = u;
+                destinos[m] = agrupados[j];
+                pesos[m] = pesosAgrupados[j];
+            }
+        }
+        return new GraficaDirigida<>(elementos, origenes, destinos, pesos, m);
+    }
+
+    /* Hace las tareas de 0 a k-1 en el pool. */
+    private void paralelo(int k, IntConsumer tarea) {
+        pool.submit(() -> IntStream.range(0, k).parallel().forEach(tarea)).join();
+    }
+}
@@ -0,0 +1,266 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Clase para las componentes fuertemente conexas de una gráfica
+ * dirigida.</p>
+ *
+ * <p>Las componentes se calculan con el algoritmo de Tarjan, sin recursión:
+ * la pila de llamadas se guarda en arreglos primitivos, por lo que sirve para
+ * gráficas de millones de vértices. El cálculo toma tiempo <i>O</i>(<i>n</i>
+ * + <i>m</i>).</p>
+ *
+ * <p>Las componentes se numeran de 0 a <i>k</i>-1 en orden topológico: si
+ * hay una arista de la componente <i>a</i> a la componente <i>b</i>, entonces
+ * <i>a</i> &lt; <i>b</i>.</p>
+ *
+ * <p>Las componentes son válidas mientras la gráfica de la que salieron no
+ * cambie.</p>
+ */
+public class ComponentesFuertes<T> {
+
+    /* La componente de cada vértice, por índice. */
+    private int[] componentes;
+    /* El número de vértices de cada componente. */
+    private int[] tamanos;
+    /* Dónde empiezan las aristas de cada vértice. */
+    private int[] inicios;
+    /* Los destinos de las aristas. */
+    private int[] destinos;
+    /* Los pesos de las aristas. */
+    private double[] pesos;
+    /* Regresa el índice de un elemento de la gráfica. */
+    private ToIntFunction<T> indices;
+    /* Regresa el elemento de un índice de la gráfica. */
+    private IntFunction<T> elementos;
+
+    /* Calcula las componentes de la gráfica cuyas aristas salen del vértice
+     * u en las posiciones inicios[u] a inicios[u+1]-1 de destinos y pesos.
+     * Los arreglos pasan a ser de las componentes. */
+    ComponentesFuertes(int[] inicios, int[] destinos, double[] pesos,
+                       ToIntFunction<T> indices, IntFunction<T> elementos) {
+        this.inicios = inicios;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.indices = indices;
+        this.elementos = elementos;
+        componentes = tarjan(inicios, destinos);
+        int k = 0;
+        for (int c : componentes)
+            k = Math.max(k, c + 1);
+        tamanos = new int[k];
+        for (int c : componentes)
+            tamanos[c]++;
+    }
+
+    /* Regresa la componente de cada vértice, numeradas en orden
+     * topológico. */
+    static int[] tarjan(int[] inicios, int[] destinos) {
+        int n = inicios.length - 1;
+        int[] orden = new int[n];
+        int[] bajos = new int[n];
+        int[] siguientes = new int[n];
+        int[] llamadas = new int[n];
+        int[] pila = new int[n];
+        int[] componentes = new int[n];
+        Arrays.fill(orden, -1);
+        //Los vértices en la pila de Tarjan tienen componente -1.
+        Arrays.fill(componentes, -1);
+        int contador = 0, k = 0;
+
+        for (int s = 0; s < n; s++) {
+            if (orden[s] != -1)
+                continue;
+            int c = 0, p = 0;
+            orden[s] = bajos[s] = contador++;
+            siguientes[s] = inicios[s];
+            llamadas[c++] = s;
+            pila[p++] = s;
+            while (c > 0) {
+                int v = llamadas[c - 1];
+                if (siguientes[v] < inicios[v + 1]) {
+                    //Seguimos con la siguiente arista de v.
+                    int w = destinos[siguientes[v]++];
+                    if (orden[w] == -1) {
+                        orden[w] = bajos[w] = contador++;
+                        siguientes[w] = inicios[w];
+                        llamadas[c++] = w;
+                        pila[p++] = w;
+                    } else if (componentes[w] == -1) {
+                        bajos[v] = Math.min(bajos[v], orden[w]);
+                    }
+                    continue;
+                }
+                //Regresamos de v.
+                c--;
+                if (bajos[v] == orden[v]) {
+                    int w;
+                    do {
+                        w = pila[--p];
+                        componentes[w] = k;
+                    } while (w != v);
+                    k++;
+                }
+                if (c > 0) {
+                    int u = llamadas[c - 1];
+                    bajos[u] = Math.min(bajos[u], bajos[v]);
+                }
+            }
+        }
+
+        //Tarjan termina las componentes en orden topológico inverso.
+        for (int v = 0; v < n; v++)
+            componentes[v] = k - 1 - componentes[v];
+        return componentes;
+    }
+
+    /**
+     * Regresa el número de componentes.
+     * @return el número de componentes.
+     */
+    public int getComponentes() {
+        return tamanos.length;
+    }
+
+    /**
+     * Regresa la componente del elemento recibido.
+     * @param elemento el elemento.
+     * @return el número de su componente.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int componente(T elemento) {
+        return componentes[indice(elemento)];
+    }
+
+    /**
+     * Regresa la componente de cada vértice de la gráfica.
+     * @return un arreglo nuevo, indexado por el identificador de cada vértice
+     *         en la gráfica, con el número de su componente.
+     */
+    public int[] componentes() {
+        return componentes.clone();
+    }
+
+    /**
+     * Regresa el número de vértices de una componente.
+     * @param componente el número de la componente.
+     * @return el número de vértices de la componente.
+     * @throws NoSuchElementException si la componente es inválida.
+     */
+    public int getTamano(int componente) {
+        return tamanos[verifica(componente)];
+    }
+
+    /**
+     * Regresa los elementos de una componente.
+     * @param componente el número de la componente.
+     * @return una lista con los elementos de la componente.
+     * @throws NoSuchElementException si la componente es inválida.
+     */
+    public List<T> elementos(int componente) {
+        List<T> lista = new ArrayList<>(tamanos[verifica(componente)]);
+        for (int v = 0; v < componentes.length; v++)
+            if (componentes[v] == componente)
+                lista.add(elementos.apply(v));
+        return lista;
+    }
+
+    /**
+     * Nos dice si dos elementos están en la misma componente, es decir, si
+     * cada uno se alcanza desde el otro.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b están en la misma componente,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no están en la gráfica.
+     */
+    public boolean mismaComponente(T a, T b) {
+        return componentes[indice(a)] == componentes[indice(b)];
+    }
+
+    /**
+     * Regresa la condensación de la gráfica: la gráfica dirigida acíclica que
+     * tiene un vértice por componente, con identificador y elemento igual al
+     * número de la componente, y una arista de <i>a</i> a <i>b</i> si hay una
+     * arista de un vértice de <i>a</i> a uno de <i>b</i>. El peso de la arista
+     * es el menor de esas aristas.
+     * @return una nueva gráfica con la condensación.
+     */
+    public GraficaDirigida<Integer> condensacion() {
+        int n = componentes.length;
+        int k = tamanos.length;
+
+        //Agrupamos por componente de origen las aristas entre componentes.
+        int[] grupos = new int[k + 1];
+        for (int u = 0; u < n; u++)
+            for (int j = inicios[u]; j < inicios[u + 1]; j++)
+                if (componentes[u] != componentes[destinos[j]])
+                    grupos[componentes[u] + 1]++;
+        for (int c = 0; c < k; c++)
+            grupos[c + 1] += grupos[c];
+        int total = grupos[k];
+        int[] siguiente = Arrays.copyOf(grupos, k);
+        int[] agrupados = new int[total];
+        double[] pesosAgrupados = new double[total];
+        for (int u = 0; u < n; u++) {
+            for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                int a = componentes[u], b = componentes[destinos[j]];
+                if (a != b) {
+                    int p = siguiente[a]++;
+                    agrupados[p] = b;
+                    pesosAgrupados[p] = pesos[j];
+                }
+            }
+        }
+
+        //Quitamos las aristas repetidas, quedándonos con el menor peso.
+        int[] marcas = new int[k];
+        int[] posiciones = new int[k];
+        int[] origenes = new int[total];
+        int[] destinosCondensados = new int[total];
+        double[] pesosCondensados = new double[total];
+        int m = 0;
+        for (int a = 0; a < k; a++) {
+            for (int j = grupos[a]; j < grupos[a + 1]; j++) {
+                int b = agrupados[j];
+                if (marcas[b] != a + 1) {
+                    marcas[b] = a + 1;
+                    posiciones[b] = m;
+                    origenes[m] = a;
+                    destinosCondensados[m] = b;
+                    pesosCondensados[m++] = pesosAgrupados[j];
+                } else {
+                    pesosCondensados[posiciones[b]] =
+                        Math.min(pesosCondensados[posiciones[b]], pesosAgrupados[j]);
+                }
+            }
+        }
+
+        List<Integer> numeros = new ArrayList<>(k);
+        for (int c = 0; c < k; c++)
+            numeros.add(c);
+        return new GraficaDirigida<>(numeros, origenes, destinosCondensados,
+                                     pesosCondensados, m);
+    }
+
+    /* Regresa el índice del elemento, verificando que sea de la gráfica. */
+    private int indice(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        if (i >= componentes.length)
+            throw new NoSuchElementException("El elemento no está en las componentes: " + elemento);
+        return i;
+    }
+
+    /* Verifica que la componente sea válida. */
+    private int verifica(int componente) {
+        if (componente < 0 || componente >= tamanos.length)
+            throw new NoSuchElementException("Componente inválida: " + componente);
+        return componente;
+    }
+}
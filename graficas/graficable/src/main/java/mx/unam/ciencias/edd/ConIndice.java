@@ -0,0 +1,23 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para elementos que guardan su propio índice dentro de un
+ * montículo. Así el montículo encuentra a un elemento sin buscarlo en un
+ * diccionario; a cambio, un elemento sólo puede estar en un montículo a la
+ * vez.
+ */
+public interface ConIndice {
+
+    /**
+     * Regresa el índice del elemento en el montículo.
+     * @return el índice del elemento en el montículo, o un número negativo si
+     *         no está en ninguno.
+     */
+    public int getIndice();
+
+    /**
+     * Define el índice del elemento en el montículo.
+     * @param indice el nuevo índice del elemento.
+     */
+    public void setIndice(int indice);
+}
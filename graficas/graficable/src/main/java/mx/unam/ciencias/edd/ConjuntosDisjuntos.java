@@ -0,0 +1,106 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para conjuntos disjuntos (<i>union-find</i>) sobre los enteros
+ * entre 0 y <i>n</i>-1.</p>
+ *
+ * <p>Cada conjunto es un árbol cuya raíz es su representante. Las búsquedas
+ * comprimen la trayectoria a la raíz y las uniones cuelgan el árbol de menor
+ * rango del de mayor rango, por lo que cada operación cuesta tiempo casi
+ * constante amortizado.</p>
+ *
+ * <p>{@link #representante} y {@link #tamano} no comprimen, así que no
+ * modifican la estructura y pueden llamarse desde varios hilos a la vez
+ * mientras ninguno la modifique; por los rangos cuestan tiempo
+ * <i>O</i>(log <i>n</i>).</p>
+ */
+class ConjuntosDisjuntos {
+
+    /* El padre de cada elemento; las raíces son su propio padre. */
+    private int[] padres;
+    /* El rango de cada raíz. */
+    private byte[] rangos;
+    /* El número de elementos de cada raíz. */
+    private int[] tamanos;
+    /* El número de elementos. */
+    private int elementos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /* Construye n conjuntos de un solo elemento. */
+    ConjuntosDisjuntos(int n) {
+        padres = new int[Math.max(n, 16)];
+        rangos = new byte[padres.length];
+        tamanos = new int[padres.length];
+        for (int i = 0; i < n; i++)
+            agrega();
+    }
+
+    /* Agrega un conjunto con el elemento n, y regresa n. */
+    int agrega() {
+        if (elementos == padres.length) {
+            padres = Arrays.copyOf(padres, elementos * 2);
+            rangos = Arrays.copyOf(rangos, elementos * 2);
+            tamanos = Arrays.copyOf(tamanos, elementos * 2);
+        }
+        padres[elementos] = elementos;
+        rangos[elementos] = 0;
+        tamanos[elementos] = 1;
+        conjuntos++;
+        return elementos++;
+    }
+
+    /* Regresa el representante del conjunto del elemento. */
+    int busca(int i) {
+        int raiz = i;
+        while (padres[raiz] != raiz)
+            raiz = padres[raiz];
+        //Comprimimos la trayectoria.
+        while (padres[i] != raiz) {
+            int siguiente = padres[i];
+            padres[i] = raiz;
+            i = siguiente;
+        }
+        return raiz;
+    }
+
+    /* Regresa el representante del conjunto del elemento, sin comprimir la
+     * trayectoria. */
+    int representante(int i) {
+        while (padres[i] != i)
+            i = padres[i];
+        return i;
+    }
+
+    /* Une los conjuntos de los dos elementos; regresa true si eran
+     * distintos. */
+    boolean une(int a, int b) {
+        a = busca(a);
+        b = busca(b);
+        if (a == b)
+            return false;
+        if (rangos[a] < rangos[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        padres[b] = a;
+        tamanos[a] += tamanos[b];
+        if (rangos[a] == rangos[b])
+            rangos[a]++;
+        conjuntos--;
+        return true;
+    }
+
+    /* Regresa el número de elementos del conjunto del elemento. */
+    int tamano(int i) {
+        return tamanos[representante(i)];
+    }
+
+    /* Regresa el número de conjuntos. */
+    int getConjuntos() {
+        return conjuntos;
+    }
+}
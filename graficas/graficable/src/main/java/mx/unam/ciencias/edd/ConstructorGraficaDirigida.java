@@ -0,0 +1,171 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para construir gráficas dirigidas grandes de una sola vez.</p>
+ *
+ * <p>Agregar miles de aristas con {@link GraficaDirigida#conecta} verifica
+ * cada arista por separado y hace crecer los diccionarios de la gráfica poco a
+ * poco. El constructor, en cambio, sólo guarda los identificadores y pesos de
+ * las aristas en arreglos primitivos del tamaño esperado, y al final crea la
+ * gráfica en una sola pasada, con cada diccionario de su tamaño final.</p>
+ *
+ * <p>Las aristas pueden venir de cualquier flujo de tuplas:</p>
+ *
+ * <pre>
+ *     ConstructorGraficaDirigida&lt;Estacion&gt; c =
+ *         new ConstructorGraficaDirigida&lt;&gt;(vertices, aristas);
+ *     tramos.forEach(t -&gt; c.conecta(t.origen, t.destino, t.peso));
+ *     GraficaDirigida&lt;Estacion&gt; grafica = c.construye();
+ * </pre>
+ */
+public class ConstructorGraficaDirigida<T> {
+
+    /* Los identificadores de los elementos. */
+    private Map<T, Integer> ids;
+    /* Los elementos, por identificador. */
+    private List<T> elementos;
+    /* Los orígenes de las aristas. */
+    private int[] origenes;
+    /* Los destinos de las aristas. */
+    private int[] destinos;
+    /* Los pesos de las aristas. */
+    private double[] pesos;
+    /* El número de aristas. */
+    private int aristas;
+
+    /**
+     * Construye un constructor sin tamaños esperados.
+     */
+    public ConstructorGraficaDirigida() {
+        this(16, 16);
+    }
+
+    /**
+     * Construye un constructor para el número esperado de vértices y aristas.
+     * Los números sólo sirven para reservar memoria; la gráfica puede tener
+     * más vértices o más aristas.
+     * @param vertices el número esperado de vértices.
+     * @param aristas el número esperado de aristas.
+     * @throws IllegalArgumentException si alguno de los números es negativo.
+     */
+    public ConstructorGraficaDirigida(int vertices, int aristas) {
+        if (vertices < 0 || aristas < 0)
+            throw new IllegalArgumentException("Tamaños inválidos: " +
+                                               vertices + ", " + aristas);
+        ids = new HashMap<>((int)(vertices / 0.75f) + 1);
+        elementos = new ArrayList<>(vertices);
+        origenes = new int[aristas];
+        destinos = new int[aristas];
+        pesos = new double[aristas];
+    }
+
+    /**
+     * Agrega un elemento a la gráfica que se construye.
+     * @param elemento el elemento a agregar.
+     * @return el constructor, para encadenar llamadas.
+     * @throws IllegalArgumentException si el elemento es <code>null</code> o
+     *         ya había sido agregado.
+     */
+    public ConstructorGraficaDirigida<T> agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo.");
+        if (ids.putIfAbsent(elemento, elementos.size()) != null)
+            throw new IllegalArgumentException("Ya se encuentra en el conjunto de vértices: " +
+                                               elemento);
+        elementos.add(elemento);
+        return this;
+    }
+
+    /**
+     * Agrega una arista del elemento <code>a</code> al elemento
+     * <code>b</code>. Si alguno de los elementos no se había agregado, se
+     * agrega. Las aristas repetidas se detectan al construir la gráfica.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @param peso el peso de la arista.
+     * @return el constructor, para encadenar llamadas.
+     * @throws IllegalArgumentException si algún elemento es <code>null</code>,
+     *         si a es igual a b, o si el peso es no positivo.
+     */
+    public ConstructorGraficaDirigida<T> conecta(T a, T b, double peso) {
+        if (peso <= 0)
+            throw new IllegalArgumentException("No se admiten pesos menores a 0.");
+        return conectaPorId(id(a), id(b), peso);
+    }
+
+    /**
+     * Agrega una arista entre los elementos con los identificadores
+     * recibidos. El identificador de un elemento es el número de elementos
+     * que se habían agregado antes que él.
+     * @param a el identificador del origen de la arista.
+     * @param b el identificador del destino de la arista.
+     * @param peso el peso de la arista.
+     * @return el constructor, para encadenar llamadas.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     * @throws IllegalArgumentException si a es igual a b, o si el peso es no
+     *         positivo.
+     */
+    public ConstructorGraficaDirigida<T> conectaPorId(int a, int b, double peso) {
+        if (a < 0 || a >= elementos.size() || b < 0 || b >= elementos.size())
+            throw new NoSuchElementException("Identificadores inválidos: " + a + ", " + b);
+        if (a == b)
+            throw new IllegalArgumentException("Elementos iguales, no admitimos lazos.");
+        if (peso <= 0)
+            throw new IllegalArgumentException("No se admiten pesos menores a 0.");
+        if (aristas == origenes.length) {
+            int capacidad = Math.max(16, aristas * 2);
+            origenes = Arrays.copyOf(origenes, capacidad);
+            destinos = Arrays.copyOf(destinos, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+        }
+        origenes[aristas] = a;
+        destinos[aristas] = b;
+        pesos[aristas++] = peso;
+        return this;
+    }
+
+    /**
+     * Regresa el número de elementos agregados.
+     * @return el número de elementos agregados.
+     */
+    public int getElementos() {
+        return elementos.size();
+    }
+
+    /**
+     * Regresa el número de aristas agregadas.
+     * @return el número de aristas agregadas.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Construye la gráfica con los elementos y aristas agregados. Los
+     * identificadores de la gráfica (ver {@link GraficaDirigida#id}) siguen
+     * el orden en que se agregaron los elementos. El constructor puede
+     * seguirse usando después, sin afectar a la gráfica construida.
+     * @return la gráfica construida.
+     * @throws IllegalArgumentException si alguna arista se agregó más de una
+     *         vez.
+     */
+    public GraficaDirigida<T> construye() {
+        return new GraficaDirigida<>(elementos, origenes, destinos, pesos, aristas);
+    }
+
+    /* Regresa el identificador del elemento, agregándolo si hace falta. */
+    private int id(T elemento) {
+        Integer id = ids.get(elemento);
+        if (id != null)
+            return id;
+        agrega(elemento);
+        return elementos.size() - 1;
+    }
+}
@@ -0,0 +1,217 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Clase para el estado de una consulta de trayectorias mínimas.</p>
+ *
+ * <p>Las gráficas no guardan el estado de sus consultas en sus vértices, sino
+ * en un contexto como éste. Cada vértice de la gráfica tiene un índice entre
+ * 0 y <i>n</i>-1, y el contexto guarda la distancia y el vértice anterior de
+ * cada vértice en arreglos primitivos indexados por esos índices. Además
+ * guarda un nodo por vértice y los montículos de Dijkstra, que se crean la
+ * primera vez que se usan y se reutilizan en las consultas siguientes; el
+ * contexto cuesta entonces <i>O</i>(<i>n</i>) de memoria, y una consulta no
+ * crea arreglos salvo cuando el contexto tiene que crecer.</p>
+ *
+ * <p>Un contexto sólo puede usarse en un hilo a la vez, pero puede
+ * reutilizarse en tantas consultas como se quiera, sobre cualquier gráfica.
+ * Varios hilos pueden consultar la misma gráfica al mismo tiempo siempre que
+ * cada uno use su propio contexto y ningún hilo modifique la gráfica.</p>
+ */
+public class ContextoDijkstra {
+
+    /* Clase interna para los elementos de los montículos. Un nodo compara
+     * por la distancia guardada en el contexto para su índice, y guarda su
+     * posición en el montículo para que éste no use un diccionario. */
+    class Nodo implements Comparable<Nodo>, ConIndice {
+
+        /* El índice del vértice del nodo. */
+        final int indice;
+        /* La posición del nodo en el montículo. */
+        private int posicion;
+
+        /* Construye un nodo para el índice recibido. */
+        Nodo(int indice) {
+            this.indice = indice;
+            posicion = -1;
+        }
+
+        /* Compara dos nodos por su clave. */
+        @Override public int compareTo(Nodo nodo) {
+            return Double.compare(claves[indice], claves[nodo.indice]);
+        }
+
+        /* Regresa la posición del nodo en el montículo. */
+        @Override public int getIndice() {
+            return posicion;
+        }
+
+        /* Define la posición del nodo en el montículo. */
+        @Override public void setIndice(int posicion) {
+            this.posicion = posicion;
+        }
+    }
+
+    /* Las distancias de los vértices, por índice. */
+    double[] distancias;
+    /* Las claves con las que se ordenan los nodos; son las distancias, salvo
+     * en búsquedas con heurística. */
+    double[] claves;
+    /* Las prioridades de las búsquedas con heurística. */
+    private double[] prioridades;
+    /* El índice del vértice anterior en la trayectoria de cada vértice, o -1
+     * si no se ha alcanzado. */
+    int[] anteriores;
+    /* La cola de índices de los recorridos por amplitud. */
+    int[] cola;
+    /* El número de vértices asentados en la última consulta. */
+    int asentados;
+    /* Los nodos de los vértices, por índice. */
+    private Nodo[] nodos;
+    /* El número de vértices de la última consulta. */
+    private int n;
+    /* Los montículos de las consultas, que se reutilizan entre ellas. */
+    private MonticuloMinimo<Nodo> monticulo;
+    private MonticuloArreglo<Nodo> arreglo;
+    private MonticuloRadix<Nodo> radix;
+    private MonticuloDial<Nodo> dial;
+
+    /**
+     * Construye un contexto vacío. El contexto crece la primera vez que se
+     * usa sobre una gráfica.
+     */
+    public ContextoDijkstra() {
+        this(0);
+    }
+
+    /**
+     * Construye un contexto para gráficas de hasta n vértices.
+     * @param n el número de vértices esperado.
+     */
+    public ContextoDijkstra(int n) {
+        distancias = new double[n];
+        claves = distancias;
+        prioridades = new double[0];
+        anteriores = new int[n];
+        cola = new int[n];
+        nodos = new Nodo[n];
+        for (int i = 0; i < n; i++)
+            nodos[i] = new Nodo(i);
+    }
+
+    /**
+     * Regresa el número de vértices para el que el contexto tiene memoria.
+     * @return el número de vértices para el que el contexto tiene memoria.
+     */
+    public int getCapacidad() {
+        return nodos.length;
+    }
+
+    /**
+     * Regresa la distancia que la última consulta calculó para el vértice
+     * con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return la distancia del vértice, o infinito si no se alcanzó.
+     * @throws IndexOutOfBoundsException si el índice es inválido.
+     */
+    public double getDistancia(int indice) {
+        if (indice < 0 || indice >= n)
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        return distancias[indice];
+    }
+
+    /**
+     * Regresa el número de vértices que la última consulta asentó, es decir,
+     * cuya distancia definitiva calculó. Sirve para comparar cuánto de la
+     * gráfica exploran distintos algoritmos.
+     * @return el número de vértices asentados en la última consulta.
+     */
+    public int getAsentados() {
+        return asentados;
+    }
+
+    /* Prepara el contexto para una consulta sobre n vértices: crece si hace
+     * falta y vuelve infinitas todas las distancias. */
+    void prepara(int n) {
+        if (nodos.length < n) {
+            int capacidad = Math.max(n, nodos.length * 2);
+            Nodo[] nuevos = Arrays.copyOf(nodos, capacidad);
+            for (int i = nodos.length; i < capacidad; i++)
+                nuevos[i] = new Nodo(i);
+            nodos = nuevos;
+            distancias = new double[capacidad];
+            anteriores = new int[capacidad];
+            cola = new int[capacidad];
+        }
+        this.n = n;
+        claves = distancias;
+        asentados = 0;
+        Arrays.fill(distancias, 0, n, Double.POSITIVE_INFINITY);
+        Arrays.fill(anteriores, 0, n, -1);
+    }
+
+    /* Prepara el contexto para una búsqueda con heurística sobre n vértices:
+     * los nodos se ordenan por prioridad en lugar de por distancia. */
+    void preparaPrioridades(int n) {
+        prepara(n);
+        if (prioridades.length < distancias.length)
+            prioridades = new double[distancias.length];
+        Arrays.fill(prioridades, 0, n, Double.POSITIVE_INFINITY);
+        claves = prioridades;
+    }
+
+    /* Regresa el montículo binario del contexto, vacío. */
+    MonticuloMinimo<Nodo> monticulo() {
+        if (monticulo == null)
+            monticulo = new MonticuloMinimo<>();
+        else
+            monticulo.limpia();
+        return monticulo;
+    }
+
+    /* Regresa el montículo de Dijkstra de la clase recibida, ordenado por
+     * distancia: lleno con los nodos de los primeros n índices, o vacío. */
+    MonticuloDijkstra<Nodo> monticulo(Class<?> tipo, boolean lleno) {
+        List<Nodo> nodos = lleno ? nodos() : Collections.emptyList();
+        if (tipo == MonticuloDial.class) {
+            if (dial == null)
+                dial = new MonticuloDial<>(nodos, n, nodo -> nodo.indice,
+                                           nodo -> distancias[nodo.indice],
+                                           MonticuloDial.PESO_MAXIMO);
+            else
+                dial.llena(nodos, n);
+            return dial;
+        }
+        if (tipo == MonticuloRadix.class) {
+            if (radix == null)
+                radix = new MonticuloRadix<>(nodos, n, nodo -> nodo.indice,
+                                             nodo -> distancias[nodo.indice]);
+            else
+                radix.llena(nodos, n);
+            return radix;
+        }
+        if (tipo == MonticuloArreglo.class) {
+            if (arreglo == null)
+                arreglo = new MonticuloArreglo<>(nodos, n);
+            else
+                arreglo.llena(nodos, n);
+            return arreglo;
+        }
+        MonticuloMinimo<Nodo> minimo = monticulo();
+        minimo.llena(nodos, n);
+        return minimo;
+    }
+
+    /* Regresa el nodo del índice recibido. */
+    Nodo nodo(int indice) {
+        return nodos[indice];
+    }
+
+    /* Regresa una lista con los nodos de los primeros n índices. */
+    List<Nodo> nodos() {
+        return Arrays.asList(nodos).subList(0, n);
+    }
+}
@@ -0,0 +1,97 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para repartir los índices de 0 a <i>n</i>-1 en cubetas.</p>
+ *
+ * <p>Cada índice está en a lo más una cubeta, y cada cubeta es una lista
+ * doblemente ligada sobre arreglos; así, agregar, eliminar y mover un índice
+ * toma tiempo constante y no crea objetos.</p>
+ */
+class Cubetas {
+
+    /* El primer índice de cada cubeta, o -1. */
+    private int[] primeros;
+    /* El índice siguiente y el anterior de cada índice en su cubeta, o -1. */
+    private int[] siguientes;
+    private int[] anteriores;
+    /* La cubeta de cada índice, o -1. */
+    private int[] cubetas;
+
+    /* Construye k cubetas vacías para n índices. */
+    Cubetas(int n, int k) {
+        primeros = new int[k];
+        siguientes = new int[n];
+        anteriores = new int[n];
+        cubetas = new int[n];
+        Arrays.fill(primeros, -1);
+        Arrays.fill(cubetas, -1);
+    }
+
+    /* Vacía las cubetas y las deja listas para n índices; toma tiempo
+     * proporcional a las cubetas y a los índices que quedaban en ellas. */
+    void limpia(int n) {
+        for (int c = 0; c < primeros.length; c++) {
+            for (int i = primeros[c]; i != -1; i = siguientes[i])
+                cubetas[i] = -1;
+            primeros[c] = -1;
+        }
+        if (cubetas.length < n) {
+            siguientes = new int[n];
+            anteriores = new int[n];
+            cubetas = new int[n];
+            Arrays.fill(cubetas, -1);
+        }
+    }
+
+    /* Agrega el índice, que no está en ninguna cubeta, a la cubeta c. */
+    void agrega(int i, int c) {
+        cubetas[i] = c;
+        anteriores[i] = -1;
+        siguientes[i] = primeros[c];
+        if (primeros[c] != -1)
+            anteriores[primeros[c]] = i;
+        primeros[c] = i;
+    }
+
+    /* Saca el índice de su cubeta. */
+    void elimina(int i) {
+        int c = cubetas[i];
+        if (anteriores[i] != -1)
+            siguientes[anteriores[i]] = siguientes[i];
+        else
+            primeros[c] = siguientes[i];
+        if (siguientes[i] != -1)
+            anteriores[siguientes[i]] = anteriores[i];
+        cubetas[i] = -1;
+    }
+
+    /* Mueve el índice de su cubeta a la cubeta c. */
+    void mueve(int i, int c) {
+        if (cubetas[i] == c)
+            return;
+        elimina(i);
+        agrega(i, c);
+    }
+
+    /* Regresa la cubeta del índice, o -1 si no está en ninguna. */
+    int cubeta(int i) {
+        return cubetas[i];
+    }
+
+    /* Regresa el primer índice de la cubeta c, o -1 si es vacía. */
+    int primero(int c) {
+        return primeros[c];
+    }
+
+    /* Regresa el índice que sigue a i en su cubeta, o -1. */
+    int siguiente(int i) {
+        return siguientes[i];
+    }
+
+    /* Regresa el número de cubetas. */
+    int getCubetas() {
+        return primeros.length;
+    }
+}
@@ -0,0 +1,230 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para calcular distancias mínimas desde un origen con
+ * <i>delta-stepping</i>.</p>
+ *
+ * <p>Los vértices pendientes se guardan en cubetas de ancho delta según su
+ * distancia tentativa. Las cubetas se vacían en orden, y todos los vértices
+ * de una cubeta se relajan a la vez entre los hilos de un {@link
+ * ForkJoinPool}: primero las aristas ligeras (de peso a lo más delta), que
+ * pueden regresar vértices a la misma cubeta, y al final las pesadas. Las
+ * distancias se actualizan con operaciones atómicas, por lo que el resultado
+ * es el mismo que el del algoritmo de Dijkstra.</p>
+ *
+ * <p>Las aristas se reciben por vértice: las del vértice <i>u</i> están en las
+ * posiciones <code>inicios[u]</code> a <code>inicios[u+1]-1</code>.</p>
+ */
+class DeltaStepping {
+
+    /* Vértices por tarea al relajar una cubeta. */
+    private static final int TAREA = 512;
+
+    /* Clase interna para arreglos de enteros que crecen. */
+    private static class Cubeta {
+
+        /* Los enteros. */
+        private int[] datos = new int[16];
+        /* El número de enteros. */
+        private int elementos;
+
+        /* Agrega un entero. */
+        void agrega(int v) {
+            if (elementos == datos.length)
+                datos = Arrays.copyOf(datos, elementos * 2);
+            datos[elementos++] = v;
+        }
+    }
+
+    /* Las aristas por vértice. */
+    private int[] inicios;
+    private int[] destinos;
+    private double[] pesos;
+    /* El ancho de las cubetas. */
+    private double delta;
+    /* El pool donde se relajan las cubetas. */
+    private ForkJoinPool pool;
+    /* Los bits de la distancia tentativa de cada vértice. */
+    private AtomicLongArray distancias;
+
+    /* Prepara el cálculo sobre las aristas recibidas. */
+    DeltaStepping(int[] inicios, int[] destinos, double[] pesos,
+                  double delta, ForkJoinPool pool) {
+        this.inicios = inicios;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    /* Calcula las distancias desde s, y el vértice anterior de cada vértice
+     * en una trayectoria mínima: s es su propio anterior, y los vértices no
+     * alcanzados tienen -1. */
+    void calcula(int s, double[] resultado, int[] anteriores) {
+        int n = inicios.length - 1;
+        distancias = new AtomicLongArray(n);
+        long infinito = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++)
+            distancias.set(v, infinito);
+        distancias.set(s, Double.doubleToLongBits(0));
+
+        //La marca de la última vez que cada vértice se relajó o se asentó.
+        int[] relajados = new int[n];
+        int[] asentados = new int[n];
+        int ronda = 0, fase = 0;
+        TreeMap<Long, Cubeta> cubetas = new TreeMap<>();
+        Cubeta inicial = new Cubeta();
+        inicial.agrega(s);
+        cubetas.put(0L, inicial);
+
+        while (!cubetas.isEmpty()) {
+            long i = cubetas.firstKey();
+            fase++;
+            Cubeta asentadas = new Cubeta();
+            //Relajamos las aristas ligeras hasta que la cubeta quede vacía.
+            while (cubetas.containsKey(i)) {
+                Cubeta cubeta = cubetas.remove(i);
+                ronda++;
+                Cubeta frente = new Cubeta();
+                for (int k = 0; k < cubeta.elementos; k++) {
+                    int v = cubeta.datos[k];
+                    //Las entradas viejas de vértices que ya bajaron de cubeta
+                    //se ignoran.
+                    if (relajados[v] == ronda || cubeta(v) != i)
+                        continue;
+                    relajados[v] = ronda;
+                    frente.agrega(v);
+                    if (asentados[v] != fase) {
+                        asentados[v] = fase;
+                        asentadas.agrega(v);
+                    }
+                }
+                reparte(relaja(frente, true), cubetas);
+            }
+            //Relajamos las aristas pesadas de los vértices asentados.
+            reparte(relaja(asentadas, false), cubetas);
+        }
+
+        for (int v = 0; v < n; v++)
+            resultado[v] = Double.longBitsToDouble(distancias.get(v));
+        anteriores(s, resultado, anteriores);
+    }
+
+    /* Regresa la cubeta de la distancia tentativa del vértice. */
+    private long cubeta(int v) {
+        return (long)(Double.longBitsToDouble(distancias.get(v)) / delta);
+    }
+
+    /* Relaja en paralelo las aristas ligeras o pesadas de los vértices, y
+     * regresa los vértices cuya distancia disminuyó. */
+    private List<Cubeta> relaja(Cubeta vertices, boolean ligeras) {
+        int tareas = (vertices.elementos + TAREA - 1) / TAREA;
+        if (tareas <= 1)
+            return List.of(relaja(vertices, 0, vertices.elementos, ligeras));
+        return pool.submit(() -> IntStream.range(0, tareas).parallel()
+                           .mapToObj(t -> relaja(vertices, t * TAREA,
+                                                 Math.min(vertices.elementos, (t + 1) * TAREA),
+                                                 ligeras))
+                           .collect(Collectors.toList())).join();
+    }
+
+    /* Relaja las aristas ligeras o pesadas de los vértices entre las
+     * posiciones desde y hasta-1. */
+    private Cubeta relaja(Cubeta vertices, int desde, int hasta, boolean ligeras) {
+        Cubeta mejorados = new Cubeta();
+        for (int k = desde; k < hasta; k++) {
+            int u = vertices.datos[k];
+            double du = Double.longBitsToDouble(distancias.get(u));
+            for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                if ((pesos[j] <= delta) != ligeras)
+                    continue;
+                int v = destinos[j];
+                double nueva = du + pesos[j];
+                while (true) {
+                    long actual = distancias.get(v);
+                    if (nueva >= Double.longBitsToDouble(actual))
+                        break;
+                    if (distancias.compareAndSet(v, actual, Double.doubleToLongBits(nueva))) {
+                        mejorados.agrega(v);
+                        break;
+                    }
+                }
+            }
+        }
+        return mejorados;
+    }
+
+    /* Pone cada vértice mejorado en la cubeta de su distancia. */
+    private void reparte(List<Cubeta> mejorados, TreeMap<Long, Cubeta> cubetas) {
+        for (Cubeta c : mejorados)
+            for (int k = 0; k < c.elementos; k++)
+                cubetas.computeIfAbsent(cubeta(c.datos[k]), x -> new Cubeta())
+                    .agrega(c.datos[k]);
+    }
+
+    /* Elige el anterior de cada vértice: un vértice con distancia menor del
+     * que sale una arista que alcanza exactamente su distancia. Con pesos
+     * positivos los anteriores forman un árbol; si el redondeo absorbe un
+     * peso (d[u] + w == d[u]), un vértice puede no tener un anterior con
+     * distancia menor, y se cuelga de uno con la misma distancia que ya
+     * tenga trayectoria, para no formar ciclos. */
+    private void anteriores(int s, double[] distancias, int[] anteriores) {
+        int n = anteriores.length;
+        AtomicIntegerArray elegidos = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++)
+            elegidos.set(v, -1);
+        elegidos.set(s, s);
+        int tareas = (n + TAREA - 1) / TAREA;
+        pool.submit(() -> IntStream.range(0, tareas).parallel().forEach(t -> {
+                    for (int u = t * TAREA; u < Math.min(n, (t + 1) * TAREA); u++) {
+                        if (distancias[u] == Double.POSITIVE_INFINITY)
+                            continue;
+                        for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                            int v = destinos[j];
+                            if (v != s && distancias[u] < distancias[v] &&
+                                distancias[u] + pesos[j] == distancias[v])
+                                elegidos.compareAndSet(v, -1, u);
+                        }
+                    }
+                })).join();
+        int pendientes = 0;
+        for (int v = 0; v < n; v++) {
+            anteriores[v] = elegidos.get(v);
+            if (anteriores[v] == -1 && distancias[v] != Double.POSITIVE_INFINITY)
+                pendientes++;
+        }
+        if (pendientes > 0)
+            cuelgaEmpates(distancias, anteriores);
+    }
+
+    /* Recorre por amplitud desde los vértices que ya tienen anterior, y
+     * cuelga a los que faltan de un vértice alcanzado con su misma
+     * distancia. */
+    private void cuelgaEmpates(double[] distancias, int[] anteriores) {
+        int n = anteriores.length;
+        int[] cola = new int[n];
+        int cabeza = 0, rabo = 0;
+        for (int v = 0; v < n; v++)
+            if (anteriores[v] != -1)
+                cola[rabo++] = v;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                int v = destinos[j];
+                if (anteriores[v] == -1 && distancias[u] + pesos[j] == distancias[v]) {
+                    anteriores[v] = u;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+    }
+}
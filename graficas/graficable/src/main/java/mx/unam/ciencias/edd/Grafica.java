@@ -1,6 +1,8 @@
 package mx.unam.ciencias.edd;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
@@ -34,20 +36,21 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /* Clase interna privada para vértices. */
-    private class Vertice implements VerticeGrafica<T>, Comparable<Vertice> {
+    private class Vertice implements VerticeGrafica<T> {
 
         /* El elemento del vértice. */
         private T elemento;
-        /* La distancia del vértice. */
-        private double distancia;
-        /* El diccionario de vecinos del vértice. */
-        private Map<T, Vecino> vecinos;
+        /* El índice del vértice, entre 0 y n-1. */
+        private int indice;
+        /* El diccionario de vecinos del vértice, por vértice vecino, en el orden
+         * en que se conectaron. */
+        private Map<Vertice, Vecino> vecinos;
 
         /* Crea un nuevo vértice a partir de un elemento. */
         public Vertice(T elemento) {
             // Aquí va su código.
             this.elemento = elemento;
-            vecinos = new HashMap<>();
+            vecinos = new LinkedHashMap<>();
         }
 
         /* Regresa el elemento del vértice. */
@@ -71,22 +74,6 @@ public class Grafica<T> implements Coleccion<T> {
             }
             return vecinosList;
         }
-
-        /* Compara dos vértices por distancia. */
-        @Override public int compareTo(Vertice vertice) {
-            // Aquí va su código.
-            if(this.distancia < vertice.distancia){
-                return -1;
-
-            } else if (this.distancia > vertice.distancia){
-                return 1;
-
-            } else if(this.distancia == vertice.distancia){
-                return 0;
-            }
-
-            return 0; 
-        }
     }
 
     /* Clase interna privada para vértices vecinos. */
@@ -140,8 +127,21 @@ public class Grafica<T> implements Coleccion<T> {
 
     /* Vértices. */
     private Map<T, Vertice> vertices;
+    /* Vértices, por índice. */
+    private List<Vertice> indexados;
     /* Número de aristas. */
     private int aristas;
+    /* Número de aristas cuyo peso no es entero, y de aristas de peso entero
+     * mayor que el que admite el montículo de Dial. */
+    private int fraccionarias;
+    private int pesadas;
+    /* Contextos libres para las consultas que no reciben uno. */
+    private Queue<ContextoDijkstra> contextos;
+    /* Recorridos libres para BFS y DFS. */
+    private Queue<Recorrido> recorridos;
+    /* Componentes conexas, por identificador. Sólo las modifican los métodos
+     * que modifican la gráfica. */
+    private ConjuntosDisjuntos componentes;
 
     /**
      * Constructor único.
@@ -149,6 +149,10 @@ public class Grafica<T> implements Coleccion<T> {
     public Grafica() {
         // Aquí va su código.
         vertices = new HashMap<>();
+        indexados = new ArrayList<>();
+        contextos = new ConcurrentLinkedQueue<>();
+        recorridos = new ConcurrentLinkedQueue<>();
+        componentes = new ConjuntosDisjuntos(0);
     }
 
     /**
@@ -188,7 +192,10 @@ public class Grafica<T> implements Coleccion<T> {
 
         //Creamos el vértice y lo agregamos a la lista de vértices.
         Vertice v = new Vertice(elemento);
+        v.indice = indexados.size();
         vertices.put(elemento, v);
+        indexados.add(v);
+        componentes.agrega();
     }
 
     /**
@@ -202,29 +209,7 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public void conecta(T a, T b) {
         // Aquí va su código.
-        //Excepciones
-        if(a.equals(b)){//Elementos iguales
-            throw new IllegalArgumentException("Elementos iguales, no admitimos lazos.");
-        }
-
-        //Vertices de los elementos.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
-        if(sonVecinos(a, b)){//Elementos ya vecinos.
-            throw new IllegalArgumentException("Los vértices ya están conectados.");
-        }
-
-        //Incrementamos el contador de aristas.
-        aristas++;
-
-        //Creamos la instancia de vecinos con peso 1.0
-        Vecino vcA = new Vecino(vA, 1.0);
-        Vecino vcB = new Vecino(vB, 1.0);
-
-        //Agregamos a sus listas de adyacencias.
-        vA.vecinos.put(b, vcB);
-        vB.vecinos.put(a, vcA);
+        conecta(a, b, 1.0);
     }
 
     /**
@@ -248,29 +233,14 @@ public class Grafica<T> implements Coleccion<T> {
             throw new IllegalArgumentException("No se admiten pesos menores a 0.");
         }
 
-        //Vertices de los elementos.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
-        if(sonVecinos(a, b)){//Elementos ya vecinos.
-            throw new IllegalArgumentException("Los vértices ya están conectados.");
-        }
-
-        //Incrementamos el contador de aristas.
-        aristas++;
-
-        //Creamos la instancia de vecinos con peso 1.0
-        Vecino vcA = new Vecino(vA, peso);
-        Vecino vcB = new Vecino(vB, peso);
-
-        //Agregamos a sus listas de adyacencias.
-        vA.vecinos.put(b, vcB);
-        vB.vecinos.put(a, vcA);
+        //Vertices de los elementos; a partir de aquí ya no se usan los elementos.
+        enlaza((Vertice) vertice(a), (Vertice) vertice(b), peso);
     }
 
     /**
      * Desconecta dos elementos de la gráfica. Los elementos deben estar en la
-     * gráfica y estar conectados entre ellos.
+     * gráfica y estar conectados entre ellos. Reconstruye las componentes
+     * conexas, en tiempo <i>O</i>(<i>n</i> + <i>m</i>).
      * @param a el primer elemento a desconectar.
      * @param b el segundo elemento a desconectar.
      * @throws NoSuchElementException si a o b no son elementos de la gráfica.
@@ -282,15 +252,19 @@ public class Grafica<T> implements Coleccion<T> {
         Vertice vA = (Vertice) vertice(a);
         Vertice vB = (Vertice) vertice(b);
 
-        if(!sonVecinos(a, b)){//Elementos ya vecinos.
+        if(!vA.vecinos.containsKey(vB)){//Elementos no vecinos.
             throw new IllegalArgumentException("Los vértices no están conectados.");
         }
 
         //Decrementamos el contador de aristas.
         aristas--;
+        cuentaPeso(vA.vecinos.get(vB).peso, -1);
 
-        vA.vecinos.remove(b);
-        vB.vecinos.remove(a);
+        vA.vecinos.remove(vB);
+        vB.vecinos.remove(vA);
+
+        //La arista pudo separar una componente; las reconstruimos.
+        reconstruyeComponentes();
     }
 
     /**
@@ -305,7 +279,8 @@ public class Grafica<T> implements Coleccion<T> {
 
     /**
      * Elimina un elemento de la gráfica. El elemento tiene que estar contenido
-     * en la gráfica.
+     * en la gráfica. Reconstruye las componentes conexas, en tiempo
+     * <i>O</i>(<i>n</i> + <i>m</i>).
      * @param elemento el elemento a eliminar.
      * @throws NoSuchElementException si el elemento no está contenido en la
      *         gráfica.
@@ -315,15 +290,26 @@ public class Grafica<T> implements Coleccion<T> {
         //Obtenemos el vértice del elemento.
         Vertice v = (Vertice) vertice(elemento);
 
-        // Almacenamos los vecinos en una lista para evitar ConcurrentModificationException
-        List<T> vecinosAEliminar = new ArrayList<>(v.vecinos.keySet());
-
-        for (T vecinoElemento : vecinosAEliminar) {
-            desconecta(v.elemento, vecinoElemento);
+        //Desconectamos al vértice de cada uno de sus vecinos.
+        for (Vertice vecino : v.vecinos.keySet()) {
+            vecino.vecinos.remove(v);
+            aristas--;
+            cuentaPeso(v.vecinos.get(vecino).peso, -1);
         }
+        v.vecinos.clear();
 
         // Eliminar el vértice del mapa
         vertices.remove(elemento);
+
+        //Movemos el último vértice al índice que queda libre.
+        Vertice ultimo = indexados.remove(indexados.size() - 1);
+        if(ultimo != v){
+            ultimo.indice = v.indice;
+            indexados.set(v.indice, ultimo);
+        }
+
+        //Los índices cambiaron y una componente pudo separarse.
+        reconstruyeComponentes();
     }
 
     /**
@@ -339,9 +325,9 @@ public class Grafica<T> implements Coleccion<T> {
         //Vertices de los elementos.
         Vertice vA = (Vertice) vertice(a);
         Vertice vB = (Vertice) vertice(b);
-        
-        //Perificamos si los dos son vecinos entre sí.
-        return vA.vecinos.containsKey(b) && vB.vecinos.containsKey(a);
+
+        //Verificamos si b está entre los vecinos de a.
+        return vA.vecinos.containsKey(vB);
     }
 
     /**
@@ -356,16 +342,15 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public double getPeso(T a, T b) {
         // Aquí va su código.
-        if(!sonVecinos(a, b)){//Si no son vecinos.
-            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
-        }
-
         //Obtenemos los vértices.
         Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
+        Vecino vecino = vA.vecinos.get(vertice(b));
+
+        if(vecino == null){//Si no son vecinos.
+            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
+        }
 
-        //tomamos el peso de "a" de los vecinos de b.
-        return vB.vecinos.get(a).peso;
+        return vecino.peso;
     }
 
     /**
@@ -381,7 +366,11 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public void setPeso(T a, T b, double peso) {
         // Aquí va su código.
-        if(!sonVecinos(a, b)){//Si no son vecinos.
+        //Obtenemos los vértices.
+        Vertice vA = (Vertice) vertice(a);
+        Vertice vB = (Vertice) vertice(b);
+
+        if(!vA.vecinos.containsKey(vB)){//Si no son vecinos.
             throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
         }
 
@@ -389,13 +378,11 @@ public class Grafica<T> implements Coleccion<T> {
             throw new IllegalArgumentException("Peso inválido");
         }
 
-        //Obtenemos los vértices.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
         //Asignamos pesos.
-        vA.vecinos.get(b).peso = peso;
-        vB.vecinos.get(a).peso = peso;
+        cuentaPeso(vA.vecinos.get(vB).peso, -1);
+        cuentaPeso(peso, 1);
+        vA.vecinos.get(vB).peso = peso;
+        vB.vecinos.get(vA).peso = peso;
     }
 
     /**
@@ -406,14 +393,14 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public VerticeGrafica<T> vertice(T elemento) {
         // Aquí va su código.
-        //Verificamos que el diccionario contenga el elemento.
-        if(vertices.containsKey(elemento)){
-            return vertices.get(elemento);
+        //Buscamos el vértice con una sola consulta al diccionario.
+        Vertice v = vertices.get(elemento);
+        if(v != null){
+            return v;
         }
 
         //En otro caso, tiramos la excepción.
         throw new NoSuchElementException("No se encuentra el elemento: " + elemento);
-
     }
 
     /**
@@ -435,23 +422,303 @@ public class Grafica<T> implements Coleccion<T> {
 
         Vertice vertice = (Vertice) vertice(elemento);
 
-        return new ArrayList<>(vertice.vecinos.keySet());
+        List<T> lista = new ArrayList<>(vertice.vecinos.size());
+        for (Vecino vc : vertice.vecinos.values()) {
+            lista.add(vc.vecino.elemento);
+        }
+        return lista;
+    }
 
+    /**
+     * Regresa el identificador del vértice del elemento recibido. Los
+     * identificadores son enteros densos entre 0 y <i>n</i>-1 que se asignan
+     * al agregar cada elemento, y permiten usar la gráfica sin calcular el
+     * hash de los elementos.
+     * Al eliminar un elemento, el último vértice toma el identificador que
+     * queda libre.
+     * @param elemento el elemento.
+     * @return el identificador de su vértice.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int id(T elemento) {
+        return ((Vertice) vertice(elemento)).indice;
     }
 
     /**
-     * Nos dice si la gráfica es conexa.
+     * Regresa el elemento del vértice con el identificador recibido.
+     * @param id el identificador del vértice.
+     * @return el elemento del vértice.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public T elemento(int id) {
+        return verticeId(id).elemento;
+    }
+
+    /**
+     * Regresa el número de vecinos del vértice con el identificador recibido.
+     * @param id el identificador del vértice.
+     * @return el grado del vértice.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int getGrado(int id) {
+        return verticeId(id).vecinos.size();
+    }
+
+    /**
+     * Regresa los identificadores de los vecinos de un vértice.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los identificadores de sus vecinos.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int[] vecinos(int id) {
+        int[] ids = new int[getGrado(id)];
+        vecinos(id, ids, 0);
+        return ids;
+    }
+
+    /**
+     * Escribe los identificadores de los vecinos de un vértice en el arreglo
+     * recibido, a partir de la posición recibida y en el mismo orden que
+     * {@link #vecinos(int)}. No crea arreglos: el arreglo debe tener lugar
+     * para {@link #getGrado(int)} vecinos a partir de la posición.
+     * @param id el identificador del vértice.
+     * @param ids el arreglo para los identificadores.
+     * @param desde la posición donde se escribe el primer vecino.
+     * @return el número de vecinos escritos.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int vecinos(int id, int[] ids, int desde) {
+        Vertice v = verticeId(id);
+        int i = desde;
+        for (Vecino vc : v.vecinos.values()) {
+            ids[i++] = vc.vecino.indice;
+        }
+        return i - desde;
+    }
+
+    /**
+     * Conecta los vértices con los identificadores recibidos. Es equivalente
+     * a {@link #conecta(Object,Object,double)} sobre sus elementos.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @param peso el peso de la arista.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     * @throws IllegalArgumentException si los vértices ya están conectados, si
+     *         a es igual a b, o si el peso es no positivo.
+     */
+    public void conectaPorId(int a, int b, double peso) {
+        if(a == b){//Vértices iguales
+            throw new IllegalArgumentException("Elementos iguales, no admitimos lazos.");
+        }
+
+        if(peso <= 0){
+            throw new IllegalArgumentException("No se admiten pesos menores a 0.");
+        }
+
+        enlaza(verticeId(a), verticeId(b), peso);
+    }
+
+    /**
+     * Nos dice si los vértices con los identificadores recibidos están
+     * conectados.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en otro caso.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     */
+    public boolean sonVecinosPorId(int a, int b) {
+        return verticeId(a).vecinos.containsKey(verticeId(b));
+    }
+
+    /**
+     * Regresa el peso de la arista entre los vértices con los identificadores
+     * recibidos.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @return el peso de la arista.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     * @throws IllegalArgumentException si los vértices no están conectados.
+     */
+    public double getPesoPorId(int a, int b) {
+        Vecino vecino = verticeId(a).vecinos.get(verticeId(b));
+        if(vecino == null){//Si no son vecinos.
+            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
+        }
+        return vecino.peso;
+    }
+
+    /* Regresa el vértice con el identificador recibido. */
+    private Vertice verticeId(int id) {
+        if(id < 0 || id >= indexados.size()){
+            throw new NoSuchElementException("Identificador inválido: " + id);
+        }
+        return indexados.get(id);
+    }
+
+    /* Cuenta (con signo 1) o descuenta (con signo -1) el peso de una arista
+     * para elegir el montículo de Dijkstra. */
+    private void cuentaPeso(double peso, int signo) {
+        if(peso != Math.rint(peso)){
+            fraccionarias += signo;
+        }else if(peso > MonticuloDial.PESO_MAXIMO){
+            pesadas += signo;
+        }
+    }
+
+    /* Conecta dos vértices con una arista del peso recibido. */
+    private void enlaza(Vertice vA, Vertice vB, double peso) {
+        if(vA.vecinos.containsKey(vB)){//Elementos ya vecinos.
+            throw new IllegalArgumentException("Los vértices ya están conectados.");
+        }
+
+        //Incrementamos el contador de aristas.
+        aristas++;
+        cuentaPeso(peso, 1);
+
+        //Agregamos a sus listas de adyacencias.
+        vA.vecinos.put(vB, new Vecino(vB, peso));
+        vB.vecinos.put(vA, new Vecino(vA, peso));
+
+        //Las componentes se actualizan sin reconstruirse.
+        componentes.une(vA.indice, vB.indice);
+    }
+
+    /* Reconstruye las componentes conexas a partir de las aristas, en tiempo
+     * O(n + m). */
+    private void reconstruyeComponentes() {
+        ConjuntosDisjuntos cd = new ConjuntosDisjuntos(indexados.size());
+        for(Vertice v : indexados){
+            for(Vertice vecino : v.vecinos.keySet()){
+                if(v.indice < vecino.indice){
+                    cd.une(v.indice, vecino.indice);
+                }
+            }
+        }
+        componentes = cd;
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa. Las componentes conexas se mantienen
+     * en conjuntos disjuntos que se actualizan al conectar, y se reconstruyen
+     * al desconectar o eliminar; la consulta toma tiempo constante. Las
+     * consultas de componentes no modifican la gráfica, así que varios hilos
+     * pueden hacerlas a la vez mientras ninguno la modifique.
      * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
      *         otro caso.
+     * @throws NoSuchElementException si la gráfica es vacía.
      */
     public boolean esConexa() {
         // Aquí va su código.
-        
-        Iterator<T> iterador = vertices.keySet().iterator();
-        Vertice primero = (Vertice) vertice(iterador.next());
+        if(vertices.isEmpty()){
+            throw new NoSuchElementException("La gráfica es vacía.");
+        }
+
+        return componentes.getConjuntos() == 1;
+    }
 
-        //Comparamos el número de vértices coloreados de negro con el número de vértices en el conjunto.
-        return dfsInt(primero.get(), x -> {}) == vertices.size();
+    /**
+     * Regresa el número de componentes conexas de la gráfica.
+     * @return el número de componentes conexas.
+     */
+    public int getComponentes() {
+        return componentes.getConjuntos();
+    }
+
+    /**
+     * Regresa el representante de la componente conexa del elemento
+     * recibido. Dos elementos están en la misma componente si y sólo si
+     * tienen el mismo representante; el representante sólo es válido
+     * mientras la gráfica no se modifique.
+     * @param elemento el elemento.
+     * @return el representante de su componente.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int componente(T elemento) {
+        return componentes.representante(((Vertice) vertice(elemento)).indice);
+    }
+
+    /**
+     * Regresa el número de vértices en la componente conexa del elemento
+     * recibido.
+     * @param elemento el elemento.
+     * @return el número de vértices en su componente.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int tamanoComponente(T elemento) {
+        return componentes.tamano(((Vertice) vertice(elemento)).indice);
+    }
+
+    /**
+     * Nos dice si dos elementos están en la misma componente conexa, es decir,
+     * si hay una trayectoria entre ellos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b están en la misma componente,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean mismosComponentes(T a, T b) {
+        return componentes.representante(((Vertice) vertice(a)).indice) ==
+            componentes.representante(((Vertice) vertice(b)).indice);
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo de la gráfica, o un bosque si
+     * la gráfica no es conexa. Se usa {@link AlgoritmoArbolGenerador#PRIM} si
+     * la gráfica es densa y {@link AlgoritmoArbolGenerador#KRUSKAL} si es
+     * dispersa.
+     * @return el árbol generador de peso mínimo.
+     */
+    public ArbolGeneradorMinimo<T> arbolGeneradorMinimo() {
+        return arbolGeneradorMinimo(AlgoritmoArbolGenerador.elige(indexados.size(), aristas));
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo de la gráfica, o un bosque si
+     * la gráfica no es conexa, con el algoritmo recibido.
+     * @param algoritmo el algoritmo a usar.
+     * @return el árbol generador de peso mínimo.
+     */
+    public ArbolGeneradorMinimo<T> arbolGeneradorMinimo(AlgoritmoArbolGenerador algoritmo) {
+        return arbolGeneradorMinimo(algoritmo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo de la gráfica, o un bosque si
+     * la gráfica no es conexa, con el algoritmo recibido. Si el algoritmo es
+     * {@link AlgoritmoArbolGenerador#BORUVKA}, el trabajo se reparte entre los
+     * hilos del pool recibido, y la gráfica no debe modificarse mientras
+     * tanto.
+     * @param algoritmo el algoritmo a usar.
+     * @param pool el pool donde se calcula el árbol.
+     * @return el árbol generador de peso mínimo.
+     */
+    public ArbolGeneradorMinimo<T> arbolGeneradorMinimo(AlgoritmoArbolGenerador algoritmo,
+                                                        ForkJoinPool pool) {
+        int n = indexados.size();
+
+        //Copiamos las aristas a arreglos, cada una en sus dos direcciones.
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[2 * aristas];
+        double[] pesos = new double[2 * aristas];
+        int j = 0;
+        for (Vertice v : indexados) {
+            inicios[v.indice] = j;
+            for (Vecino vc : v.vecinos.values()) {
+                destinos[j] = vc.vecino.indice;
+                pesos[j++] = vc.peso;
+            }
+        }
+        inicios[n] = j;
+
+        int k = Math.max(n - 1, 0);
+        int[] origenesArbol = new int[k];
+        int[] destinosArbol = new int[k];
+        double[] pesosArbol = new double[k];
+        k = algoritmo.calcula(inicios, destinos, pesos,
+                              origenesArbol, destinosArbol, pesosArbol, pool);
+        return new ArbolGeneradorMinimo<>(n, k, origenesArbol, destinosArbol,
+                                          pesosArbol, i -> indexados.get(i).elemento);
     }
 
     /**
@@ -481,31 +748,7 @@ public class Grafica<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
-        
-        // Inicializar la cola para BFS
-        Queue<Vertice> cola = new LinkedList<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la cola
-        cola.add(v);
-        
-        // Realizar el recorrido
-        while (!cola.isEmpty()) {
-            Vertice u = cola.poll();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    cola.add(ve.vecino);
-                }
-            }
-        }
+        recorre((Vertice) vertice(elemento), accion, true);
     }
     
     /**
@@ -515,6 +758,7 @@ public class Grafica<T> implements Coleccion<T> {
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
+     * @return el número de vértices visitados.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public int dfsInt(T elemento, AccionVerticeGrafica<T> accion) {
@@ -522,32 +766,7 @@ public class Grafica<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
-
-        // Inicializar la pila para DFS
-        Stack<Vertice> pila = new Stack<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la pila
-        pila.push(v);
-        
-        // Realizar el recorrido
-        while (!pila.isEmpty()) {
-            Vertice u = pila.pop();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    pila.push(ve.vecino);
-                }
-            }
-        }
-        return visitados.size();
+        return recorre((Vertice) vertice(elemento), accion, false);
     }
 
     /**
@@ -564,30 +783,44 @@ public class Grafica<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
+        recorre((Vertice) vertice(elemento), accion, false);
+    }
 
-        // Inicializar la pila para DFS
-        Stack<Vertice> pila = new Stack<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la pila
-        pila.push(v);
-        
-        // Realizar el recorrido
-        while (!pila.isEmpty()) {
-            Vertice u = pila.pop();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    pila.push(ve.vecino);
+    /* Recorre los vértices alcanzables desde v, por BFS si anchura es true y
+     * por DFS en otro caso, y regresa cuántos visitó. Los pendientes van en
+     * un arreglo de índices: se sacan por la cabeza en BFS y por el rabo en
+     * DFS. */
+    private int recorre(Vertice v, AccionVerticeGrafica<T> accion, boolean anchura) {
+        Recorrido recorrido = recorridos.poll();
+        if (recorrido == null)
+            recorrido = new Recorrido();
+        try {
+            recorrido.prepara(indexados.size());
+            int[] pendientes = recorrido.pendientes;
+            BitSet visitados = recorrido.visitados;
+            int cabeza = 0, rabo = 0, total = 1;
+
+            // Marcamos el vértice inicial y lo agregamos a los pendientes
+            visitados.set(v.indice);
+            pendientes[rabo++] = v.indice;
+
+            // Realizar el recorrido
+            while (cabeza < rabo) {
+                Vertice u = indexados.get(anchura ? pendientes[cabeza++] : pendientes[--rabo]);
+                accion.actua(u);
+
+                // Procesar vecinos
+                for (Vecino ve : u.vecinos.values()) {
+                    if (!visitados.get(ve.vecino.indice)) {
+                        visitados.set(ve.vecino.indice);
+                        pendientes[rabo++] = ve.vecino.indice;
+                        total++;
+                    }
                 }
             }
+            return total;
+        } finally {
+            recorridos.offer(recorrido);
         }
     }
 
@@ -607,7 +840,11 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void limpia() {
         // Aquí va su código.
         vertices.clear();
+        indexados.clear();
         aristas = 0;
+        fraccionarias = 0;
+        pesadas = 0;
+        componentes = new ConjuntosDisjuntos(0);
     }
 
     /**
@@ -685,7 +922,8 @@ public class Grafica<T> implements Coleccion<T> {
 
             //Procedemos a verificar que tengan los mismos vecinos.
             for (Vecino vc : v.vecinos.values()) {
-                if (!vG.vecinos.containsKey(vc.vecino.elemento)){
+                Vertice w = grafica.vertices.get(vc.vecino.elemento);
+                if (w == null || !vG.vecinos.containsKey(w)){
                     return false;
                 }
             }
@@ -716,6 +954,30 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public List<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return trayectoriaMinima(origen, destino, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices, guardando
+     * el estado de la consulta en el contexto recibido. Varios hilos pueden
+     * llamar este método al mismo tiempo si cada uno usa su propio contexto.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @param contexto el contexto de la consulta.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices <code>a</code> y
+     *         <code>b</code>. Si los elementos se encuentran en componentes conexos
+     *         distintos, el algoritmo regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino,
+                                                     ContextoDijkstra contexto) {
         // Aquí va su código.
         //Los vértices origen y destino.
         Vertice s = (Vertice) vertice(origen);
@@ -730,51 +992,36 @@ public class Grafica<T> implements Coleccion<T> {
             return trayectoria;
         }
 
-        //Hacemos las distancias infinitas.
+        //Hacemos las distancias infinitas, excepto la del origen.
         final double INFINITO = Double.POSITIVE_INFINITY;
-        distanciasInfinitas(s, INFINITO);
-
-        //Creamos la cola con el origen.
-        Queue<Vertice> cola = new LinkedList<>();
-        cola.add(s);
-
-        //Procedemos al while para calcular distancias.
-        while(!cola.isEmpty()){
+        contexto.prepara(indexados.size());
+        double[] d = contexto.distancias;
+        d[s.indice] = 0;
+        contexto.anteriores[s.indice] = s.indice;
+
+        //Creamos la cola de índices con el origen.
+        int[] cola = contexto.cola;
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s.indice;
+
+        //Procedemos al while para calcular distancias, hasta alcanzar el destino.
+        while(cabeza < rabo && d[t.indice] == INFINITO){
             //Marcamos "u" como el vértice que sacamos de la cola.
-            Vertice u = cola.poll();
+            Vertice u = indexados.get(cola[cabeza++]);
 
             //Recorremos todos su vecinos.
             for(Vecino vc : u.vecinos.values()){
                 //Si la distancia del vecino es infinita, la incrementamos en 1 con respecto a la de u.
-                if(vc.vecino.distancia == INFINITO){
-                    vc.vecino.distancia = u.distancia + 1;
-                    cola.add(vc.vecino);
+                if(d[vc.vecino.indice] == INFINITO){
+                    d[vc.vecino.indice] = d[u.indice] + 1;
+                    contexto.anteriores[vc.vecino.indice] = u.indice;
+                    cola[rabo++] = vc.vecino.indice;
                 }
             }
         }
 
-        //Si para este punto la distancia de t es infinita, regresamos la lista (vacía).
-        if(t.distancia == INFINITO){
-            return trayectoria;
-        }
-
-        //Procedemos con la construcción de la trayectoria.
-        Vertice u = t;//Partimos del vértice destino.
-        while(u != s){//Hasta que u sea el origen.
-            for(Vecino vc : u.vecinos.values()){
-                //Si damos con un vecino que tal que d(u)-1 = d(vc.vecino)
-                if(u.distancia - 1 == vc.vecino.distancia){
-                    //Metemos a 'u' y actualizamos su valor al del vértice siguiente.
-                    trayectoria.add(0, u);
-                    u = vc.vecino;
-                    break;
-                }
-            }
-        }
-        //Finalmente agregamos al vértice origen.
-        trayectoria.add(0, s);
-
-        return trayectoria;
+        //Reconstruimos la trayectoria siguiendo los anteriores desde el destino.
+        return reconstruye(contexto.anteriores, s, t);
     }
 
     /**
@@ -789,6 +1036,30 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public List<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return dijkstra(origen, destino, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, guardando el estado de la consulta en el contexto recibido.
+     * Varios hilos pueden llamar este método al mismo tiempo si cada uno usa
+     * su propio contexto.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param contexto el contexto de la consulta.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> dijkstra(T origen, T destino,
+                                            ContextoDijkstra contexto) {
         // Aquí va su código.
         //Los vértices origen y destino.
         Vertice s = (Vertice) vertice(origen);
@@ -803,77 +1074,150 @@ public class Grafica<T> implements Coleccion<T> {
             return trayectoria;
         }
 
-        //Hacemos las distancias infinitas.
-        final double INFINITO = Double.POSITIVE_INFINITY;
-        distanciasInfinitas(s, INFINITO);
+        //Calculamos distancias hasta asentar el destino.
+        calculaDistancias(s, t, contexto);
 
-        //Procedemos a determinar el tipo de monticulo para el algoritmo.
-        MonticuloDijkstra<Vertice> m;//Nos apoyaremos de la interfaz.
-        int n = vertices.size();
-        
-        /*
-        if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de vértices para el número de aristas.
-            m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
-        }else{//Cantidades lineales de vértices para el número de aristas.
-            m = new MonticuloMinimo<Vertice>(vertices.values(), vertices.size());
-        }*/
-        m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
+        //Reconstruimos la trayectoria siguiendo los anteriores desde el destino.
+        return reconstruye(contexto.anteriores, s, t);
+    }
+
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen
+     * hasta todos los elementos que alcanza. A diferencia de {@link
+     * #dijkstra(Object,Object)}, que se detiene al llegar al destino, este
+     * método recorre toda la gráfica una sola vez, y el árbol que regresa
+     * responde las distancias y trayectorias a cualquier destino.
+     * @param origen el elemento origen.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public ArbolDistancias<T> arbolDistancias(T origen) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return arbolDistancias(origen, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen,
+     * usando el contexto recibido para el cálculo. El árbol copia las
+     * distancias del contexto, por lo que el contexto puede reutilizarse en
+     * cuanto el método termina.
+     * @param origen el elemento origen.
+     * @param contexto el contexto de la consulta.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public ArbolDistancias<T> arbolDistancias(T origen, ContextoDijkstra contexto) {
+        Vertice s = (Vertice) vertice(origen);
+        calculaDistancias(s, null, contexto);
+        int n = indexados.size();
+        return new ArbolDistancias<>(origen,
+                                     Arrays.copyOf(contexto.distancias, n),
+                                     Arrays.copyOf(contexto.anteriores, n),
+                                     e -> ((Vertice) vertice(e)).indice,
+                                     i -> indexados.get(i).elemento);
+    }
+
+    /**
+     * Regresa la clase del montículo que usa el algoritmo de Dijkstra con los
+     * pesos actuales de la gráfica: {@link MonticuloDial} si todos son enteros
+     * menores o iguales que {@link MonticuloDial#PESO_MAXIMO}, {@link
+     * MonticuloRadix} si todos son enteros, y si no {@link MonticuloArreglo}
+     * cuando la gráfica es densa o {@link MonticuloMinimo} cuando no lo es.
+     * @return la clase del montículo del algoritmo de Dijkstra.
+     */
+    public Class<?> getMonticuloDijkstra() {
+        long n = indexados.size();//Usamos long para que n*n no se desborde.
+        if(fraccionarias == 0 && pesadas == 0){//Pesos enteros pequeños: cubetas de Dial.
+            return MonticuloDial.class;
+        }else if(fraccionarias == 0){//Pesos enteros: montículo radix.
+            return MonticuloRadix.class;
+        }else if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de aristas para el número de vértices.
+            return MonticuloArreglo.class;
+        }
+        //Cantidades lineales de aristas para el número de vértices.
+        return MonticuloMinimo.class;
+    }
+
+    /**
+     * Calcula con el algoritmo de Dijkstra las distancias desde el vértice
+     * <code>s</code>, guardándolas en el contexto junto con el vértice anterior
+     * de cada uno. Si <code>t</code> no es <code>null</code>, se detiene en
+     * cuanto asienta a <code>t</code>; en otro caso calcula el árbol completo.
+     * @param s el vértice origen.
+     * @param t el vértice destino, o <code>null</code>.
+     * @param contexto el contexto de la consulta.
+     */
+    private void calculaDistancias(Vertice s, Vertice t, ContextoDijkstra contexto) {
+        //Hacemos las distancias infinitas, excepto la del origen.
+        final double INFINITO = Double.POSITIVE_INFINITY;
+        contexto.prepara(indexados.size());
+        double[] d = contexto.distancias;
+        d[s.indice] = 0;
+        contexto.anteriores[s.indice] = s.indice;
+
+        //El contexto reutiliza el montículo del tipo que piden los pesos.
+        Class<?> tipo = getMonticuloDijkstra();
+        //Con destino, sólo metemos al montículo los vértices que alcanzamos; el
+        //montículo de arreglo busca en tiempo lineal, así que lo llenamos.
+        boolean perezoso = t != null && tipo != MonticuloArreglo.class;
+        MonticuloDijkstra<ContextoDijkstra.Nodo> m = contexto.monticulo(tipo, !perezoso);
+        if(perezoso){
+            m.agrega(contexto.nodo(s.indice));
+        }
 
         //Procedemos con el algoritmo de Djikstra.
         while(!m.esVacia()){
-            Vertice u = m.elimina();
+            Vertice u = indexados.get(m.elimina().indice);
+            //Si la distancia es infinita, los que quedan son inalcanzables.
+            if(d[u.indice] == INFINITO){
+                break;
+            }
+            contexto.asentados++;
+            //Si asentamos el destino, su distancia ya no cambia.
+            if(u == t){
+                break;
+            }
             //Actualizamos las distancias de los vecinos
             for(Vecino v : u.vecinos.values()){
                 //si d(v) > d(u) + peso(v, u)
-                if(v.vecino.distancia > u.distancia + v.peso){
+                if(d[v.vecino.indice] > d[u.indice] + v.peso){
                     //Entonces d(v) = d(u) + peso(u, v).
-                    v.vecino.distancia = u.distancia + v.peso;
-                    m.reordena(v.vecino);
+                    d[v.vecino.indice] = d[u.indice] + v.peso;
+                    contexto.anteriores[v.vecino.indice] = u.indice;
+                    ContextoDijkstra.Nodo nodo = contexto.nodo(v.vecino.indice);
+                    if(perezoso && !m.contiene(nodo)){
+                        m.agrega(nodo);
+                    }else{
+                        m.reordena(nodo);
+                    }
                 }
             }
         }
+    }
 
-        //Si para este punto la distancia de t es infinita, regresamos la lista (vacía).
-        if(t.distancia == INFINITO){
+    /* Reconstruye la trayectoria de s a t siguiendo los índices anteriores de
+     * cada vértice. Si t no se alcanzó, regresa una lista vacía. */
+    private List<VerticeGrafica<T>> reconstruye(int[] anteriores, Vertice s, Vertice t) {
+        List<VerticeGrafica<T>> trayectoria = new ArrayList<>();
+        if(anteriores[t.indice] == -1){
             return trayectoria;
         }
-
-        //Procedemos con la construcción de la trayectoria.
-        Vertice u = t;//Partimos del vértice destino.
-        while(u != s){//Hasta que u sea el origen.
-            for(Vecino vc : u.vecinos.values()){
-                //Si damos con un vecino que tal que d(u)-1 = d(vc.vecino)
-                if(u.distancia - vc.peso == vc.vecino.distancia){
-                    //Metemos a 'u' y actualizamos su valor al del vértice siguiente.
-                    trayectoria.add(0, u);
-                    u = vc.vecino;
-                    break;
-                }
-            }
+        for(Vertice u = t; u != s; u = indexados.get(anteriores[u.indice])){
+            trayectoria.add(u);
         }
-        //Finalmente agregamos al vértice origen.
-        trayectoria.add(0, s);
-
+        trayectoria.add(s);
+        Collections.reverse(trayectoria);
         return trayectoria;
     }
 
-    /**
-     * Método que vuelve infinitas las distancias de todos los vértices
-     * exceptuando un vértices particular 's' (Que será el origen).
-     * Claro Este método puede aplicarse sobre cualquier cota superior que se considere "infinito".
-     * @param s un vértice particular al que nulificaremos su distancia.
-     * @param INFINITO una cota superior que será considerada el infinito.
-     */
-    private void distanciasInfinitas(Vertice s, Double INFINITO){
-        //Hacemos todas las distancias "infinitas" excepto 's'.
-        for(Vertice v : vertices.values()){
-            //Si el vértice es el origen, distancia 0.
-            if(v.get().equals(s.get())){
-                s.distancia = 0;
-                continue;
-            }
-            //En otro caso, se hace infinita.
-            v.distancia = INFINITO;
-        }
+    /* Toma un contexto libre para una consulta, o crea uno nuevo si no hay;
+     * al terminar la consulta el contexto se regresa a los libres. */
+    private ContextoDijkstra tomaContexto() {
+        ContextoDijkstra contexto = contextos.poll();
+        return contexto != null ? contexto : new ContextoDijkstra(indexados.size());
     }
 }
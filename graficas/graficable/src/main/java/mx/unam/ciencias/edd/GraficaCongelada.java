@@ -0,0 +1,505 @@
+package mx.unam.ciencias.edd;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Clase para gráficas dirigidas congeladas. Una gráfica congelada es una
+ * vista inmutable de una {@link GraficaDirigida}, guardada en formato
+ * <i>CSR</i> (<i>compressed sparse row</i>).</p>
+ *
+ * <p>Cada vértice tiene un identificador entero entre 0 y <i>n</i>-1. Las
+ * aristas que salen del vértice <i>i</i> ocupan las posiciones entre
+ * <code>indices[i]</code> y <code>indices[i+1]</code> de los arreglos de
+ * destinos y pesos; las aristas que llegan a él se guardan de la misma
+ * manera en los arreglos inversos. Los recorridos y las trayectorias mínimas
+ * se calculan sobre arreglos primitivos, y regresan los mismos resultados
+ * que la gráfica original. Los arreglos de trabajo de cada consulta se
+ * reutilizan entre consultas, así que una consulta sólo crea los vértices y
+ * la lista que regresa.</p>
+ */
+public class GraficaCongelada<T> {
+
+    /* Clase interna privada para vértices. Son vistas ligeras sobre un
+     * identificador de la gráfica. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El identificador del vértice. */
+        private int id;
+
+        /* Crea una vista para el vértice con el identificador recibido. */
+        public Vertice(int id) {
+            this.id = id;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elemento(id);
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return indices[id + 1] - indices[id];
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            List<VerticeGrafica<T>> vecinosList = new ArrayList<>();
+            for (int j = indices[id]; j < indices[id + 1]; j++)
+                vecinosList.add(new Vertice(destinos[j]));
+            return vecinosList;
+        }
+
+        /* Dos vistas son iguales si representan al mismo vértice. */
+        @Override public boolean equals(Object objeto) {
+            if (objeto == null || getClass() != objeto.getClass())
+                return false;
+            @SuppressWarnings("unchecked") Vertice v = (Vertice)objeto;
+            return grafica() == v.grafica() && id == v.id;
+        }
+
+        /* El código de dispersión es el identificador. */
+        @Override public int hashCode() {
+            return id;
+        }
+
+        /* Regresa la gráfica de la vista. */
+        private GraficaCongelada<T> grafica() {
+            return GraficaCongelada.this;
+        }
+    }
+
+    /* Clase interna privada para el espacio de trabajo de una consulta. Sólo
+     * se limpian los vértices que tocó la consulta anterior. */
+    private class Consulta {
+
+        /* El vértice con el que se llegó a cada vértice, o -1 si no se ha
+         * llegado a él. */
+        private int[] anteriores;
+        /* Las distancias tentativas. */
+        private double[] distancias;
+        /* Los vértices pendientes de los recorridos. */
+        private int[] pendientes;
+        /* Los vértices a los que se llegó. */
+        private int[] tocados;
+        /* El número de vértices tocados. */
+        private int elementos;
+        /* El montículo de Dijkstra. */
+        private MonticuloIndexado monticulo;
+
+        /* Construye un espacio para los vértices de la gráfica. */
+        Consulta() {
+            int n = GraficaCongelada.this.elementos.length;
+            anteriores = new int[n];
+            Arrays.fill(anteriores, -1);
+            distancias = new double[n];
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            pendientes = new int[n];
+            tocados = new int[n];
+            monticulo = new MonticuloIndexado(n);
+        }
+
+        /* Nos dice si ya se llegó al vértice. */
+        boolean visitado(int v) {
+            return anteriores[v] != -1;
+        }
+
+        /* Registra que se llegó a v desde u. */
+        void llega(int v, int u) {
+            if (anteriores[v] == -1)
+                tocados[elementos++] = v;
+            anteriores[v] = u;
+        }
+
+        /* Regresa el espacio a su estado inicial. */
+        void limpia() {
+            for (int i = 0; i < elementos; i++) {
+                anteriores[tocados[i]] = -1;
+                distancias[tocados[i]] = Double.POSITIVE_INFINITY;
+            }
+            elementos = 0;
+            monticulo.limpia();
+        }
+    }
+
+    /* Los elementos, por identificador. */
+    private Object[] elementos;
+    /* Los identificadores, por elemento. */
+    private Map<T, Integer> ids;
+    /* Inicio de las aristas de salida de cada vértice. */
+    private int[] indices;
+    /* Destino de cada arista de salida. */
+    private int[] destinos;
+    /* Peso de cada arista de salida. */
+    private double[] pesos;
+    /* Inicio de las aristas de entrada de cada vértice. */
+    private int[] indicesInversos;
+    /* Origen de cada arista de entrada. */
+    private int[] origenes;
+    /* Peso de cada arista de entrada. */
+    private double[] pesosInversos;
+    /* Espacios libres para las consultas. */
+    private Queue<Consulta> consultas;
+
+    /* Construye una gráfica congelada a partir de sus arreglos. Sólo la
+     * construye GraficaDirigida#congela(). */
+    GraficaCongelada(Object[] elementos, Map<T, Integer> ids,
+                     int[] indices, int[] destinos, double[] pesos,
+                     int[] indicesInversos, int[] origenes,
+                     double[] pesosInversos) {
+        this.elementos = elementos;
+        this.ids = ids;
+        this.indices = indices;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.indicesInversos = indicesInversos;
+        this.origenes = origenes;
+        this.pesosInversos = pesosInversos;
+        consultas = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Regresa el número de vértices de la gráfica.
+     * @return el número de vértices de la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas de la gráfica.
+     * @return el número de aristas de la gráfica.
+     */
+    public int getAristas() {
+        return destinos.length;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return ids.containsKey(elemento);
+    }
+
+    /**
+     * Regresa el identificador del elemento recibido.
+     * @param elemento el elemento.
+     * @return el identificador del elemento, entre 0 y <i>n</i>-1.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int id(T elemento) {
+        Integer id = ids.get(elemento);
+        if (id == null)
+            throw new NoSuchElementException("No se encuentra el elemento: " + elemento);
+        return id;
+    }
+
+    /**
+     * Regresa el elemento con el identificador recibido.
+     * @param id el identificador.
+     * @return el elemento con el identificador recibido.
+     */
+    @SuppressWarnings("unchecked") public T elemento(int id) {
+        return (T)elementos[id];
+    }
+
+    /**
+     * Regresa el vértice correspondiente al elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @return el vértice correspondiente al elemento recibido.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return new Vertice(id(elemento));
+    }
+
+    /**
+     * Nos dice si hay una arista de a a b.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @return <code>true</code> si hay una arista de a a b,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no están en la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        return arista(id(a), id(b)) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista de a a b.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @return el peso de la arista de a a b.
+     * @throws NoSuchElementException si a o b no están en la gráfica.
+     * @throws IllegalArgumentException si a y b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        int j = arista(id(a), id(b));
+        if (j == -1)
+            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
+        return pesos[j];
+    }
+
+    /* Regresa la posición de la arista de u a v, o -1 si no existe. */
+    private int arista(int u, int v) {
+        for (int j = indices[u]; j < indices[u + 1]; j++)
+            if (destinos[j] == v)
+                return j;
+        return -1;
+    }
+
+    /**
+     * Regresa los identificadores de los vecinos de salida de un vértice.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los identificadores de sus vecinos.
+     */
+    public int[] vecinos(int id) {
+        return Arrays.copyOfRange(destinos, indices[id], indices[id + 1]);
+    }
+
+    /**
+     * Regresa los pesos de las aristas que salen de un vértice, en el mismo
+     * orden que {@link #vecinos(int)}.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los pesos de sus aristas.
+     */
+    public double[] pesos(int id) {
+        return Arrays.copyOfRange(pesos, indices[id], indices[id + 1]);
+    }
+
+    /**
+     * Regresa el número de aristas que salen del vértice con el identificador
+     * recibido.
+     * @param id el identificador del vértice.
+     * @return el grado de salida del vértice.
+     */
+    public int getGrado(int id) {
+        return indices[id + 1] - indices[id];
+    }
+
+    /**
+     * Copia los identificadores de los vecinos de salida de un vértice y los
+     * pesos de sus aristas en los arreglos recibidos, a partir de la
+     * posición recibida y en el mismo orden que {@link #vecinos(int)}. No
+     * crea arreglos: los arreglos deben tener lugar para {@link
+     * #getGrado(int)} aristas a partir de la posición.
+     * @param id el identificador del vértice.
+     * @param ids el arreglo para los identificadores, o <code>null</code> si
+     *            no se necesitan.
+     * @param pesos el arreglo para los pesos, o <code>null</code> si no se
+     *              necesitan.
+     * @param desde la posición donde se copia la primera arista.
+     * @return el número de aristas copiadas.
+     */
+    public int vecinos(int id, int[] ids, double[] pesos, int desde) {
+        int grado = getGrado(id);
+        if (ids != null)
+            System.arraycopy(destinos, indices[id], ids, desde, grado);
+        if (pesos != null)
+            System.arraycopy(this.pesos, indices[id], pesos, desde, grado);
+        return grado;
+    }
+
+    /**
+     * Regresa los identificadores de los vértices que apuntan a un vértice.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los identificadores de sus apuntadores.
+     */
+    public int[] apuntadores(int id) {
+        return Arrays.copyOfRange(origenes, indicesInversos[id],
+                                  indicesInversos[id + 1]);
+    }
+
+    /**
+     * Regresa los pesos de las aristas que llegan a un vértice, en el mismo
+     * orden que {@link #apuntadores(int)}.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los pesos de sus aristas de entrada.
+     */
+    public double[] pesosApuntadores(int id) {
+        return Arrays.copyOfRange(pesosInversos, indicesInversos[id],
+                                  indicesInversos[id + 1]);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por BFS.
+     * @param elemento el elemento donde comienza el recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(id(elemento), accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por DFS.
+     * @param elemento el elemento donde comienza el recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(id(elemento), accion, false);
+    }
+
+    /* Recorre los vértices alcanzables desde s, por BFS si anchura es true y
+     * por DFS en otro caso. Los pendientes se sacan por la cabeza en BFS y
+     * por el rabo en DFS. */
+    private void recorre(int s, AccionVerticeGrafica<T> accion, boolean anchura) {
+        Consulta consulta = tomaConsulta();
+        try {
+            int[] pendientes = consulta.pendientes;
+            int cabeza = 0, rabo = 0;
+            pendientes[rabo++] = s;
+            consulta.llega(s, s);
+            while (cabeza < rabo) {
+                int u = anchura ? pendientes[cabeza++] : pendientes[--rabo];
+                accion.actua(new Vertice(u));
+                for (int j = indices[u]; j < indices[u + 1]; j++) {
+                    int v = destinos[j];
+                    if (!consulta.visitado(v)) {
+                        consulta.llega(v, u);
+                        pendientes[rabo++] = v;
+                    }
+                }
+            }
+        } finally {
+            consulta.limpia();
+            consultas.offer(consulta);
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima (en número de aristas)
+     * entre dos elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los vértices de una trayectoria de distancia
+     *         mínima; si no hay trayectoria, una lista vacía.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         gráfica.
+     */
+    public List<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        int s = id(origen);
+        int t = id(destino);
+        Consulta consulta = tomaConsulta();
+        try {
+            int[] cola = consulta.pendientes;
+            int cabeza = 0, rabo = 0;
+            cola[rabo++] = s;
+            consulta.llega(s, s);
+            //Recorremos por niveles hasta que encontramos el destino.
+            while (cabeza < rabo && !consulta.visitado(t)) {
+                int u = cola[cabeza++];
+                for (int j = indices[u]; j < indices[u + 1]; j++) {
+                    int v = destinos[j];
+                    if (!consulta.visitado(v)) {
+                        consulta.llega(v, u);
+                        cola[rabo++] = v;
+                    }
+                }
+            }
+            return reconstruye(consulta.anteriores, s, t);
+        } finally {
+            consulta.limpia();
+            consultas.offer(consulta);
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos elementos, como
+     * lista de elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de distancia
+     *         mínima; si no hay trayectoria, una lista vacía.
+     */
+    public List<T> trayectoriaMinimaElementos(T origen, T destino) {
+        return elementos(trayectoriaMinima(origen, destino));
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los vértices de una trayectoria de peso mínimo;
+     *         si no hay trayectoria, una lista vacía.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         gráfica.
+     */
+    public List<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        int s = id(origen);
+        int t = id(destino);
+        Consulta consulta = tomaConsulta();
+        try {
+            double[] distancias = consulta.distancias;
+            MonticuloIndexado m = consulta.monticulo;
+            distancias[s] = 0;
+            consulta.llega(s, s);
+            m.agrega(s, 0);
+            while (!m.esVacia()) {
+                int u = m.elimina();
+                //El destino ya no puede mejorar.
+                if (u == t)
+                    break;
+                for (int j = indices[u]; j < indices[u + 1]; j++) {
+                    int v = destinos[j];
+                    double d = distancias[u] + pesos[j];
+                    if (d < distancias[v]) {
+                        distancias[v] = d;
+                        consulta.llega(v, u);
+                        m.actualiza(v, d);
+                    }
+                }
+            }
+            return reconstruye(consulta.anteriores, s, t);
+        } finally {
+            consulta.limpia();
+            consultas.offer(consulta);
+        }
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, como lista de elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de peso mínimo;
+     *         si no hay trayectoria, una lista vacía.
+     */
+    public List<T> dijkstraElementos(T origen, T destino) {
+        return elementos(dijkstra(origen, destino));
+    }
+
+    /* Reconstruye la trayectoria de s a t siguiendo el arreglo de
+     * anteriores. */
+    private List<VerticeGrafica<T>> reconstruye(int[] anteriores, int s, int t) {
+        List<VerticeGrafica<T>> trayectoria = new ArrayList<>();
+        if (anteriores[t] == -1)
+            return trayectoria;
+        for (int u = t; u != s; u = anteriores[u])
+            trayectoria.add(new Vertice(u));
+        trayectoria.add(new Vertice(s));
+        Collections.reverse(trayectoria);
+        return trayectoria;
+    }
+
+    /* Regresa un espacio libre para una consulta, o uno nuevo si no hay. */
+    private Consulta tomaConsulta() {
+        Consulta consulta = consultas.poll();
+        return consulta != null ? consulta : new Consulta();
+    }
+
+    /* Regresa los elementos de una lista de vértices. */
+    private List<T> elementos(List<VerticeGrafica<T>> vertices) {
+        List<T> lista = new ArrayList<>(vertices.size());
+        for (VerticeGrafica<T> v : vertices)
+            lista.add(v.get());
+        return lista;
+    }
+}
@@ -1,6 +1,12 @@
 package mx.unam.ciencias.edd;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
 
 /**
  * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
@@ -34,23 +40,32 @@ public class GraficaDirigida<T> implements Coleccion<T> {
     }
 
     /* Clase interna privada para vértices. */
-    private class Vertice implements VerticeGrafica<T>, Comparable<Vertice> {
+    private class Vertice implements VerticeGrafica<T> {
 
         /* El elemento del vértice. */
         private T elemento;
-        /* La distancia del vértice. */
-        private double distancia;
-        /* El diccionario de vecinos del vértice. */
-        private Map<T, Vecino> vecinos;
+        /* El índice del vértice, entre 0 y n-1. */
+        private int indice;
+        /* El diccionario de vecinos del vértice, por vértice vecino, en el orden
+         * en que se conectaron. */
+        private Map<Vertice, Vecino> vecinos;
         /**Diccionario de vecinos apuntdores. */
-        private Map<T, Vecino> apuntadores;
+        private Map<Vertice, Vecino> apuntadores;
 
         /* Crea un nuevo vértice a partir de un elemento. */
         public Vertice(T elemento) {
             // Aquí va su código.
             this.elemento = elemento;
-            vecinos = new HashMap<>();
-            apuntadores = new HashMap<>();
+            vecinos = new LinkedHashMap<>();
+            apuntadores = new LinkedHashMap<>();
+        }
+
+        /* Crea un nuevo vértice con diccionarios del tamaño necesario para el
+         * número de vecinos y apuntadores recibidos. */
+        public Vertice(T elemento, int salida, int entrada) {
+            this.elemento = elemento;
+            vecinos = new LinkedHashMap<>(capacidad(salida));
+            apuntadores = new LinkedHashMap<>(capacidad(entrada));
         }
 
         /* Regresa el elemento del vértice. */
@@ -79,22 +94,6 @@ public class GraficaDirigida<T> implements Coleccion<T> {
             }
             return vecinosList;
         }
-
-        /* Compara dos vértices por distancia. */
-        @Override public int compareTo(Vertice vertice) {
-            // Aquí va su código.
-            if(this.distancia < vertice.distancia){
-                return -1;
-
-            } else if (this.distancia > vertice.distancia){
-                return 1;
-
-            } else if(this.distancia == vertice.distancia){
-                return 0;
-            }
-
-            return 0; 
-        }
     }
 
     /* Clase interna privada para vértices vecinos. */
@@ -148,15 +147,79 @@ public class GraficaDirigida<T> implements Coleccion<T> {
 
     /* Vértices. */
     private Map<T, Vertice> vertices;
+    /* Vértices, por índice. */
+    private List<Vertice> indexados;
     /* Número de aristas. */
     private int aristas;
+    /* Número de aristas cuyo peso no es entero, y de aristas de peso entero
+     * mayor que el que admite el montículo de Dial. */
+    private int fraccionarias;
+    private int pesadas;
+    /* Número de modificaciones; sirve para saber en tiempo constante si los
+     * puntos de referencia siguen siendo de la gráfica. */
+    private long modificaciones;
+    /* Contextos libres para las consultas que no reciben uno. */
+    private Queue<ContextoDijkstra> contextos;
+    /* Recorridos libres para BFS y DFS. */
+    private Queue<Recorrido> recorridos;
 
     /**
-     * Constructor único.
+     * Construye una gráfica vacía.
      */
     public GraficaDirigida() {
         // Aquí va su código.
         vertices = new HashMap<>();
+        indexados = new ArrayList<>();
+        contextos = new ConcurrentLinkedQueue<>();
+        recorridos = new ConcurrentLinkedQueue<>();
+    }
+
+    /* Construye en una sola pasada una gráfica con los elementos recibidos,
+     * cuyos índices son sus posiciones en la lista, y con las primeras m
+     * aristas de los arreglos. Los elementos deben ser distintos y las
+     * aristas no deben tener lazos ni pesos no positivos; sólo se verifica
+     * aquí que no haya aristas repetidas. Lo usa {@link
+     * ConstructorGraficaDirigida}. */
+    GraficaDirigida(List<T> elementos, int[] origenes, int[] destinos,
+                    double[] pesos, int m) {
+        int n = elementos.size();
+        vertices = new HashMap<>(capacidad(n));
+        indexados = new ArrayList<>(n);
+        contextos = new ConcurrentLinkedQueue<>();
+        recorridos = new ConcurrentLinkedQueue<>();
+
+        //Contamos los grados para crear los diccionarios de su tamaño final.
+        int[] salida = new int[n];
+        int[] entrada = new int[n];
+        for (int i = 0; i < m; i++) {
+            salida[origenes[i]]++;
+            entrada[destinos[i]]++;
+        }
+
+        for (int i = 0; i < n; i++) {
+            Vertice v = new Vertice(elementos.get(i), salida[i], entrada[i]);
+            v.indice = i;
+            vertices.put(v.elemento, v);
+            indexados.add(v);
+        }
+
+        //Agregamos las aristas; put regresa el vecino anterior si ya existía.
+        for (int i = 0; i < m; i++) {
+            Vertice vA = indexados.get(origenes[i]);
+            Vertice vB = indexados.get(destinos[i]);
+            if (vA.vecinos.put(vB, new Vecino(vB, pesos[i])) != null)
+                throw new IllegalArgumentException("Los vértices ya están conectados: " +
+                                                   vA.elemento + ", " + vB.elemento);
+            vB.apuntadores.put(vA, new Vecino(vA, pesos[i]));
+            cuentaPeso(pesos[i], 1);
+        }
+        aristas = m;
+    }
+
+    /* Regresa la capacidad de un diccionario para n entradas sin que tenga
+     * que crecer. */
+    private static int capacidad(int n) {
+        return (int)(n / 0.75f) + 1;
     }
 
     /**
@@ -197,7 +260,10 @@ public class GraficaDirigida<T> implements Coleccion<T> {
 
         //Creamos el vértice y lo agregamos a la lista de vértices.
         Vertice v = new Vertice(elemento);
+        v.indice = indexados.size();
         vertices.put(elemento, v);
+        indexados.add(v);
+        modificaciones++;
         //System.out.println("LOLLOL");
     }
 
@@ -212,29 +278,7 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      */
     public void conecta(T a, T b) {
         // Aquí va su código.
-        //Excepciones
-        if(a.equals(b)){//Elementos iguales
-            throw new IllegalArgumentException("Elementos iguales, no admitimos lazos.");
-        }
-
-        //Vertices de los elementos.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
-        if(sonVecinos(a, b)){//Elementos ya vecinos.
-            throw new IllegalArgumentException("Los vértices ya están conectados.");
-        }
-
-        //Incrementamos el contador de aristas.
-        aristas++;
-
-        //Creamos la instancia de vecinos con peso 1.0
-        Vecino vcA = new Vecino(vA, 1.0);
-        Vecino vcB = new Vecino(vB, 1.0);
-
-        //Agregamos a sus listas de adyacencias.
-        vA.vecinos.put(b, vcB);
-        vB.apuntadores.put(a, vcA);
+        conecta(a, b, 1.0);
     }
 
     /**
@@ -258,24 +302,8 @@ public class GraficaDirigida<T> implements Coleccion<T> {
             throw new IllegalArgumentException("No se admiten pesos menores a 0.");
         }
 
-        //Vertices de los elementos.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
-        if(sonVecinos(a, b)){//Elementos ya vecinos.
-            throw new IllegalArgumentException("Los vértices ya están conectados.");
-        }
-
-        //Incrementamos el contador de aristas.
-        aristas++;
-
-        //Creamos la instancia de vecinos con peso 1.0
-        Vecino vcA = new Vecino(vA, peso);
-        Vecino vcB = new Vecino(vB, peso);
-
-        //Agregamos a sus listas de adyacencias.
-        vA.vecinos.put(b, vcB);
-        vB.apuntadores.put(a, vcA);
+        //Vertices de los elementos; a partir de aquí ya no se usan los elementos.
+        enlaza((Vertice) vertice(a), (Vertice) vertice(b), peso);
     }
 
     /**
@@ -292,15 +320,17 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         Vertice vA = (Vertice) vertice(a);
         Vertice vB = (Vertice) vertice(b);
 
-        if(!sonVecinos(a, b)){//Elementos ya vecinos.
+        if(!vA.vecinos.containsKey(vB)){//Elementos no vecinos.
             throw new IllegalArgumentException("Los vértices no están conectados.");
         }
 
         //Decrementamos el contador de aristas.
         aristas--;
+        cuentaPeso(vA.vecinos.get(vB).peso, -1);
+        modificaciones++;
 
-        vA.vecinos.remove(b);
-        vB.apuntadores.remove(a);
+        vA.vecinos.remove(vB);
+        vB.apuntadores.remove(vA);
     }
 
     /**
@@ -361,9 +391,9 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         //Vertices de los elementos.
         Vertice vA = (Vertice) vertice(a);
         Vertice vB = (Vertice) vertice(b);
-        
-        //Perificamos si los dos son vecinos entre sí.
-        return vA.vecinos.containsKey(b) && vB.apuntadores.containsKey(a);
+
+        //Verificamos si b está entre los vecinos de a.
+        return vA.vecinos.containsKey(vB);
     }
 
     /**
@@ -391,16 +421,15 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      */
     public double getPeso(T a, T b) {
         // Aquí va su código.
-        if(!sonVecinos(a, b)){//Si no son vecinos.
-            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
-        }
-
         //Obtenemos los vértices.
         Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
+        Vecino vecino = vA.vecinos.get(vertice(b));
+
+        if(vecino == null){//Si no son vecinos.
+            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
+        }
 
-        //tomamos el peso de "a" de los vecinos de b.
-        return vB.apuntadores.get(a).peso;
+        return vecino.peso;
     }
 
     /**
@@ -431,7 +460,11 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      */
     public void setPeso(T a, T b, double peso) {
         // Aquí va su código.
-        if(!(sonVecinos(a, b) || sonVecinos(b, a))){//Si no son vecinos.
+        //Obtenemos los vértices.
+        Vertice vA = (Vertice) vertice(a);
+        Vertice vB = (Vertice) vertice(b);
+
+        if(!(vA.vecinos.containsKey(vB) || vB.vecinos.containsKey(vA))){//Si no son vecinos.
             throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
         }
 
@@ -439,13 +472,12 @@ public class GraficaDirigida<T> implements Coleccion<T> {
             throw new IllegalArgumentException("Peso inválido");
         }
 
-        //Obtenemos los vértices.
-        Vertice vA = (Vertice) vertice(a);
-        Vertice vB = (Vertice) vertice(b);
-
         //Asignamos pesos.
-        vA.vecinos.get(b).peso = peso;
-        vB.apuntadores.get(a).peso = peso;
+        cuentaPeso(vA.vecinos.get(vB).peso, -1);
+        cuentaPeso(peso, 1);
+        modificaciones++;
+        vA.vecinos.get(vB).peso = peso;
+        vB.apuntadores.get(vA).peso = peso;
     }
 
     /**
@@ -456,14 +488,14 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      */
     public VerticeGrafica<T> vertice(T elemento) {
         // Aquí va su código.
-        //Verificamos que el diccionario contenga el elemento.
-        if(vertices.containsKey(elemento)){
-            return vertices.get(elemento);
+        //Buscamos el vértice con una sola consulta al diccionario.
+        Vertice v = vertices.get(elemento);
+        if(v != null){
+            return v;
         }
 
         //En otro caso, tiramos la excepción.
         throw new NoSuchElementException("No se encuentra el elemento: " + elemento);
-
     }
 
     /**
@@ -485,8 +517,229 @@ public class GraficaDirigida<T> implements Coleccion<T> {
 
         Vertice vertice = (Vertice) vertice(elemento);
 
-        return new ArrayList<>(vertice.vecinos.keySet());
+        List<T> lista = new ArrayList<>(vertice.vecinos.size());
+        for (Vecino vc : vertice.vecinos.values()) {
+            lista.add(vc.vecino.elemento);
+        }
+        return lista;
+    }
+
+    /**
+     * Regresa el identificador del vértice del elemento recibido. Los
+     * identificadores son enteros densos entre 0 y <i>n</i>-1 que se asignan
+     * al agregar cada elemento, y permiten usar la gráfica sin calcular el
+     * hash de los elementos.
+     * @param elemento el elemento.
+     * @return el identificador de su vértice.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int id(T elemento) {
+        return ((Vertice) vertice(elemento)).indice;
+    }
+
+    /**
+     * Regresa el elemento del vértice con el identificador recibido.
+     * @param id el identificador del vértice.
+     * @return el elemento del vértice.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public T elemento(int id) {
+        return verticeId(id).elemento;
+    }
 
+    /**
+     * Regresa el número de aristas que salen del vértice con el identificador
+     * recibido.
+     * @param id el identificador del vértice.
+     * @return el grado de salida del vértice.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int getGrado(int id) {
+        return verticeId(id).vecinos.size();
+    }
+
+    /**
+     * Regresa los identificadores de los vecinos de un vértice.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los identificadores de sus vecinos.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int[] vecinos(int id) {
+        int[] ids = new int[getGrado(id)];
+        vecinos(id, ids, null, 0);
+        return ids;
+    }
+
+    /**
+     * Regresa los pesos de las aristas que salen de un vértice, en el mismo
+     * orden que {@link #vecinos(int)}.
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los pesos de sus aristas.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public double[] pesos(int id) {
+        double[] pesos = new double[getGrado(id)];
+        vecinos(id, null, pesos, 0);
+        return pesos;
+    }
+
+    /**
+     * Escribe los identificadores de los vecinos de un vértice y los pesos de
+     * sus aristas en los arreglos recibidos, a partir de la posición
+     * recibida y en el mismo orden que {@link #vecinos(int)}. No crea
+     * arreglos: los arreglos deben tener lugar para {@link #getGrado(int)}
+     * aristas a partir de la posición.
+     * @param id el identificador del vértice.
+     * @param ids el arreglo para los identificadores, o <code>null</code> si
+     *            no se necesitan.
+     * @param pesos el arreglo para los pesos, o <code>null</code> si no se
+     *              necesitan.
+     * @param desde la posición donde se escribe la primera arista.
+     * @return el número de aristas escritas.
+     * @throws NoSuchElementException si el identificador es inválido.
+     */
+    public int vecinos(int id, int[] ids, double[] pesos, int desde) {
+        Vertice v = verticeId(id);
+        int i = desde;
+        for (Vecino vc : v.vecinos.values()) {
+            if (ids != null)
+                ids[i] = vc.vecino.indice;
+            if (pesos != null)
+                pesos[i] = vc.peso;
+            i++;
+        }
+        return i - desde;
+    }
+
+    /**
+     * Conecta los vértices con los identificadores recibidos. Es equivalente
+     * a {@link #conecta(Object,Object,double)} sobre sus elementos.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @param peso el peso de la arista.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     * @throws IllegalArgumentException si los vértices ya están conectados, si
+     *         a es igual a b, o si el peso es no positivo.
+     */
+    public void conectaPorId(int a, int b, double peso) {
+        if(a == b){//Vértices iguales
+            throw new IllegalArgumentException("Elementos iguales, no admitimos lazos.");
+        }
+
+        if(peso <= 0){
+            throw new IllegalArgumentException("No se admiten pesos menores a 0.");
+        }
+
+        enlaza(verticeId(a), verticeId(b), peso);
+    }
+
+    /**
+     * Nos dice si los vértices con los identificadores recibidos están
+     * conectados.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en otro caso.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     */
+    public boolean sonVecinosPorId(int a, int b) {
+        return verticeId(a).vecinos.containsKey(verticeId(b));
+    }
+
+    /**
+     * Regresa el peso de la arista entre los vértices con los identificadores
+     * recibidos.
+     * @param a el identificador del primer vértice.
+     * @param b el identificador del segundo vértice.
+     * @return el peso de la arista.
+     * @throws NoSuchElementException si algún identificador es inválido.
+     * @throws IllegalArgumentException si los vértices no están conectados.
+     */
+    public double getPesoPorId(int a, int b) {
+        Vecino vecino = verticeId(a).vecinos.get(verticeId(b));
+        if(vecino == null){//Si no son vecinos.
+            throw new IllegalArgumentException("No son vécinos: " + a + ", " + b);
+        }
+        return vecino.peso;
+    }
+
+    /* Regresa el vértice con el identificador recibido. */
+    private Vertice verticeId(int id) {
+        if(id < 0 || id >= indexados.size()){
+            throw new NoSuchElementException("Identificador inválido: " + id);
+        }
+        return indexados.get(id);
+    }
+
+    /* Cuenta (con signo 1) o descuenta (con signo -1) el peso de una arista
+     * para elegir el montículo de Dijkstra. */
+    private void cuentaPeso(double peso, int signo) {
+        if(peso != Math.rint(peso)){
+            fraccionarias += signo;
+        }else if(peso > MonticuloDial.PESO_MAXIMO){
+            pesadas += signo;
+        }
+    }
+
+    /* Conecta dos vértices con una arista del peso recibido. */
+    private void enlaza(Vertice vA, Vertice vB, double peso) {
+        if(vA.vecinos.containsKey(vB)){//Elementos ya vecinos.
+            throw new IllegalArgumentException("Los vértices ya están conectados.");
+        }
+
+        //Incrementamos el contador de aristas.
+        aristas++;
+        cuentaPeso(peso, 1);
+        modificaciones++;
+
+        //Agregamos a sus listas de adyacencias.
+        vA.vecinos.put(vB, new Vecino(vB, peso));
+        vB.apuntadores.put(vA, new Vecino(vA, peso));
+    }
+
+    /**
+     * Congela la gráfica en una vista inmutable en formato CSR. La vista no
+     * cambia si después se modifica la gráfica. Cada vértice de la vista
+     * tiene el mismo identificador que en la gráfica, el de {@link #id}.
+     * @return una gráfica congelada con los mismos vértices y aristas.
+     */
+    public GraficaCongelada<T> congela() {
+        int n = indexados.size();
+        //Los identificadores son los mismos que los de la gráfica.
+        Object[] elementos = new Object[n];
+        Map<T, Integer> idsElementos = new HashMap<>(n * 4 / 3 + 1);
+        for (Vertice v : indexados) {
+            idsElementos.put(v.elemento, v.indice);
+            elementos[v.indice] = v.elemento;
+        }
+
+        //Calculamos dónde empiezan las aristas de cada vértice.
+        int[] indices = new int[n + 1];
+        int[] indicesInversos = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            indices[i + 1] = indices[i] + indexados.get(i).vecinos.size();
+            indicesInversos[i + 1] = indicesInversos[i] + indexados.get(i).apuntadores.size();
+        }
+
+        //Llenamos los arreglos de aristas de salida y de entrada.
+        int[] destinos = new int[indices[n]];
+        double[] pesos = new double[indices[n]];
+        int[] origenes = new int[indicesInversos[n]];
+        double[] pesosInversos = new double[indicesInversos[n]];
+        for (int i = 0; i < n; i++) {
+            int j = indices[i];
+            for (Vecino vc : indexados.get(i).vecinos.values()) {
+                destinos[j] = vc.vecino.indice;
+                pesos[j++] = vc.peso;
+            }
+            j = indicesInversos[i];
+            for (Vecino vc : indexados.get(i).apuntadores.values()) {
+                origenes[j] = vc.vecino.indice;
+                pesosInversos[j++] = vc.peso;
+            }
+        }
+
+        return new GraficaCongelada<>(elementos, idsElementos, indices, destinos,
+                                      pesos, indicesInversos, origenes, pesosInversos);
     }
 
     /**
@@ -504,6 +757,72 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         return dfsInt(primero.get(), x -> {}) == vertices.size();
     }
 
+    /**
+     * Nos dice si la gráfica es fuertemente conexa, es decir, si cada vértice
+     * se alcanza desde cualquier otro siguiendo la dirección de las aristas.
+     * Toma tiempo <i>O</i>(<i>n</i> + <i>m</i>) y no usa recursión.
+     * @return <code>true</code> si la gráfica es fuertemente conexa,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si la gráfica es vacía.
+     */
+    public boolean esFuertementeConexa() {
+        if (vertices.isEmpty())
+            throw new NoSuchElementException("La gráfica es vacía.");
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        adyacencias(inicios, destinos, null);
+        for (int c : ComponentesFuertes.tarjan(inicios, destinos))
+            if (c != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Calcula las componentes fuertemente conexas de la gráfica.
+     * @return las componentes fuertemente conexas de la gráfica.
+     */
+    public ComponentesFuertes<T> componentesFuertes() {
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        return new ComponentesFuertes<>(inicios, destinos, pesos,
+                                        e -> ((Vertice) vertice(e)).indice,
+                                        i -> indexados.get(i).elemento);
+    }
+
+    /* Llena las aristas de la gráfica por vértice de origen: las de u están
+     * en las posiciones inicios[u] a inicios[u+1]-1. Los pesos se omiten si
+     * el arreglo es null. */
+    private void adyacencias(int[] inicios, int[] destinos, double[] pesos) {
+        adyacencias(false, inicios, destinos, pesos);
+    }
+
+    /* Llena las aristas invertidas de la gráfica por vértice de destino,
+     * como {@link #adyacencias}. */
+    private void apuntadores(int[] inicios, int[] destinos, double[] pesos) {
+        adyacencias(true, inicios, destinos, pesos);
+    }
+
+    /* Llena las aristas de los vecinos, o de los apuntadores si inversas es
+     * true. */
+    private void adyacencias(boolean inversas, int[] inicios, int[] destinos,
+                             double[] pesos) {
+        int j = 0;
+        for (Vertice v : indexados) {
+            inicios[v.indice] = j;
+            for (Vecino vc : (inversas ? v.apuntadores : v.vecinos).values()) {
+                destinos[j] = vc.vecino.indice;
+                if (pesos != null)
+                    pesos[j] = vc.peso;
+                j++;
+            }
+        }
+        inicios[indexados.size()] = j;
+    }
+
     /**
      * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
      * el orden en que fueron agregados.
@@ -531,31 +850,7 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
-        
-        // Inicializar la cola para BFS
-        Queue<Vertice> cola = new LinkedList<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la cola
-        cola.add(v);
-        
-        // Realizar el recorrido
-        while (!cola.isEmpty()) {
-            Vertice u = cola.poll();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    cola.add(ve.vecino);
-                }
-            }
-        }
+        recorre((Vertice) vertice(elemento), accion, true);
     }
     
     /**
@@ -565,6 +860,7 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
+     * @return el número de vértices visitados.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public int dfsInt(T elemento, AccionVerticeGrafica<T> accion) {
@@ -572,32 +868,7 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
-
-        // Inicializar la pila para DFS
-        Stack<Vertice> pila = new Stack<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la pila
-        pila.push(v);
-        
-        // Realizar el recorrido
-        while (!pila.isEmpty()) {
-            Vertice u = pila.pop();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    pila.push(ve.vecino);
-                }
-            }
-        }
-        return visitados.size();
+        return recorre((Vertice) vertice(elemento), accion, false);
     }
 
     /**
@@ -614,30 +885,44 @@ public class GraficaDirigida<T> implements Coleccion<T> {
         if (!contiene(elemento)) {
             throw new NoSuchElementException("No está el elemento: " + elemento);
         }
+        recorre((Vertice) vertice(elemento), accion, false);
+    }
 
-        // Inicializar la pila para DFS
-        Stack<Vertice> pila = new Stack<>();
-        Vertice v = (Vertice) vertice(elemento);
-        
-        // Marca los vértices visitados
-        Map<Vertice, Boolean> visitados = new HashMap<>();
-        visitados.put(v, true);
-        
-        // Añadir el vértice inicial a la pila
-        pila.push(v);
-        
-        // Realizar el recorrido
-        while (!pila.isEmpty()) {
-            Vertice u = pila.pop();
-            accion.actua(u);
-            
-            // Procesar vecinos
-            for (Vecino ve : u.vecinos.values()) {
-                if (!visitados.containsKey(ve.vecino)) {
-                    visitados.put(ve.vecino, true);
-                    pila.push(ve.vecino);
+    /* Recorre los vértices alcanzables desde v, por BFS si anchura es true y
+     * por DFS en otro caso, y regresa cuántos visitó. Los pendientes van en
+     * un arreglo de índices: se sacan por la cabeza en BFS y por el rabo en
+     * DFS. */
+    private int recorre(Vertice v, AccionVerticeGrafica<T> accion, boolean anchura) {
+        Recorrido recorrido = recorridos.poll();
+        if (recorrido == null)
+            recorrido = new Recorrido();
+        try {
+            recorrido.prepara(indexados.size());
+            int[] pendientes = recorrido.pendientes;
+            BitSet visitados = recorrido.visitados;
+            int cabeza = 0, rabo = 0, total = 1;
+
+            // Marcamos el vértice inicial y lo agregamos a los pendientes
+            visitados.set(v.indice);
+            pendientes[rabo++] = v.indice;
+
+            // Realizar el recorrido
+            while (cabeza < rabo) {
+                Vertice u = indexados.get(anchura ? pendientes[cabeza++] : pendientes[--rabo]);
+                accion.actua(u);
+
+                // Procesar vecinos
+                for (Vecino ve : u.vecinos.values()) {
+                    if (!visitados.get(ve.vecino.indice)) {
+                        visitados.set(ve.vecino.indice);
+                        pendientes[rabo++] = ve.vecino.indice;
+                        total++;
+                    }
                 }
             }
+            return total;
+        } finally {
+            recorridos.offer(recorrido);
         }
     }
 
@@ -657,7 +942,11 @@ public class GraficaDirigida<T> implements Coleccion<T> {
     @Override public void limpia() {
         // Aquí va su código.
         vertices.clear();
+        indexados.clear();
         aristas = 0;
+        fraccionarias = 0;
+        pesadas = 0;
+        modificaciones++;
     }
 
     /**
@@ -735,7 +1024,8 @@ public class GraficaDirigida<T> implements Coleccion<T> {
 
             //Procedemos a verificar que tengan los mismos vecinos.
             for (Vecino vc : v.vecinos.values()) {
-                if (!vG.vecinos.containsKey(vc.vecino.elemento)){
+                Vertice w = grafica.vertices.get(vc.vecino.elemento);
+                if (w == null || !vG.vecinos.containsKey(w)){
                     return false;
                 }
             }
@@ -766,6 +1056,30 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public List<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return trayectoriaMinima(origen, destino, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices, guardando
+     * el estado de la consulta en el contexto recibido. Varios hilos pueden
+     * llamar este método al mismo tiempo si cada uno usa su propio contexto.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @param contexto el contexto de la consulta.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices <code>a</code> y
+     *         <code>b</code>. Si los elementos se encuentran en componentes conexos
+     *         distintos, el algoritmo regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino,
+                                                     ContextoDijkstra contexto) {
         // Aquí va su código.
         //Los vértices origen y destino.
         Vertice s = (Vertice) vertice(origen);
@@ -780,51 +1094,36 @@ public class GraficaDirigida<T> implements Coleccion<T> {
             return trayectoria;
         }
 
-        //Hacemos las distancias infinitas.
+        //Hacemos las distancias infinitas, excepto la del origen.
         final double INFINITO = Double.POSITIVE_INFINITY;
-        distanciasInfinitas(s, INFINITO);
-
-        //Creamos la cola con el origen.
-        Queue<Vertice> cola = new LinkedList<>();
-        cola.add(s);
-
-        //Procedemos al while para calcular distancias.
-        while(!cola.isEmpty()){
+        contexto.prepara(indexados.size());
+        double[] d = contexto.distancias;
+        d[s.indice] = 0;
+        contexto.anteriores[s.indice] = s.indice;
+
+        //Creamos la cola de índices con el origen.
+        int[] cola = contexto.cola;
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s.indice;
+
+        //Procedemos al while para calcular distancias, hasta alcanzar el destino.
+        while(cabeza < rabo && d[t.indice] == INFINITO){
             //Marcamos "u" como el vértice que sacamos de la cola.
-            Vertice u = cola.poll();
+            Vertice u = indexados.get(cola[cabeza++]);
 
             //Recorremos todos su vecinos.
             for(Vecino vc : u.vecinos.values()){
                 //Si la distancia del vecino es infinita, la incrementamos en 1 con respecto a la de u.
-                if(vc.vecino.distancia == INFINITO){
-                    vc.vecino.distancia = u.distancia + 1;
-                    cola.add(vc.vecino);
-                }
-            }
-        }
-
-        //Si para este punto la distancia de t es infinita, regresamos la lista (vacía).
-        if(t.distancia == INFINITO){
-            return trayectoria;
-        }
-
-        //Procedemos con la construcción de la trayectoria.
-        Vertice u = t;//Partimos del vértice destino.
-        while(u != s){//Hasta que u sea el origen.
-            for(Vecino vc : u.apuntadores.values()){
-                //Si damos con un vecino que tal que d(u)-1 = d(vc.vecino)
-                if(u.distancia - 1 == vc.vecino.distancia){
-                    //Metemos a 'u' y actualizamos su valor al del vértice siguiente.
-                    trayectoria.add(0, u);
-                    u = vc.vecino;
-                    break;
+                if(d[vc.vecino.indice] == INFINITO){
+                    d[vc.vecino.indice] = d[u.indice] + 1;
+                    contexto.anteriores[vc.vecino.indice] = u.indice;
+                    cola[rabo++] = vc.vecino.indice;
                 }
             }
         }
-        //Finalmente agregamos al vértice origen.
-        trayectoria.add(0, s);
 
-        return trayectoria;
+        //Reconstruimos la trayectoria siguiendo los anteriores desde el destino.
+        return reconstruye(contexto.anteriores, s, t);
     }
 
     /**
@@ -859,6 +1158,30 @@ public class GraficaDirigida<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public List<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return dijkstra(origen, destino, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, guardando el estado de la consulta en el contexto recibido.
+     * Varios hilos pueden llamar este método al mismo tiempo si cada uno usa
+     * su propio contexto.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param contexto el contexto de la consulta.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> dijkstra(T origen, T destino,
+                                            ContextoDijkstra contexto) {
         // Aquí va su código.
         //Los vértices origen y destino.
         Vertice s = (Vertice) vertice(origen);
@@ -873,72 +1196,393 @@ public class GraficaDirigida<T> implements Coleccion<T> {
             return trayectoria;
         }
 
-        //Hacemos las distancias infinitas.
-        final double INFINITO = Double.POSITIVE_INFINITY;
-        distanciasInfinitas(s, INFINITO);
+        //Calculamos distancias hasta asentar el destino.
+        calculaDistancias(s, t, contexto);
 
-        //Procedemos a determinar el tipo de monticulo para el algoritmo.
-        MonticuloDijkstra<Vertice> m;//Nos apoyaremos de la interfaz.
-        int n = vertices.size();
-        
-        /*
-        if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de vértices para el número de aristas.
-            m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
-        }else{//Cantidades lineales de vértices para el número de aristas.
-            m = new MonticuloMinimo<Vertice>(vertices.values(), vertices.size());
-        }*/
-        m = new MonticuloArreglo<Vertice>(vertices.values(), vertices.size());
+        //Reconstruimos la trayectoria siguiendo los anteriores desde el destino.
+        return reconstruye(contexto.anteriores, s, t);
+    }
 
-        //Procedemos con el algoritmo de Djikstra.
-        while(!m.esVacia()){
-            Vertice u = m.elimina();
-            //Actualizamos las distancias de los vecinos
-            for(Vecino v : u.vecinos.values()){
-                //si d(v) > d(u) + peso(v, u)
-                if(v.vecino.distancia > u.distancia + v.peso){
-                    //Entonces d(v) = d(u) + peso(u, v).
-                    v.vecino.distancia = u.distancia + v.peso;
-                    m.reordena(v.vecino);
-                }
-            }
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino. Esta lista se genera sobre los elementos.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * 
+     */
+    public List<T> dijkstraElementos(T origen, T destino){
+        List<VerticeGrafica<T>> listaVertices = dijkstra(origen, destino);
+        List<T> trayectoria = new ArrayList<>();
+
+        for(VerticeGrafica<T> vertice: listaVertices){
+            trayectoria.add(vertice.get());
         }
 
-        //Si para este punto la distancia de t es infinita, regresamos la lista (vacía).
-        if(t.distancia == INFINITO){
-            return trayectoria;
+        return trayectoria;
+    }
+
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen
+     * hasta todos los elementos que alcanza. A diferencia de {@link
+     * #dijkstra(Object,Object)}, que se detiene al llegar al destino, este
+     * método recorre toda la gráfica una sola vez, y el árbol que regresa
+     * responde las distancias y trayectorias a cualquier destino.
+     * @param origen el elemento origen.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public ArbolDistancias<T> arbolDistancias(T origen) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return arbolDistancias(origen, contexto);
+        } finally {
+            contextos.offer(contexto);
         }
+    }
 
-        //Procedemos con la construcción de la trayectoria.
-        Vertice u = t;//Partimos del vértice destino.
-        while(u != s){//Hasta que u sea el origen.
-            for(Vecino vc : u.apuntadores.values()){
-                //Si damos con un vecino que tal que d(u)-1 = d(vc.vecino)
-                if(u.distancia - vc.peso == vc.vecino.distancia){
-                    //Metemos a 'u' y actualizamos su valor al del vértice siguiente.
-                    trayectoria.add(0, u);
-                    u = vc.vecino;
-                    break;
-                }
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen,
+     * usando el contexto recibido para el cálculo. El árbol copia las
+     * distancias del contexto, por lo que el contexto puede reutilizarse en
+     * cuanto el método termina.
+     * @param origen el elemento origen.
+     * @param contexto el contexto de la consulta.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public ArbolDistancias<T> arbolDistancias(T origen, ContextoDijkstra contexto) {
+        Vertice s = (Vertice) vertice(origen);
+        calculaDistancias(s, null, contexto);
+        int n = indexados.size();
+        return new ArbolDistancias<>(origen,
+                                     Arrays.copyOf(contexto.distancias, n),
+                                     Arrays.copyOf(contexto.anteriores, n),
+                                     e -> ((Vertice) vertice(e)).indice,
+                                     i -> indexados.get(i).elemento);
+    }
+
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen con
+     * <i>delta-stepping</i>, repartiendo el trabajo entre los hilos del {@link
+     * ForkJoinPool#commonPool}. Las distancias son las mismas que las de
+     * {@link #arbolDistancias(Object)}; si hay varias trayectorias mínimas,
+     * la del árbol puede ser otra.
+     * @param origen el elemento origen.
+     * @param delta el ancho de las cubetas; conviene que sea cercano al peso
+     *        promedio de las aristas.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     * @throws IllegalArgumentException si delta no es positivo.
+     */
+    public ArbolDistancias<T> arbolDistanciasDelta(T origen, double delta) {
+        return arbolDistanciasDelta(origen, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula el árbol de trayectorias mínimas desde el elemento de origen con
+     * <i>delta-stepping</i>, repartiendo el trabajo entre los hilos del pool
+     * recibido. La gráfica no debe modificarse mientras tanto.
+     * @param origen el elemento origen.
+     * @param delta el ancho de las cubetas; conviene que sea cercano al peso
+     *        promedio de las aristas.
+     * @param pool el pool donde se calculan las distancias.
+     * @return el árbol de trayectorias mínimas desde el origen.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     * @throws IllegalArgumentException si delta no es positivo.
+     */
+    public ArbolDistancias<T> arbolDistanciasDelta(T origen, double delta,
+                                                   ForkJoinPool pool) {
+        Vertice s = (Vertice) vertice(origen);
+        if (!(delta > 0))
+            throw new IllegalArgumentException("Delta inválida: " + delta);
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        double[] distancias = new double[n];
+        int[] anteriores = new int[n];
+        new DeltaStepping(inicios, destinos, pesos, delta, pool)
+            .calcula(s.indice, distancias, anteriores);
+        return new ArbolDistancias<>(origen, distancias, anteriores,
+                                     e -> ((Vertice) vertice(e)).indice,
+                                     i -> indexados.get(i).elemento);
+    }
+
+    /**
+     * Calcula la matriz de distancias mínimas de cada origen a cada destino.
+     * La entrada <code>[i][j]</code> de la matriz es la distancia del origen
+     * <code>i</code> al destino <code>j</code>, o infinito si el destino no se
+     * alcanza. Se corre un solo Dijkstra por origen, y los orígenes se reparten
+     * entre los hilos del {@link ForkJoinPool#commonPool}; cada hilo usa su
+     * propio contexto, por lo que la gráfica no debe modificarse mientras
+     * tanto.
+     * @param origenes la lista de orígenes.
+     * @param destinos la lista de destinos.
+     * @return la matriz de distancias de los orígenes a los destinos.
+     * @throws NoSuchElementException si algún origen o destino no está en la
+     *         gráfica.
+     */
+    public double[][] matrizDistancias(List<T> origenes, List<T> destinos) {
+        return matrizDistancias(origenes, destinos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula la matriz de distancias mínimas de cada origen a cada destino,
+     * repartiendo los orígenes entre los hilos del pool recibido.
+     * @param origenes la lista de orígenes.
+     * @param destinos la lista de destinos.
+     * @param pool el pool en el que se calculan las distancias.
+     * @return la matriz de distancias de los orígenes a los destinos.
+     * @throws NoSuchElementException si algún origen o destino no está en la
+     *         gráfica.
+     * @see #matrizDistancias(List,List)
+     */
+    public double[][] matrizDistancias(List<T> origenes, List<T> destinos,
+                                       ForkJoinPool pool) {
+        //Resolvemos los índices antes de repartir el trabajo.
+        int[] s = indices(origenes);
+        int[] t = indices(destinos);
+        double[][] matriz = new double[s.length][t.length];
+
+        //Cada tarea toma su propio contexto y llena su renglón.
+        pool.submit(() -> IntStream.range(0, s.length).parallel().forEach(i -> {
+            ContextoDijkstra contexto = tomaContexto();
+            try {
+                calculaDistancias(indexados.get(s[i]), null, contexto);
+                for (int j = 0; j < t.length; j++)
+                    matriz[i][j] = contexto.distancias[t[j]];
+            } finally {
+                contextos.offer(contexto);
             }
+        })).join();
+
+        return matriz;
+    }
+
+    /* Regresa los índices de los vértices de los elementos de la lista. */
+    private int[] indices(List<T> elementos) {
+        int[] indices = new int[elementos.size()];
+        int i = 0;
+        for (T elemento : elementos)
+            indices[i++] = ((Vertice) vertice(elemento)).indice;
+        return indices;
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino usando A*. La búsqueda se guía por la heurística recibida y
+     * termina en cuanto el destino queda asentado, por lo que con una buena
+     * heurística explora una fracción pequeña de la gráfica.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica una heurística admisible para el peso que falta para
+     *        llegar al destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> aEstrella(T origen, T destino,
+                                             Heuristica<T> heuristica) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return aEstrella(origen, destino, heuristica, contexto);
+        } finally {
+            contextos.offer(contexto);
         }
-        //Finalmente agregamos al vértice origen.
-        trayectoria.add(0, s);
+    }
 
-        return trayectoria;
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino usando A*, guardando el estado de la consulta en el contexto
+     * recibido. Al terminar, {@link ContextoDijkstra#getAsentados} dice cuántos
+     * vértices asentó la búsqueda.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica una heurística admisible para el peso que falta para
+     *        llegar al destino.
+     * @param contexto el contexto de la consulta.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public List<VerticeGrafica<T>> aEstrella(T origen, T destino,
+                                             Heuristica<T> heuristica,
+                                             ContextoDijkstra contexto) {
+        //Los vértices origen y destino.
+        Vertice s = (Vertice) vertice(origen);
+        Vertice t = (Vertice) vertice(destino);
+
+        return busca(s, t, w -> heuristica.estima(indexados.get(w).elemento, destino),
+                     contexto);
+    }
+
+    /**
+     * Elige k puntos de referencia y calcula sus distancias a y desde todos
+     * los vértices, para consultas con {@link #alt}. Cuesta 2<i>k</i>
+     * ejecuciones de Dijkstra; los puntos son válidos mientras la gráfica no
+     * cambie.
+     * @param k el número de puntos de referencia.
+     * @return los puntos de referencia.
+     * @throws IllegalArgumentException si k no está entre 1 y el número de
+     *         vértices, si es mayor que 1024, o si las <i>kn</i> distancias
+     *         no caben en un arreglo.
+     */
+    public PuntosReferencia<T> puntosReferencia(int k) {
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        int[] iniciosInversos = new int[n + 1];
+        int[] destinosInversos = new int[aristas];
+        double[] pesosInversos = new double[aristas];
+        apuntadores(iniciosInversos, destinosInversos, pesosInversos);
+        return PuntosReferencia.calcula(k, inicios, destinos, pesos,
+                                        iniciosInversos, destinosInversos, pesosInversos,
+                                        this, modificaciones,
+                                        e -> ((Vertice) vertice(e)).indice,
+                                        i -> indexados.get(i).elemento);
+    }
+
+    /**
+     * Carga los puntos de referencia que se guardaron con {@link
+     * PuntosReferencia#guarda}. Los puntos deben haberse calculado sobre una
+     * gráfica con los mismos vértices, en el mismo orden, y las mismas
+     * aristas que ésta.
+     * @param archivo el archivo de los puntos.
+     * @return los puntos de referencia.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el archivo no tiene puntos de
+     *         referencia, o si son de otra gráfica.
+     */
+    public PuntosReferencia<T> cargaPuntosReferencia(Path archivo) throws IOException {
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        return PuntosReferencia.carga(archivo, PuntosReferencia.huella(inicios, destinos, pesos),
+                                      n, this, modificaciones,
+                                      e -> ((Vertice) vertice(e)).indice,
+                                      i -> indexados.get(i).elemento);
     }
 
     /**
      * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
-     * de destino. Esta lista se genera sobre los elementos.
+     * de destino con ALT: A* guiado por las cotas de los puntos de
+     * referencia. Las cotas se evalúan por índice, sin calcular el hash de
+     * los elementos.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param puntos los puntos de referencia de esta gráfica.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si no hay trayectoria, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si los puntos no son de esta gráfica,
+     *         o si la gráfica cambió después de calcularlos.
+     */
+    public List<VerticeGrafica<T>> alt(T origen, T destino, PuntosReferencia<T> puntos) {
+        ContextoDijkstra contexto = tomaContexto();
+        try {
+            return alt(origen, destino, puntos, contexto);
+        } finally {
+            contextos.offer(contexto);
+        }
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino con ALT, guardando el estado de la consulta en el contexto
+     * recibido.
      * @param origen el vértice origen.
      * @param destino el vértice destino.
+     * @param puntos los puntos de referencia de esta gráfica.
+     * @param contexto el contexto de la consulta.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si no hay trayectoria, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si los puntos no son de esta gráfica,
+     *         o si la gráfica cambió después de calcularlos.
+     */
+    public List<VerticeGrafica<T>> alt(T origen, T destino, PuntosReferencia<T> puntos,
+                                       ContextoDijkstra contexto) {
+        Vertice s = (Vertice) vertice(origen);
+        Vertice t = (Vertice) vertice(destino);
+        verificaPuntos(puntos);
+        return busca(s, t, w -> puntos.cota(w, t.indice), contexto);
+    }
+
+    /* Verifica que los puntos de referencia sean de la gráfica tal como está.
+     * Si los puntos se calcularon o cargaron en esta gráfica y no ha cambiado
+     * desde entonces, la verificación toma tiempo constante; si no, compara
+     * la huella de las aristas. */
+    private void verificaPuntos(PuntosReferencia<T> puntos) {
+        int n = indexados.size();
+        if (puntos.getVertices() != n)
+            throw new IllegalArgumentException("Los puntos de referencia son de otra gráfica.");
+        if (puntos.deGrafica(this, modificaciones))
+            return;
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        if (puntos.getHuella() != PuntosReferencia.huella(inicios, destinos, pesos))
+            throw new IllegalArgumentException("Los puntos de referencia son de otra gráfica, " +
+                                               "o la gráfica cambió.");
+    }
+
+    /**
+     * Calcula la jerarquía de contracciones de la gráfica, repartiendo el
+     * preprocesamiento entre los hilos del {@link ForkJoinPool#commonPool}.
+     * @return la jerarquía de contracciones de la gráfica.
+     */
+    public JerarquiaContracciones<T> jerarquiaContracciones() {
+        return jerarquiaContracciones(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula la jerarquía de contracciones de la gráfica, repartiendo el
+     * preprocesamiento entre los hilos del pool recibido. La jerarquía sólo
+     * es válida mientras la gráfica no se modifique.
+     * @param pool el pool donde se contraen los vértices.
+     * @return la jerarquía de contracciones de la gráfica.
+     */
+    public JerarquiaContracciones<T> jerarquiaContracciones(ForkJoinPool pool) {
+        int n = indexados.size();
+        int[] inicios = new int[n + 1];
+        int[] destinos = new int[aristas];
+        double[] pesos = new double[aristas];
+        adyacencias(inicios, destinos, pesos);
+        return new JerarquiaContracciones<>(inicios, destinos, pesos, pool,
+                                            e -> ((Vertice) vertice(e)).indice,
+                                            i -> indexados.get(i).elemento);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino usando A*. Esta lista se genera sobre los elementos.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica una heurística admisible para el peso que falta para
+     *        llegar al destino.
      * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
      *         el vértice <code>destino</code>. Si los vértices están en componentes
      *         conexas distintas, regresa una lista vacía.
-     * 
      */
-    public List<T> dijkstraElementos(T origen, T destino){
-        List<VerticeGrafica<T>> listaVertices = dijkstra(origen, destino);
+    public List<T> aEstrellaElementos(T origen, T destino, Heuristica<T> heuristica){
+        List<VerticeGrafica<T>> listaVertices = aEstrella(origen, destino, heuristica);
         List<T> trayectoria = new ArrayList<>();
 
         for(VerticeGrafica<T> vertice: listaVertices){
@@ -949,83 +1593,296 @@ public class GraficaDirigida<T> implements Coleccion<T> {
     }
 
     /**
-     * Método que vuelve infinitas las distancias de todos los vértices
-     * exceptuando un vértices particular 's' (Que será el origen).
-     * Claro Este método puede aplicarse sobre cualquier cota superior que se considere "infinito".
-     * @param s un vértice particular al que nulificaremos su distancia.
-     * @param INFINITO una cota superior que será considerada el infinito.
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino con Dijkstra bidireccional: una búsqueda avanza desde el
+     * origen sobre los vecinos y otra desde el destino sobre los apuntadores,
+     * hasta que se encuentran.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
      */
-    private void distanciasInfinitas(Vertice s, Double INFINITO){
-        //Hacemos todas las distancias "infinitas" excepto 's'.
-        for(Vertice v : vertices.values()){
-            //Si el vértice es el origen, distancia 0.
-            if(v.get().equals(s.get())){
-                s.distancia = 0;
-                continue;
-            }
-            //En otro caso, se hace infinita.
-            v.distancia = INFINITO;
+    public List<VerticeGrafica<T>> dijkstraBidireccional(T origen, T destino) {
+        ContextoDijkstra adelante = tomaContexto();
+        ContextoDijkstra atras = tomaContexto();
+        try {
+            return dijkstraBidireccional(origen, destino, adelante, atras);
+        } finally {
+            contextos.offer(adelante);
+            contextos.offer(atras);
         }
     }
 
     /**
-     * Combina una lista de gráficas dirigidas en una sola.
-     * Los vértices que se intersecan se consideran uno solo.
-     * 
-     * @param graficas la lista de gráficas a combinar.
-     * @return una nueva gráfica que contiene todos los vértices y aristas de las gráficas dadas.
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino con Dijkstra bidireccional, guardando el estado de cada
+     * búsqueda en su propio contexto. Al terminar, cada contexto dice cuántos
+     * vértices asentó su búsqueda.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param adelante el contexto de la búsqueda desde el origen.
+     * @param atras el contexto de la búsqueda desde el destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si los dos contextos son el mismo.
      */
-    public GraficaDirigida<T> combinarGraficas(List<GraficaDirigida<T>> graficas) {
-        // Nueva gráfica combinada
-        GraficaDirigida<T> graficaCombinada = new GraficaDirigida<>();
+    public List<VerticeGrafica<T>> dijkstraBidireccional(T origen, T destino,
+                                                         ContextoDijkstra adelante,
+                                                         ContextoDijkstra atras) {
+        if(adelante == atras){
+            throw new IllegalArgumentException("Cada búsqueda necesita su propio contexto.");
+        }
+        //Los vértices origen y destino.
+        Vertice s = (Vertice) vertice(origen);
+        Vertice t = (Vertice) vertice(destino);
 
-        for (GraficaDirigida<T> grafica : graficas) {
-            agregarVertices(grafica, graficaCombinada);
+        final double INFINITO = Double.POSITIVE_INFINITY;
+        adelante.prepara(indexados.size());
+        atras.prepara(indexados.size());
+        double[] dA = adelante.distancias;
+        double[] dB = atras.distancias;
+        dA[s.indice] = 0;
+        dB[t.indice] = 0;
+        adelante.anteriores[s.indice] = s.indice;
+        atras.anteriores[t.indice] = t.indice;
+
+        MonticuloMinimo<ContextoDijkstra.Nodo> mA = adelante.monticulo();
+        MonticuloMinimo<ContextoDijkstra.Nodo> mB = atras.monticulo();
+        mA.agrega(adelante.nodo(s.indice));
+        mB.agrega(atras.nodo(t.indice));
+
+        //El peso de la mejor trayectoria encontrada y el vértice donde se juntan.
+        double mejor = s == t ? 0 : INFINITO;
+        Vertice encuentro = s;
+
+        while(!mA.esVacia() && !mB.esVacia()){
+            double minA = dA[mA.get(0).indice];
+            double minB = dB[mB.get(0).indice];
+            //Ninguna trayectoria que falte por ver puede mejorar la que tenemos.
+            if(minA + minB >= mejor){
+                break;
+            }
+            //Avanzamos la búsqueda con el mínimo más pequeño.
+            boolean deFrente = minA <= minB;
+            ContextoDijkstra contexto = deFrente ? adelante : atras;
+            MonticuloMinimo<ContextoDijkstra.Nodo> m = deFrente ? mA : mB;
+            double[] d = deFrente ? dA : dB;
+            double[] otra = deFrente ? dB : dA;
+
+            Vertice u = indexados.get(m.elimina().indice);
+            contexto.asentados++;
+            for(Vecino v : (deFrente ? u.vecinos : u.apuntadores).values()){
+                int w = v.vecino.indice;
+                if(d[w] > d[u.indice] + v.peso){
+                    d[w] = d[u.indice] + v.peso;
+                    contexto.anteriores[w] = u.indice;
+                    ContextoDijkstra.Nodo nodo = contexto.nodo(w);
+                    if(m.contiene(nodo)){
+                        m.reordena(nodo);
+                    }else{
+                        m.agrega(nodo);
+                    }
+                }
+                //Si la otra búsqueda ya alcanzó al vecino, tenemos una trayectoria.
+                if(d[w] + otra[w] < mejor){
+                    mejor = d[w] + otra[w];
+                    encuentro = v.vecino;
+                }
+            }
         }
 
-        for (GraficaDirigida<T> grafica : graficas) {
-            agregarConexiones(grafica, graficaCombinada);
+        if(mejor == INFINITO){
+            return new ArrayList<>();
         }
 
-        return graficaCombinada;
+        //Unimos la trayectoria del origen al encuentro con la del encuentro al destino.
+        List<VerticeGrafica<T>> trayectoria = reconstruye(adelante.anteriores, s, encuentro);
+        for(Vertice u = encuentro; u != t; ){
+            u = indexados.get(atras.anteriores[u.indice]);
+            trayectoria.add(u);
+        }
+        return trayectoria;
     }
 
     /**
-     * Agrega los vértices de la gráfica dada a la gráfica combinada.
-     * 
-     * @param grafica la gráfica de la que se agregarán los vértices.
-     * @param graficaCombinada la gráfica en la que se agregarán los vértices.
-     */
-    private void agregarVertices(GraficaDirigida<T> grafica, GraficaDirigida<T> graficaCombinada) {
-        for (T elemento : grafica.vertices.keySet()) {
-            // Verificar si el vértice ya fue agregado usando el método contiene
-            if (!graficaCombinada.contiene(elemento)) {
-                // Agregar el nuevo vértice a la gráfica combinada
-                graficaCombinada.agrega(elemento);
-            }
+     * Regresa la clase del montículo que usa el algoritmo de Dijkstra con los
+     * pesos actuales de la gráfica: {@link MonticuloDial} si todos son enteros
+     * menores o iguales que {@link MonticuloDial#PESO_MAXIMO}, {@link
+     * MonticuloRadix} si todos son enteros, y si no {@link MonticuloArreglo}
+     * cuando la gráfica es densa o {@link MonticuloMinimo} cuando no lo es.
+     * @return la clase del montículo del algoritmo de Dijkstra.
+     */
+    public Class<?> getMonticuloDijkstra() {
+        long n = indexados.size();//Usamos long para que n*n no se desborde.
+        if(fraccionarias == 0 && pesadas == 0){//Pesos enteros pequeños: cubetas de Dial.
+            return MonticuloDial.class;
+        }else if(fraccionarias == 0){//Pesos enteros: montículo radix.
+            return MonticuloRadix.class;
+        }else if(aristas > ((n*(n - 1))/2 - n)){//Cantidades cuadráticas de aristas para el número de vértices.
+            return MonticuloArreglo.class;
         }
-        
+        //Cantidades lineales de aristas para el número de vértices.
+        return MonticuloMinimo.class;
     }
 
     /**
-     * Agrega las conexiones de los vértices de la gráfica dada a la gráfica combinada.
-     * 
-     * @param grafica la gráfica de la que se agregarán las conexiones.
-     * @param graficaCombinada la gráfica en la que se agregarán las conexiones.
-     */
-    private void agregarConexiones(GraficaDirigida<T> grafica, GraficaDirigida<T> graficaCombinada) {
-        for (T elemento : grafica.vertices.keySet()) {
-            Vertice verticeActual = grafica.vertices.get(elemento); // Obtenemos el vértice original
-
-            // Agregar conexiones de los vecinos
-            for (T vecino : verticeActual.vecinos.keySet()) {
-                Vecino verticeVecino = verticeActual.vecinos.get(vecino);
-                if (!graficaCombinada.sonVecinos(elemento, vecino)) {
-                    graficaCombinada.conecta(elemento, vecino, grafica.getPeso(elemento, vecino)); // Conectar desde el elemento actual al vecino
+     * Calcula con el algoritmo de Dijkstra las distancias desde el vértice
+     * <code>s</code>, guardándolas en el contexto junto con el vértice anterior
+     * de cada uno. Si <code>t</code> no es <code>null</code>, se detiene en
+     * cuanto asienta a <code>t</code>; en otro caso calcula el árbol completo.
+     * @param s el vértice origen.
+     * @param t el vértice destino, o <code>null</code>.
+     * @param contexto el contexto de la consulta.
+     */
+    private void calculaDistancias(Vertice s, Vertice t, ContextoDijkstra contexto) {
+        //Hacemos las distancias infinitas, excepto la del origen.
+        final double INFINITO = Double.POSITIVE_INFINITY;
+        contexto.prepara(indexados.size());
+        double[] d = contexto.distancias;
+        d[s.indice] = 0;
+        contexto.anteriores[s.indice] = s.indice;
+
+        //El contexto reutiliza el montículo del tipo que piden los pesos.
+        Class<?> tipo = getMonticuloDijkstra();
+        //Con destino, sólo metemos al montículo los vértices que alcanzamos; el
+        //montículo de arreglo busca en tiempo lineal, así que lo llenamos.
+        boolean perezoso = t != null && tipo != MonticuloArreglo.class;
+        MonticuloDijkstra<ContextoDijkstra.Nodo> m = contexto.monticulo(tipo, !perezoso);
+        if(perezoso){
+            m.agrega(contexto.nodo(s.indice));
+        }
+
+        //Procedemos con el algoritmo de Djikstra.
+        while(!m.esVacia()){
+            Vertice u = indexados.get(m.elimina().indice);
+            //Si la distancia es infinita, los que quedan son inalcanzables.
+            if(d[u.indice] == INFINITO){
+                break;
+            }
+            contexto.asentados++;
+            //Si asentamos el destino, su distancia ya no cambia.
+            if(u == t){
+                break;
+            }
+            //Actualizamos las distancias de los vecinos
+            for(Vecino v : u.vecinos.values()){
+                //si d(v) > d(u) + peso(v, u)
+                if(d[v.vecino.indice] > d[u.indice] + v.peso){
+                    //Entonces d(v) = d(u) + peso(u, v).
+                    d[v.vecino.indice] = d[u.indice] + v.peso;
+                    contexto.anteriores[v.vecino.indice] = u.indice;
+                    ContextoDijkstra.Nodo nodo = contexto.nodo(v.vecino.indice);
+                    if(perezoso && !m.contiene(nodo)){
+                        m.agrega(nodo);
+                    }else{
+                        m.reordena(nodo);
+                    }
+                }
+            }
+        }
+    }
+
+    /* Busca con A* una trayectoria mínima de s a t, estimando por índice el
+     * peso que falta para llegar a t, y guarda el estado en el contexto. */
+    private List<VerticeGrafica<T>> busca(Vertice s, Vertice t,
+                                          IntToDoubleFunction estimacion,
+                                          ContextoDijkstra contexto) {
+        //Las distancias desde el origen y las prioridades (distancia más estimación).
+        contexto.preparaPrioridades(indexados.size());
+        double[] d = contexto.distancias;
+        double[] f = contexto.claves;
+        int[] anteriores = contexto.anteriores;
+        d[s.indice] = 0;
+        f[s.indice] = estimacion.applyAsDouble(s.indice);
+        anteriores[s.indice] = s.indice;
+
+        //Sólo metemos al montículo los vértices que alcanzamos.
+        MonticuloMinimo<ContextoDijkstra.Nodo> m = contexto.monticulo();
+        m.agrega(contexto.nodo(s.indice));
+
+        while(!m.esVacia()){
+            Vertice u = indexados.get(m.elimina().indice);
+            contexto.asentados++;
+            //Si asentamos el destino, ya tenemos su trayectoria.
+            if(u == t){
+                break;
+            }
+            for(Vecino v : u.vecinos.values()){
+                int w = v.vecino.indice;
+                if(d[w] > d[u.indice] + v.peso){
+                    d[w] = d[u.indice] + v.peso;
+                    f[w] = d[w] + estimacion.applyAsDouble(w);
+                    anteriores[w] = u.indice;
+                    //Una estimación infinita dice que desde w no se llega a t.
+                    if(f[w] == Double.POSITIVE_INFINITY){
+                        continue;
+                    }
+                    //Si el vecino ya había salido del montículo, lo volvemos a meter.
+                    ContextoDijkstra.Nodo nodo = contexto.nodo(w);
+                    if(m.contiene(nodo)){
+                        m.reordena(nodo);
+                    }else{
+                        m.agrega(nodo);
+                    }
                 }
             }
+        }
 
+        return reconstruye(anteriores, s, t);
+    }
+
+    /* Reconstruye la trayectoria de s a t siguiendo los índices anteriores de
+     * cada vértice. Si t no se alcanzó, regresa una lista vacía. */
+    private List<VerticeGrafica<T>> reconstruye(int[] anteriores, Vertice s, Vertice t) {
+        List<VerticeGrafica<T>> trayectoria = new ArrayList<>();
+        if(anteriores[t.indice] == -1){
+            return trayectoria;
+        }
+        for(Vertice u = t; u != s; u = indexados.get(anteriores[u.indice])){
+            trayectoria.add(u);
         }
+        trayectoria.add(s);
+        Collections.reverse(trayectoria);
+        return trayectoria;
     }
 
+    /* Toma un contexto libre para una consulta, o crea uno nuevo si no hay;
+     * al terminar la consulta el contexto se regresa a los libres. */
+    private ContextoDijkstra tomaContexto() {
+        ContextoDijkstra contexto = contextos.poll();
+        return contexto != null ? contexto : new ContextoDijkstra(indexados.size());
+    }
+
+    /**
+     * Combina una lista de gráficas dirigidas en una sola.
+     * Los vértices que se intersecan se consideran uno solo, y de las aristas
+     * repetidas se queda el peso de la primera gráfica que la tiene.
+     * 
+     * @param graficas la lista de gráficas a combinar.
+     * @return una nueva gráfica que contiene todos los vértices y aristas de las gráficas dadas.
+     * @see CombinadorGraficas
+     */
+    public GraficaDirigida<T> combinarGraficas(List<GraficaDirigida<T>> graficas) {
+        return combinarGraficas(graficas, PoliticaConflicto.PRIMERO);
+    }
+
+    /**
+     * Combina una lista de gráficas dirigidas en una sola, resolviendo los
+     * pesos de las aristas repetidas con la política recibida.
+     * 
+     * @param graficas la lista de gráficas a combinar.
+     * @param politica la política para las aristas repetidas.
+     * @return una nueva gráfica que contiene todos los vértices y aristas de las gráficas dadas.
+     * @see CombinadorGraficas
+     */
+    public GraficaDirigida<T> combinarGraficas(List<GraficaDirigida<T>> graficas,
+                                               PoliticaConflicto politica) {
+        return new CombinadorGraficas<T>().setPolitica(politica).combina(graficas);
+    }
 }
@@ -0,0 +1,20 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para heurísticas de búsqueda. Una heurística estima el peso de una
+ * trayectoria mínima entre dos elementos de una gráfica.
+ */
+@FunctionalInterface
+public interface Heuristica<T> {
+
+    /**
+     * Estima el peso de una trayectoria mínima del elemento al destino. Para
+     * que A* regrese trayectorias mínimas la heurística debe ser admisible:
+     * la estimación nunca puede ser mayor que el peso real.
+     * @param elemento el elemento desde el que se estima.
+     * @param destino el elemento destino.
+     * @return una cota inferior del peso de una trayectoria mínima del
+     *         elemento al destino.
+     */
+    public double estima(T elemento, T destino);
+}
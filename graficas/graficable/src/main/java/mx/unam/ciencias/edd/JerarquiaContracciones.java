@@ -0,0 +1,699 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para jerarquías de contracciones de una gráfica dirigida.</p>
+ *
+ * <p>El preprocesamiento contrae los vértices uno por uno, del menos al más
+ * importante, y agrega atajos entre los vecinos de cada vértice contraído
+ * cuando la trayectoria por él es la única mínima. La importancia de un
+ * vértice crece con su diferencia de aristas (los atajos que agregaría menos
+ * las aristas que quita), con las aristas que ya perdió y con su nivel en la
+ * jerarquía; las búsquedas de testigos que la estiman son cortas. En cada
+ * ronda se contraen a la vez, entre los hilos de un {@link ForkJoinPool}, los
+ * vértices que son menos importantes que todos sus vecinos; como ninguno es
+ * vecino de otro, sus contracciones son independientes.</p>
+ *
+ * <p>Al terminar, las aristas hacia vértices más importantes forman la
+ * gráfica de subida, y las que vienen de vértices más importantes la de
+ * bajada; ambas se guardan en formato <i>CSR</i>. Una consulta hace dos
+ * búsquedas de Dijkstra que sólo suben, una desde el origen sobre la gráfica
+ * de subida y otra desde el destino sobre la de bajada, y se detiene en
+ * cuanto ninguna puede mejorar la mejor distancia. Los vértices a los que un
+ * vértice más importante llega más barato no se expanden. La trayectoria se
+ * obtiene desempacando los atajos.</p>
+ *
+ * <p>La jerarquía es válida mientras la gráfica de la que salió no cambie.
+ * Varios hilos pueden consultarla al mismo tiempo.</p>
+ */
+public class JerarquiaContracciones<T> {
+
+    /* Vértices que asienta a lo más una búsqueda de testigos al estimar la
+     * prioridad de un vértice. */
+    private static final int LIMITE_PRIORIDAD = 50;
+    /* Vértices que asienta a lo más una búsqueda de testigos al contraer un
+     * vértice. */
+    private static final int LIMITE_CONTRACCION = 500;
+
+    /* Clase interna para las aristas de un vértice durante el
+     * preprocesamiento. */
+    private static class Aristas {
+
+        /* Los vértices del otro extremo. */
+        private int[] vertices = new int[4];
+        /* Los pesos. */
+        private double[] pesos = new double[4];
+        /* El vértice contraído por el que pasa cada atajo, o -1. */
+        private int[] medios = new int[4];
+        /* El número de aristas. */
+        private int elementos;
+
+        /* Regresa la posición de la arista al vértice, o -1. */
+        int busca(int v) {
+            for (int i = 0; i < elementos; i++)
+                if (vertices[i] == v)
+                    return i;
+            return -1;
+        }
+
+        /* Agrega una arista al vértice; si ya había una, se queda con la de
+         * menor peso. */
+        void agrega(int v, double peso, int medio) {
+            int i = busca(v);
+            if (i != -1) {
+                if (peso < pesos[i]) {
+                    pesos[i] = peso;
+                    medios[i] = medio;
+                }
+                return;
+            }
+            if (elementos == vertices.length) {
+                vertices = Arrays.copyOf(vertices, elementos * 2);
+                pesos = Arrays.copyOf(pesos, elementos * 2);
+                medios = Arrays.copyOf(medios, elementos * 2);
+            }
+            vertices[elementos] = v;
+            pesos[elementos] = peso;
+            medios[elementos++] = medio;
+        }
+
+        /* Elimina la arista al vértice. */
+        void elimina(int v) {
+            int i = busca(v);
+            if (i == -1)
+                return;
+            elementos--;
+            vertices[i] = vertices[elementos];
+            pesos[i] = pesos[elementos];
+            medios[i] = medios[elementos];
+        }
+    }
+
+    /* Clase interna para los atajos que agrega una contracción. */
+    private static class Atajos {
+
+        /* Los extremos de los atajos. */
+        private int[] origenes = new int[4];
+        private int[] destinos = new int[4];
+        /* Los pesos. */
+        private double[] pesos = new double[4];
+        /* El número de atajos. */
+        private int elementos;
+
+        /* Agrega el atajo de u a w. */
+        void agrega(int u, int w, double peso) {
+            if (elementos == origenes.length) {
+                origenes = Arrays.copyOf(origenes, elementos * 2);
+                destinos = Arrays.copyOf(destinos, elementos * 2);
+                pesos = Arrays.copyOf(pesos, elementos * 2);
+            }
+            origenes[elementos] = u;
+            destinos[elementos] = w;
+            pesos[elementos++] = peso;
+        }
+    }
+
+    /* Clase interna para el espacio de trabajo de las búsquedas de
+     * testigos: trayectorias que hacen innecesario un atajo. */
+    private static class Testigo {
+
+        /* Las distancias tentativas. */
+        private double[] distancias;
+        /* Los vértices cuya distancia cambió. */
+        private int[] tocados;
+        /* El número de vértices tocados. */
+        private int elementos;
+        /* El montículo de la búsqueda. */
+        private MonticuloIndexado monticulo;
+        /* La marca de los vértices que busca la búsqueda actual. */
+        private int[] objetivos;
+        /* La marca de la búsqueda actual. */
+        private int marca;
+
+        /* Construye un espacio para n vértices. */
+        Testigo(int n) {
+            objetivos = new int[n];
+            distancias = new double[n];
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            tocados = new int[16];
+            monticulo = new MonticuloIndexado(n);
+        }
+
+        /* Cambia la distancia de un vértice. */
+        void distancia(int v, double d) {
+            if (distancias[v] == Double.POSITIVE_INFINITY) {
+                if (elementos == tocados.length)
+                    tocados = Arrays.copyOf(tocados, elementos * 2);
+                tocados[elementos++] = v;
+            }
+            distancias[v] = d;
+        }
+
+        /* Regresa el espacio a su estado inicial. */
+        void limpia() {
+            for (int i = 0; i < elementos; i++)
+                distancias[tocados[i]] = Double.POSITIVE_INFINITY;
+            elementos = 0;
+            monticulo.limpia();
+        }
+    }
+
+    /* Clase interna para el espacio de trabajo de una consulta. */
+    private class Consulta {
+
+        /* Las distancias desde el origen y hacia el destino. */
+        private double[] adelante, atras;
+        /* La arista con la que se llegó a cada vértice en cada búsqueda. */
+        private int[] aristasAdelante, aristasAtras;
+        /* Los montículos de cada búsqueda. */
+        private MonticuloIndexado monticuloAdelante, monticuloAtras;
+        /* Los vértices cuya distancia cambió. */
+        private int[] tocados;
+        /* El número de vértices tocados. */
+        private int elementos;
+
+        /* Construye un espacio para la jerarquía. */
+        Consulta() {
+            int n = JerarquiaContracciones.this.n;
+            adelante = new double[n];
+            atras = new double[n];
+            Arrays.fill(adelante, Double.POSITIVE_INFINITY);
+            Arrays.fill(atras, Double.POSITIVE_INFINITY);
+            aristasAdelante = new int[n];
+            aristasAtras = new int[n];
+            monticuloAdelante = new MonticuloIndexado(n);
+            monticuloAtras = new MonticuloIndexado(n);
+            tocados = new int[16];
+        }
+
+        /* Marca un vértice como tocado si es la primera vez. */
+        void toca(int v) {
+            if (adelante[v] == Double.POSITIVE_INFINITY &&
+                atras[v] == Double.POSITIVE_INFINITY) {
+                if (elementos == tocados.length)
+                    tocados = Arrays.copyOf(tocados, elementos * 2);
+                tocados[elementos++] = v;
+            }
+        }
+
+        /* Regresa el espacio a su estado inicial. */
+        void limpia() {
+            for (int i = 0; i < elementos; i++) {
+                adelante[tocados[i]] = Double.POSITIVE_INFINITY;
+                atras[tocados[i]] = Double.POSITIVE_INFINITY;
+            }
+            elementos = 0;
+            monticuloAdelante.limpia();
+            monticuloAtras.limpia();
+        }
+    }
+
+    /* El número de vértices. */
+    private int n;
+    /* Las aristas hacia vértices más importantes, por vértice de origen. */
+    private int[] subidaInicios, subidaFuentes, subidaDestinos, subidaMedios;
+    private double[] subidaPesos;
+    /* Las aristas desde vértices más importantes, por vértice de destino. */
+    private int[] bajadaInicios, bajadaDuenos, bajadaOrigenes, bajadaMedios;
+    private double[] bajadaPesos;
+    /* El número de atajos. */
+    private int atajos;
+    /* Espacios libres para las consultas. */
+    private Queue<Consulta> consultas;
+    /* Regresa el índice de un elemento de la gráfica. */
+    private ToIntFunction<T> indices;
+    /* Regresa el elemento de un índice de la gráfica. */
+    private IntFunction<T> elementos;
+
+    /* Construye la jerarquía de la gráfica cuyas aristas salen del vértice u
+     * en las posiciones inicios[u] a inicios[u+1]-1 de destinos y pesos. */
+    JerarquiaContracciones(int[] inicios, int[] destinos, double[] pesos,
+                           ForkJoinPool pool, ToIntFunction<T> indices,
+                           IntFunction<T> elementos) {
+        this.indices = indices;
+        this.elementos = elementos;
+        consultas = new ConcurrentLinkedQueue<>();
+        int n = this.n = inicios.length - 1;
+
+        Aristas[] salidas = new Aristas[n];
+        Aristas[] entradas = new Aristas[n];
+        for (int v = 0; v < n; v++) {
+            salidas[v] = new Aristas();
+            entradas[v] = new Aristas();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                salidas[u].agrega(destinos[j], pesos[j], -1);
+                entradas[destinos[j]].agrega(u, pesos[j], -1);
+            }
+        }
+
+        Aristas[] subida = new Aristas[n];
+        Aristas[] bajada = new Aristas[n];
+        int[] prioridades = new int[n];
+        //El nivel de cada vértice en la jerarquía y las aristas que ha perdido.
+        int[] niveles = new int[n];
+        int[] borrados = new int[n];
+        boolean[] sucios = new boolean[n];
+        Arrays.fill(sucios, true);
+        //La ronda en que cada vértice se contrae, o 0 si no se ha contraído.
+        int[] lotes = new int[n];
+        int[] pendientes = new int[n];
+        for (int v = 0; v < n; v++)
+            pendientes[v] = v;
+        int restantes = n, ronda = 0;
+        Queue<Testigo> testigos = new ConcurrentLinkedQueue<>();
+
+        while (restantes > 0) {
+            ronda++;
+            int r = restantes, lote = ronda;
+            int[] p = pendientes;
+
+            //Calculamos la prioridad de los vértices cuyos vecinos cambiaron.
+            paralelo(pool, r, testigos, n, (i, testigo) -> {
+                    int v = p[i];
+                    if (!sucios[v])
+                        return;
+                    int[] cuenta = { 0 };
+                    atajos(v, salidas, entradas, lotes, lote, LIMITE_PRIORIDAD,
+                           testigo, (u, w, peso) -> cuenta[0]++);
+                    prioridades[v] = 2 * (cuenta[0] - salidas[v].elementos -
+                                          entradas[v].elementos) +
+                        borrados[v] + niveles[v];
+                    sucios[v] = false;
+                });
+
+            //Elegimos los vértices menos importantes que todos sus vecinos.
+            boolean[] elegidos = new boolean[r];
+            paralelo(pool, r, testigos, n, (i, testigo) -> {
+                    int v = p[i];
+                    elegidos[i] = menor(v, salidas[v], prioridades) &&
+                        menor(v, entradas[v], prioridades);
+                });
+            int k = 0;
+            for (int i = 0; i < r; i++)
+                if (elegidos[i])
+                    k++;
+            int[] contraer = new int[k];
+            for (int i = 0, j = 0; i < r; i++)
+                if (elegidos[i])
+                    lotes[contraer[j++] = p[i]] = lote;
+
+            //Calculamos en paralelo los atajos de cada vértice elegido.
+            Atajos[] nuevos = new Atajos[k];
+            paralelo(pool, k, testigos, n, (i, testigo) -> {
+                    Atajos a = new Atajos();
+                    atajos(contraer[i], salidas, entradas, lotes, lote,
+                           LIMITE_CONTRACCION, testigo, a::agrega);
+                    nuevos[i] = a;
+                });
+
+            //Contraemos los vértices elegidos y agregamos sus atajos.
+            for (int i = 0; i < k; i++) {
+                int v = contraer[i];
+                subida[v] = salidas[v];
+                bajada[v] = entradas[v];
+                for (int x = 0; x < salidas[v].elementos; x++) {
+                    int w = salidas[v].vertices[x];
+                    entradas[w].elimina(v);
+                    niveles[w] = Math.max(niveles[w], niveles[v] + 1);
+                    borrados[w]++;
+                    sucios[w] = true;
+                }
+                for (int x = 0; x < entradas[v].elementos; x++) {
+                    int u = entradas[v].vertices[x];
+                    salidas[u].elimina(v);
+                    niveles[u] = Math.max(niveles[u], niveles[v] + 1);
+                    borrados[u]++;
+                    sucios[u] = true;
+                }
+                Atajos a = nuevos[i];
+                for (int x = 0; x < a.elementos; x++) {
+                    int u = a.origenes[x], w = a.destinos[x];
+                    if (salidas[u].busca(w) == -1)
+                        atajos++;
+                    salidas[u].agrega(w, a.pesos[x], v);
+                    entradas[w].agrega(u, a.pesos[x], v);
+                }
+                salidas[v] = null;
+                entradas[v] = null;
+            }
+
+            //Quitamos de los pendientes a los contraídos.
+            int[] siguientes = new int[r - k];
+            for (int i = 0, j = 0; i < r; i++)
+                if (!elegidos[i])
+                    siguientes[j++] = p[i];
+            pendientes = siguientes;
+            restantes = r - k;
+        }
+
+        //Guardamos las gráficas de subida y bajada.
+        subidaInicios = new int[n + 1];
+        bajadaInicios = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            subidaInicios[v + 1] = subidaInicios[v] + subida[v].elementos;
+            bajadaInicios[v + 1] = bajadaInicios[v] + bajada[v].elementos;
+        }
+        subidaFuentes = new int[subidaInicios[n]];
+        subidaDestinos = new int[subidaInicios[n]];
+        subidaMedios = new int[subidaInicios[n]];
+        subidaPesos = new double[subidaInicios[n]];
+        bajadaDuenos = new int[bajadaInicios[n]];
+        bajadaOrigenes = new int[bajadaInicios[n]];
+        bajadaMedios = new int[bajadaInicios[n]];
+        bajadaPesos = new double[bajadaInicios[n]];
+        for (int v = 0; v < n; v++) {
+            Aristas a = subida[v];
+            for (int x = 0, j = subidaInicios[v]; x < a.elementos; x++, j++) {
+                subidaFuentes[j] = v;
+                subidaDestinos[j] = a.vertices[x];
+                subidaPesos[j] = a.pesos[x];
+                subidaMedios[j] = a.medios[x];
+            }
+            a = bajada[v];
+            for (int x = 0, j = bajadaInicios[v]; x < a.elementos; x++, j++) {
+                bajadaDuenos[j] = v;
+                bajadaOrigenes[j] = a.vertices[x];
+                bajadaPesos[j] = a.pesos[x];
+                bajadaMedios[j] = a.medios[x];
+            }
+        }
+    }
+
+    /* Interfaz para recibir los atajos de una contracción. */
+    @FunctionalInterface
+    private interface ReceptorAtajos {
+        /* Recibe el atajo de u a w con el peso dado. */
+        void recibe(int u, int w, double peso);
+    }
+
+    /* Interfaz para tareas que usan un espacio de búsqueda de testigos. */
+    @FunctionalInterface
+    private interface TareaTestigo {
+        /* Hace la tarea i con el espacio recibido. */
+        void haz(int i, Testigo testigo);
+    }
+
+    /* Calcula los atajos que necesita la contracción de v: para cada vecino
+     * de entrada u y de salida w, el atajo de u a w es necesario si no hay
+     * otra trayectoria igual de ligera que evite a v y a los vértices del
+     * lote. */
+    private static void atajos(int v, Aristas[] salidas, Aristas[] entradas,
+                               int[] lotes, int lote, int asentados,
+                               Testigo testigo, ReceptorAtajos receptor) {
+        Aristas salida = salidas[v], entrada = entradas[v];
+        double maximo = 0;
+        for (int x = 0; x < salida.elementos; x++)
+            maximo = Math.max(maximo, salida.pesos[x]);
+        for (int y = 0; y < entrada.elementos; y++) {
+            int u = entrada.vertices[y];
+            testigo.marca++;
+            int faltan = 0;
+            for (int x = 0; x < salida.elementos; x++) {
+                if (salida.vertices[x] != u) {
+                    testigo.objetivos[salida.vertices[x]] = testigo.marca;
+                    faltan++;
+                }
+            }
+            double limite = entrada.pesos[y] + maximo;
+            testigos(u, v, limite, faltan, asentados, salidas, lotes, lote, testigo);
+            for (int x = 0; x < salida.elementos; x++) {
+                int w = salida.vertices[x];
+                double peso = entrada.pesos[y] + salida.pesos[x];
+                if (w != u && testigo.distancias[w] > peso)
+                    receptor.recibe(u, w, peso);
+            }
+            testigo.limpia();
+        }
+    }
+
+    /* Busca desde u, sin pasar por v ni por el lote, trayectorias de peso a
+     * lo más el límite a los vértices marcados, asentando a lo más el número
+     * de vértices dado. */
+    private static void testigos(int u, int v, double limite, int faltan, int maximo,
+                                 Aristas[] salidas, int[] lotes, int lote,
+                                 Testigo testigo) {
+        MonticuloIndexado monticulo = testigo.monticulo;
+        testigo.distancia(u, 0);
+        monticulo.agrega(u, 0);
+        int asentados = 0;
+        while (!monticulo.esVacia() && asentados++ < maximo) {
+            if (monticulo.claveMinima() > limite)
+                break;
+            int x = monticulo.elimina();
+            if (testigo.objetivos[x] == testigo.marca && --faltan == 0)
+                break;
+            Aristas a = salidas[x];
+            for (int i = 0; i < a.elementos; i++) {
+                int w = a.vertices[i];
+                if (w == v || lotes[w] == lote)
+                    continue;
+                double d = testigo.distancias[x] + a.pesos[i];
+                if (d <= limite && d < testigo.distancias[w]) {
+                    testigo.distancia(w, d);
+                    monticulo.actualiza(w, d);
+                }
+            }
+        }
+    }
+
+    /* Nos dice si v es menos importante que todos los vecinos de la lista. */
+    private static boolean menor(int v, Aristas a, int[] prioridades) {
+        for (int i = 0; i < a.elementos; i++) {
+            int w = a.vertices[i];
+            if (prioridades[w] < prioridades[v] ||
+                (prioridades[w] == prioridades[v] && w < v))
+                return false;
+        }
+        return true;
+    }
+
+    /* Hace las tareas de 0 a k-1 en el pool, en pedazos que comparten un
+     * espacio de búsqueda. */
+    private static void paralelo(ForkJoinPool pool, int k, Queue<Testigo> testigos,
+                                 int n, TareaTestigo tarea) {
+        int pedazos = Math.max(1, Math.min(k, pool.getParallelism() * 8));
+        IntConsumer pedazo = c -> {
+            Testigo testigo = testigos.poll();
+            if (testigo == null)
+                testigo = new Testigo(n);
+            for (int i = (int)((long)k * c / pedazos); i < (long)k * (c + 1) / pedazos; i++)
+                tarea.haz(i, testigo);
+            testigos.offer(testigo);
+        };
+        pool.submit(() -> IntStream.range(0, pedazos).parallel().forEach(pedazo)).join();
+    }
+
+    /**
+     * Regresa el número de atajos que agregó el preprocesamiento.
+     * @return el número de atajos.
+     */
+    public int getAtajos() {
+        return atajos;
+    }
+
+    /**
+     * Regresa el peso de una trayectoria mínima del origen al destino.
+     * @param origen el elemento origen.
+     * @param destino el elemento destino.
+     * @return el peso de una trayectoria mínima, o infinito si el destino no
+     *         se alcanza.
+     * @throws java.util.NoSuchElementException si alguno de los elementos no
+     *         está en la gráfica.
+     */
+    public double distancia(T origen, T destino) {
+        int s = indices.applyAsInt(origen), t = indices.applyAsInt(destino);
+        Consulta consulta = tomaConsulta();
+        try {
+            int encuentro = busca(s, t, consulta);
+            return encuentro == -1 ? Double.POSITIVE_INFINITY :
+                consulta.adelante[encuentro] + consulta.atras[encuentro];
+        } finally {
+            consulta.limpia();
+            consultas.offer(consulta);
+        }
+    }
+
+    /**
+     * Regresa una trayectoria mínima del origen al destino en la gráfica
+     * original, desempacando los atajos.
+     * @param origen el elemento origen.
+     * @param destino el elemento destino.
+     * @return una lista con los elementos de una trayectoria mínima; si el
+     *         destino no se alcanza, una lista vacía.
+     * @throws java.util.NoSuchElementException si alguno de los elementos no
+     *         está en la gráfica.
+     */
+    public List<T> trayectoria(T origen, T destino) {
+        int s = indices.applyAsInt(origen), t = indices.applyAsInt(destino);
+        Consulta consulta = tomaConsulta();
+        try {
+            List<T> trayectoria = new ArrayList<>();
+            int encuentro = busca(s, t, consulta);
+            if (encuentro == -1)
+                return trayectoria;
+
+            //Las aristas de la jerarquía del origen al encuentro, y del
+            //encuentro al destino.
+            List<int[]> aristas = new ArrayList<>();
+            for (int v = encuentro; v != s; ) {
+                int j = consulta.aristasAdelante[v];
+                aristas.add(new int[] { subidaFuentes[j], v, subidaMedios[j] });
+                v = subidaFuentes[j];
+            }
+            Collections.reverse(aristas);
+            for (int v = encuentro; v != t; ) {
+                int j = consulta.aristasAtras[v];
+                aristas.add(new int[] { v, bajadaDuenos[j], bajadaMedios[j] });
+                v = bajadaDuenos[j];
+            }
+
+            trayectoria.add(elementos.apply(s));
+            for (int[] arista : aristas)
+                desempaca(arista[0], arista[1], arista[2], trayectoria);
+            return trayectoria;
+        } finally {
+            consulta.limpia();
+            consultas.offer(consulta);
+        }
+    }
+
+    /* Hace la búsqueda bidireccional de s a t y regresa el vértice donde se
+     * encuentran las búsquedas en una trayectoria mínima, o -1. */
+    private int busca(int s, int t, Consulta c) {
+        double[] adelante = c.adelante, atras = c.atras;
+        c.toca(s);
+        adelante[s] = 0;
+        c.monticuloAdelante.agrega(s, 0);
+        c.toca(t);
+        atras[t] = 0;
+        c.monticuloAtras.agrega(t, 0);
+        double mejor = Double.POSITIVE_INFINITY;
+        int encuentro = -1;
+
+        while (true) {
+            //Avanzamos la búsqueda con la menor clave que todavía pueda
+            //mejorar la distancia.
+            boolean haciaAdelante = !c.monticuloAdelante.esVacia() &&
+                c.monticuloAdelante.claveMinima() < mejor;
+            boolean haciaAtras = !c.monticuloAtras.esVacia() &&
+                c.monticuloAtras.claveMinima() < mejor;
+            if (!haciaAdelante && !haciaAtras)
+                break;
+            if (haciaAdelante && haciaAtras)
+                haciaAdelante = c.monticuloAdelante.claveMinima() <=
+                    c.monticuloAtras.claveMinima();
+
+            if (haciaAdelante) {
+                int u = c.monticuloAdelante.elimina();
+                if (adelante[u] + atras[u] < mejor) {
+                    mejor = adelante[u] + atras[u];
+                    encuentro = u;
+                }
+                //Si un vértice más importante llega más barato, u no está
+                //en una trayectoria mínima que suba.
+                if (detenido(u, adelante, bajadaInicios, bajadaOrigenes, bajadaPesos))
+                    continue;
+                for (int j = subidaInicios[u]; j < subidaInicios[u + 1]; j++) {
+                    int w = subidaDestinos[j];
+                    double d = adelante[u] + subidaPesos[j];
+                    if (d < adelante[w]) {
+                        c.toca(w);
+                        adelante[w] = d;
+                        c.aristasAdelante[w] = j;
+                        c.monticuloAdelante.actualiza(w, d);
+                    }
+                }
+            } else {
+                int u = c.monticuloAtras.elimina();
+                if (adelante[u] + atras[u] < mejor) {
+                    mejor = adelante[u] + atras[u];
+                    encuentro = u;
+                }
+                if (detenido(u, atras, subidaInicios, subidaDestinos, subidaPesos))
+                    continue;
+                for (int j = bajadaInicios[u]; j < bajadaInicios[u + 1]; j++) {
+                    int w = bajadaOrigenes[j];
+                    double d = atras[u] + bajadaPesos[j];
+                    if (d < atras[w]) {
+                        c.toca(w);
+                        atras[w] = d;
+                        c.aristasAtras[w] = j;
+                        c.monticuloAtras.actualiza(w, d);
+                    }
+                }
+            }
+        }
+        return encuentro;
+    }
+
+    /* Nos dice si algún vértice más importante que u, unido a u por las
+     * aristas recibidas, le da a u una distancia menor. */
+    private static boolean detenido(int u, double[] distancias, int[] inicios,
+                                    int[] vertices, double[] pesos) {
+        for (int j = inicios[u]; j < inicios[u + 1]; j++)
+            if (distancias[vertices[j]] + pesos[j] < distancias[u])
+                return true;
+        return false;
+    }
+
+    /* Agrega a la trayectoria los elementos de la arista de a a b sin el
+     * primero, desempacando los atajos sin recursión. */
+    private void desempaca(int a, int b, int medio, List<T> trayectoria) {
+        int[] pila = new int[48];
+        int cima = 0;
+        pila[cima++] = a;
+        pila[cima++] = b;
+        pila[cima++] = medio;
+        while (cima > 0) {
+            int m = pila[--cima], y = pila[--cima], x = pila[--cima];
+            if (m == -1) {
+                trayectoria.add(elementos.apply(y));
+                continue;
+            }
+            if (cima + 6 > pila.length)
+                pila = Arrays.copyOf(pila, pila.length * 2);
+            //Primero se desempaca x-m y después m-y.
+            pila[cima++] = m;
+            pila[cima++] = y;
+            pila[cima++] = medioSubida(m, y);
+            pila[cima++] = x;
+            pila[cima++] = m;
+            pila[cima++] = medioBajada(m, x);
+        }
+    }
+
+    /* Regresa el medio de la arista de m a y, que está en la subida de m. */
+    private int medioSubida(int m, int y) {
+        for (int j = subidaInicios[m]; j < subidaInicios[m + 1]; j++)
+            if (subidaDestinos[j] == y)
+                return subidaMedios[j];
+        throw new IllegalStateException("Atajo inconsistente.");
+    }
+
+    /* Regresa el medio de la arista de x a m, que está en la bajada de m. */
+    private int medioBajada(int m, int x) {
+        for (int j = bajadaInicios[m]; j < bajadaInicios[m + 1]; j++)
+            if (bajadaOrigenes[j] == x)
+                return bajadaMedios[j];
+        throw new IllegalStateException("Atajo inconsistente.");
+    }
+
+    /* Toma un espacio libre para una consulta, o crea uno nuevo si no hay. */
+    private Consulta tomaConsulta() {
+        Consulta consulta = consultas.poll();
+        return consulta != null ? consulta : new Consulta();
+    }
+}
@@ -1,5 +1,6 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 /**
@@ -39,6 +40,17 @@ public class MonticuloArreglo<T extends Comparable<T>>
     public MonticuloArreglo(Iterable<T> iterable, int n) {
         // Aquí va su código.
         arreglo = nuevoArreglo(n);
+        llena(iterable, n);
+    }
+
+    /* Vacía el montículo y lo vuelve a llenar con los n elementos del
+     * iterable, reutilizando el arreglo si le caben. */
+    void llena(Iterable<T> iterable, int n) {
+        if (arreglo.length < n) {
+            arreglo = nuevoArreglo(n);
+        } else {
+            Arrays.fill(arreglo, 0, elementos, null);
+        }
         elementos = 0;
 
         for(T e: iterable){
@@ -61,25 +73,52 @@ public class MonticuloArreglo<T extends Comparable<T>>
         }
 
         // Encontrar el mínimo
-        T minimo = null;
+        T minimo = arreglo[0];
         int indiceMinimo = 0;
-        //Recorremos el arreglo.
-        for (int i = 0; i < arreglo.length; i++) {
-            //Verificamos que no sea posición nula y que minimo sea null o que la posición sea menor al mínimo.
-            if (arreglo[i] != null && (minimo == null || arreglo[i].compareTo(minimo) < 0)) {
+        //Recorremos los elementos, que están al principio del arreglo.
+        for (int i = 1; i < elementos; i++) {
+            if (arreglo[i].compareTo(minimo) < 0) {
                 //Asignamos el nuevo mínimo y su índice.
                 minimo = arreglo[i];
                 indiceMinimo = i;
             }
         }
 
-        //Eliminamos el mínimo.
-        arreglo[indiceMinimo] = null;
+        //Eliminamos el mínimo, y el último ocupa su lugar.
         elementos--;
+        arreglo[indiceMinimo] = arreglo[elementos];
+        arreglo[elementos] = null;
 
         return minimo;
     }
 
+    /**
+     * Agrega un elemento al montículo.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void agrega(T elemento) {
+        if (elementos == arreglo.length) {
+            arreglo = Arrays.copyOf(arreglo, Math.max(1, elementos * 2));
+        }
+        arreglo[elementos++] = elemento;
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo. Toma tiempo
+     * <i>O</i>(<i>n</i>).
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        for (int i = 0; i < elementos; i++) {
+            if (arreglo[i].equals(elemento)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Regresa el <i>i</i>-ésimo elemento del arreglo.
      * @param i el índice del elemento que queremos.
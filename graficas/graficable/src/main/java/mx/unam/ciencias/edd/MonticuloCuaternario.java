@@ -0,0 +1,194 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos mínimos cuaternarios.</p>
+ *
+ * <p>Cada nodo tiene hasta cuatro hijos, así que el árbol tiene la mitad de
+ * altura que uno binario: agregar y reordenar hacen la mitad de
+ * comparaciones, y eliminar hace un poco más, pero sobre hijos contiguos en
+ * memoria. Cada elemento guarda su posición en el arreglo con {@link
+ * ConIndice}, por lo que el montículo no usa diccionarios, no crea objetos
+ * después de construirse (salvo al crecer) y no usa recursión.</p>
+ */
+public class MonticuloCuaternario<T extends Comparable<T> & ConIndice>
+    implements MonticuloDijkstra<T> {
+
+    /* El número de hijos de cada nodo. */
+    private static final int HIJOS = 4;
+
+    /* El número de elementos en el arreglo. */
+    private int elementos;
+    /* Usamos un truco para poder utilizar arreglos genéricos. */
+    private T[] arbol;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /**
+     * Construye un montículo cuaternario vacío.
+     */
+    public MonticuloCuaternario() {
+        arbol = nuevoArreglo(100);
+    }
+
+    /**
+     * Construye un montículo cuaternario a partir de un iterable, en tiempo
+     * <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloCuaternario(Iterable<T> iterable, int n) {
+        arbol = nuevoArreglo(Math.max(n, 1));
+        for (T e : iterable) {
+            if (elementos == arbol.length)
+                arbol = Arrays.copyOf(arbol, elementos * 2);
+            arbol[elementos] = e;
+            e.setIndice(elementos++);
+        }
+        //El último padre es el del último elemento.
+        for (int i = elementos > 1 ? (elementos - 2) / HIJOS : -1; i >= 0; i--)
+            acomodaAbajo(i);
+    }
+
+    /**
+     * Agrega un elemento al montículo.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void agrega(T elemento) {
+        if (elementos == arbol.length)
+            arbol = Arrays.copyOf(arbol, elementos * 2);
+        arbol[elementos] = elemento;
+        elemento.setIndice(elementos);
+        acomodaArriba(elementos++);
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío.");
+        T minimo = arbol[0];
+        elementos--;
+        if (elementos > 0) {
+            arbol[0] = arbol[elementos];
+            arbol[0].setIndice(0);
+            acomodaAbajo(0);
+        }
+        arbol[elementos] = null;
+        minimo.setIndice(-1);
+        return minimo;
+    }
+
+    /**
+     * Reordena un elemento en el montículo, cuya clave cambió. Si el elemento
+     * no está en el montículo, no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        if (!contiene(elemento))
+            return;
+        acomodaArriba(elemento.getIndice());
+        acomodaAbajo(elemento.getIndice());
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int i = elemento.getIndice();
+        return i >= 0 && i < elementos && arbol[i] == elemento;
+    }
+
+    /* Sube el elemento en la posición i mientras sea menor que su padre;
+     * los padres bajan al hueco sin intercambios. */
+    private void acomodaArriba(int i) {
+        T elemento = arbol[i];
+        while (i > 0) {
+            int p = (i - 1) / HIJOS;
+            if (arbol[p].compareTo(elemento) <= 0)
+                break;
+            arbol[i] = arbol[p];
+            arbol[i].setIndice(i);
+            i = p;
+        }
+        arbol[i] = elemento;
+        elemento.setIndice(i);
+    }
+
+    /* Baja el elemento en la posición i mientras sea mayor que su menor
+     * hijo. */
+    private void acomodaAbajo(int i) {
+        T elemento = arbol[i];
+        while (true) {
+            int h = HIJOS * i + 1;
+            if (h >= elementos)
+                break;
+            int menor = h;
+            int fin = Math.min(h + HIJOS, elementos);
+            for (int k = h + 1; k < fin; k++)
+                if (arbol[k].compareTo(arbol[menor]) < 0)
+                    menor = k;
+            if (arbol[menor].compareTo(elemento) >= 0)
+                break;
+            arbol[i] = arbol[menor];
+            arbol[i].setIndice(i);
+            i = menor;
+        }
+        arbol[i] = elemento;
+        elemento.setIndice(i);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido.");
+        return arbol[i];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        for (int i = 0; i < elementos; i++) {
+            arbol[i].setIndice(-1);
+            arbol[i] = null;
+        }
+        elementos = 0;
+    }
+}
@@ -0,0 +1,240 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Clase para montículos de Dijkstra con las cubetas de Dial.</p>
+ *
+ * <p>Sirve cuando las claves son enteras y las aristas pesan a lo más un
+ * máximo <i>C</i>. Como en el algoritmo de Dijkstra todas las claves finitas
+ * están entre la del último mínimo y ésa más <i>C</i>, basta un arreglo
+ * circular de <i>C</i>+1 cubetas, una por clave; el mínimo se encuentra
+ * avanzando sobre él. Eliminar el mínimo toma tiempo <i>O</i>(<i>C</i>) en el
+ * peor caso, y reordenar un elemento tiempo constante. Los elementos con clave
+ * infinita esperan en una cubeta aparte.</p>
+ *
+ * <p>Cada elemento tiene un índice entre 0 y <i>n</i>-1, que el montículo
+ * usa para guardar su cubeta en arreglos.</p>
+ */
+public class MonticuloDial<T extends Comparable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /**
+     * El mayor peso de arista con el que las gráficas usan este montículo en
+     * el algoritmo de Dijkstra.
+     */
+    public static final int PESO_MAXIMO = 64;
+
+    /* Los elementos, por índice. */
+    private T[] arreglo;
+    /* Las cubetas; la última es la de las claves infinitas. */
+    private Cubetas cubetas;
+    /* El número de cubetas circulares. */
+    private int circulares;
+    /* La clave del último elemento eliminado. */
+    private long ultimo;
+    /* El número de elementos en el montículo, y cuántos tienen clave finita. */
+    private int elementos;
+    private int finitos;
+    /* Regresa el índice de un elemento. */
+    private ToIntFunction<T> indices;
+    /* Regresa la clave de un elemento. */
+    private ToDoubleFunction<T> claves;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /**
+     * Construye un montículo de Dial a partir de un iterable. Las claves
+     * finitas de los elementos deben estar entre la menor de ellas y ésa más
+     * el máximo.
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de índices posibles de los elementos.
+     * @param indices regresa el índice, entre 0 y n-1, de cada elemento.
+     * @param claves regresa la clave de cada elemento.
+     * @param maximo el mayor peso de arista.
+     * @throws IllegalArgumentException si el máximo no es positivo, o si
+     *         alguna clave no es un entero no negativo, infinito, o está fuera
+     *         del rango.
+     */
+    public MonticuloDial(Iterable<T> iterable, int n, ToIntFunction<T> indices,
+                         ToDoubleFunction<T> claves, int maximo) {
+        if (maximo <= 0 || maximo == Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Máximo inválido: " + maximo);
+        this.indices = indices;
+        this.claves = claves;
+        circulares = maximo + 1;
+        arreglo = nuevoArreglo(n);
+        cubetas = new Cubetas(n, circulares + 1);
+        llena(iterable, n);
+    }
+
+    /* Vacía el montículo y lo vuelve a llenar con los elementos del
+     * iterable, cuyos índices están entre 0 y n-1; reutiliza sus arreglos si
+     * les caben. */
+    void llena(Iterable<T> iterable, int n) {
+        cubetas.limpia(n);
+        if (arreglo.length < n)
+            arreglo = nuevoArreglo(n);
+        elementos = finitos = 0;
+        ultimo = Long.MAX_VALUE;
+        for (T e : iterable) {
+            double clave = claves.applyAsDouble(e);
+            if (clave != Double.POSITIVE_INFINITY)
+                ultimo = Math.min(ultimo, llave(clave));
+        }
+        for (T e : iterable) {
+            int i = indices.applyAsInt(e);
+            arreglo[i] = e;
+            acomoda(i, claves.applyAsDouble(e));
+            elementos++;
+        }
+    }
+
+    /* Regresa una clave entera no negativa como entero. */
+    private static long llave(double clave) {
+        if (!(clave >= 0) || clave != Math.rint(clave) || clave >= 0x1p62)
+            throw new IllegalArgumentException("Clave inválida: " + clave);
+        return (long)clave;
+    }
+
+    /* Pone el índice, que no está en ninguna cubeta, en la cubeta de la
+     * clave. */
+    private void acomoda(int i, double clave) {
+        int c = cubeta(clave);
+        cubetas.agrega(i, c);
+        if (c != circulares)
+            finitos++;
+    }
+
+    /* Regresa la cubeta de una clave, revisando que esté en el rango. */
+    private int cubeta(double clave) {
+        if (clave == Double.POSITIVE_INFINITY)
+            return circulares;
+        long llave = llave(clave);
+        //Si nunca ha habido claves finitas, el rango empieza en ésta.
+        if (ultimo == Long.MAX_VALUE)
+            ultimo = llave;
+        if (llave < ultimo || llave - ultimo >= circulares)
+            throw new IllegalArgumentException("Clave fuera del rango: " + clave);
+        return (int)(llave % circulares);
+    }
+
+    /**
+     * Agrega un elemento, que no está en el montículo, al montículo. Su clave
+     * debe estar entre la del último elemento eliminado y ésa más el máximo.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si la clave no es un entero no
+     *         negativo, infinito, o está fuera del rango.
+     */
+    @Override public void agrega(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        acomoda(i, claves.applyAsDouble(elemento));
+        arreglo[i] = elemento;
+        elementos++;
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        return cubetas.cubeta(i) != -1 && arreglo[i] == elemento;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío.");
+        int i;
+        if (finitos > 0) {
+            //Avanzamos hasta la siguiente clave con elementos.
+            int c = (int)(ultimo % circulares);
+            while (cubetas.primero(c) == -1) {
+                ultimo++;
+                if (++c == circulares)
+                    c = 0;
+            }
+            i = cubetas.primero(c);
+            finitos--;
+        } else {
+            i = cubetas.primero(circulares);
+        }
+        cubetas.elimina(i);
+        elementos--;
+        return arreglo[i];
+    }
+
+    /**
+     * Reordena un elemento en el montículo, cuya clave cambió. La nueva clave
+     * debe estar entre la del último elemento eliminado y ésa más el máximo.
+     * Si el elemento no está en el montículo, no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     * @throws IllegalArgumentException si la nueva clave no es un entero no
+     *         negativo, infinito, o está fuera del rango.
+     */
+    @Override public void reordena(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        int c = cubetas.cubeta(i);
+        if (c == -1)
+            return;
+        //Revisamos la clave antes de sacar al elemento de su cubeta.
+        int nueva = cubeta(claves.applyAsDouble(elemento));
+        if (c != circulares)
+            finitos--;
+        if (nueva != circulares)
+            finitos++;
+        cubetas.mueve(i, nueva);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del montículo, recorriendo las
+     * cubetas en orden. Toma tiempo <i>O</i>(<i>i</i> + <i>C</i>).
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del montículo.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido.");
+        int inicio = finitos > 0 ? (int)(ultimo % circulares) : 0;
+        for (int k = 0; k <= circulares; k++) {
+            int c = k < circulares ? (inicio + k) % circulares : circulares;
+            for (int j = cubetas.primero(c); j != -1; j = cubetas.siguiente(j))
+                if (i-- == 0)
+                    return arreglo[j];
+        }
+        throw new NoSuchElementException("Índice inválido.");
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
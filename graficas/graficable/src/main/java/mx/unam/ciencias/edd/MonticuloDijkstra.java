@@ -7,6 +7,20 @@ import java.util.NoSuchElementException;
  */
 public interface MonticuloDijkstra<T extends Comparable<T>> {
 
+    /**
+     * Agrega un elemento al montículo.
+     * @param elemento el elemento a agregar.
+     */
+    public void agrega(T elemento);
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento);
+
     /**
      * Elimina el elemento mínimo del montículo.
      * @return el elemento mínimo del montículo.
@@ -0,0 +1,248 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos de emparejamiento (<i>pairing heaps</i>).</p>
+ *
+ * <p>El montículo es un árbol general en el que cada nodo es menor o igual
+ * que sus hijos. Agregar un elemento lo une con la raíz, y disminuir la clave
+ * de un elemento lo corta de su padre y une el subárbol con la raíz; las dos
+ * operaciones toman tiempo constante. Eliminar el mínimo une a los hijos de
+ * la raíz por parejas de izquierda a derecha, y luego los resultados de
+ * derecha a izquierda, en tiempo <i>O</i>(log <i>n</i>) amortizado.</p>
+ *
+ * <p>Los nodos no son objetos: cada elemento guarda con {@link ConIndice} la
+ * casilla de arreglos donde están su primer hijo, su siguiente hermano y su
+ * nodo anterior (el hermano anterior, o el padre si es el primer hijo). Las
+ * casillas de los elementos eliminados se reutilizan.</p>
+ */
+public class MonticuloEmparejamiento<T extends Comparable<T> & ConIndice>
+    implements MonticuloDijkstra<T> {
+
+    /* Los elementos, por casilla. */
+    private T[] nodos;
+    /* El primer hijo, el siguiente hermano y el nodo anterior de cada
+     * casilla, o -1. */
+    private int[] hijos;
+    private int[] hermanos;
+    private int[] anteriores;
+    /* Las casillas libres, como pila. */
+    private int[] libres;
+    private int totalLibres;
+    /* El número de casillas que se han usado alguna vez. */
+    private int usadas;
+    /* Pila para unir a los hijos de la raíz al eliminarla. */
+    private int[] pila;
+    /* La casilla de la raíz, o -1. */
+    private int raiz;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /**
+     * Construye un montículo de emparejamiento vacío.
+     */
+    public MonticuloEmparejamiento() {
+        this(100);
+    }
+
+    /* Construye un montículo vacío con la capacidad dada. */
+    private MonticuloEmparejamiento(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        nodos = nuevoArreglo(capacidad);
+        hijos = new int[capacidad];
+        hermanos = new int[capacidad];
+        anteriores = new int[capacidad];
+        libres = new int[capacidad];
+        pila = new int[capacidad];
+        raiz = -1;
+    }
+
+    /**
+     * Construye un montículo de emparejamiento a partir de un iterable, en
+     * tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloEmparejamiento(Iterable<T> iterable, int n) {
+        this(n);
+        for (T e : iterable)
+            agrega(e);
+    }
+
+    /**
+     * Agrega un elemento al montículo.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void agrega(T elemento) {
+        int c;
+        if (totalLibres > 0) {
+            c = libres[--totalLibres];
+        } else {
+            if (usadas == nodos.length)
+                crece();
+            c = usadas++;
+        }
+        nodos[c] = elemento;
+        elemento.setIndice(c);
+        hijos[c] = hermanos[c] = anteriores[c] = -1;
+        raiz = une(raiz, c);
+        elementos++;
+    }
+
+    /* Duplica la capacidad de los arreglos. */
+    private void crece() {
+        int capacidad = nodos.length * 2;
+        nodos = Arrays.copyOf(nodos, capacidad);
+        hijos = Arrays.copyOf(hijos, capacidad);
+        hermanos = Arrays.copyOf(hermanos, capacidad);
+        anteriores = Arrays.copyOf(anteriores, capacidad);
+        libres = Arrays.copyOf(libres, capacidad);
+        pila = new int[capacidad];
+    }
+
+    /* Une dos árboles sueltos y regresa la raíz del resultado: la mayor de
+     * las dos raíces se vuelve el primer hijo de la menor. */
+    private int une(int a, int b) {
+        if (a == -1)
+            return b;
+        if (b == -1)
+            return a;
+        if (nodos[b].compareTo(nodos[a]) < 0) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        hermanos[b] = hijos[a];
+        if (hijos[a] != -1)
+            anteriores[hijos[a]] = b;
+        anteriores[b] = a;
+        hijos[a] = b;
+        return a;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío.");
+        int r = raiz;
+        T minimo = nodos[r];
+
+        //Unimos a los hijos por parejas, de izquierda a derecha.
+        int k = 0;
+        for (int x = hijos[r]; x != -1; ) {
+            int a = x;
+            int b = hermanos[a];
+            x = b == -1 ? -1 : hermanos[b];
+            hermanos[a] = anteriores[a] = -1;
+            if (b != -1)
+                hermanos[b] = anteriores[b] = -1;
+            pila[k++] = une(a, b);
+        }
+        //Y los resultados, de derecha a izquierda.
+        raiz = k == 0 ? -1 : pila[--k];
+        while (k > 0)
+            raiz = une(pila[--k], raiz);
+
+        nodos[r] = null;
+        libres[totalLibres++] = r;
+        minimo.setIndice(-1);
+        elementos--;
+        return minimo;
+    }
+
+    /**
+     * Reordena un elemento en el montículo, cuya clave disminuyó; la clave de
+     * un elemento en este montículo no puede aumentar. Si el elemento no está
+     * en el montículo, no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        if (!contiene(elemento))
+            return;
+        int c = elemento.getIndice();
+        if (c == raiz)
+            return;
+        //Cortamos el subárbol del elemento y lo unimos con la raíz.
+        int p = anteriores[c];
+        if (hijos[p] == c)
+            hijos[p] = hermanos[c];
+        else
+            hermanos[p] = hermanos[c];
+        if (hermanos[c] != -1)
+            anteriores[hermanos[c]] = p;
+        hermanos[c] = anteriores[c] = -1;
+        raiz = une(raiz, c);
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int c = elemento.getIndice();
+        return c >= 0 && c < usadas && nodos[c] == elemento;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del montículo, por casillas. Toma
+     * tiempo proporcional al número de casillas.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del montículo.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido.");
+        for (int c = 0; c < usadas; c++)
+            if (nodos[c] != null && i-- == 0)
+                return nodos[c];
+        throw new NoSuchElementException("Índice inválido.");
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        for (int c = 0; c < usadas; c++) {
+            if (nodos[c] != null) {
+                nodos[c].setIndice(-1);
+                nodos[c] = null;
+            }
+        }
+        usadas = totalLibres = elementos = 0;
+        raiz = -1;
+    }
+}
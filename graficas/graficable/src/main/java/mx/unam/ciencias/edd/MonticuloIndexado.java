@@ -0,0 +1,198 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos mínimos indexados sobre enteros.</p>
+ *
+ * <p>Los elementos del montículo son los enteros entre 0 y <i>n</i>-1, y cada
+ * uno tiene una clave de tipo <code>double</code>. Como las posiciones de los
+ * elementos se guardan en un arreglo, reordenar un elemento no necesita
+ * diccionarios, y el montículo no crea objetos después de construirse.</p>
+ */
+public class MonticuloIndexado {
+
+    /* El número de elementos en el montículo. */
+    private int elementos;
+    /* El árbol del montículo; guarda los índices de los elementos. */
+    private int[] arbol;
+    /* La posición de cada índice en el árbol, o -1 si no está. */
+    private int[] posiciones;
+    /* La clave de cada índice. */
+    private double[] claves;
+
+    /**
+     * Construye un montículo vacío para índices entre 0 y n-1.
+     * @param n el número de índices que puede tener el montículo.
+     */
+    public MonticuloIndexado(int n) {
+        arbol = new int[n];
+        posiciones = new int[n];
+        claves = new double[n];
+        for (int i = 0; i < n; i++)
+            posiciones[i] = -1;
+    }
+
+    /**
+     * Regresa la capacidad del montículo.
+     * @return el número de índices que puede tener el montículo.
+     */
+    public int getCapacidad() {
+        return arbol.length;
+    }
+
+    /**
+     * Agrega un índice al montículo con la clave dada.
+     * @param indice el índice a agregar.
+     * @param clave la clave del índice.
+     * @throws IllegalArgumentException si el índice ya está en el montículo.
+     */
+    public void agrega(int indice, double clave) {
+        if (posiciones[indice] != -1)
+            throw new IllegalArgumentException("El índice ya está en el montículo: " + indice);
+        claves[indice] = clave;
+        arbol[elementos] = indice;
+        posiciones[indice] = elementos;
+        acomodaArriba(elementos++);
+    }
+
+    /**
+     * Disminuye la clave de un índice si la nueva clave es menor; si el índice
+     * no está en el montículo, lo agrega.
+     * @param indice el índice a actualizar.
+     * @param clave la nueva clave.
+     * @return <code>true</code> si el montículo cambió, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean actualiza(int indice, double clave) {
+        int i = posiciones[indice];
+        if (i == -1) {
+            agrega(indice, clave);
+            return true;
+        }
+        if (clave >= claves[indice])
+            return false;
+        claves[indice] = clave;
+        acomodaArriba(i);
+        return true;
+    }
+
+    /**
+     * Elimina el índice con la clave mínima del montículo.
+     * @return el índice con la clave mínima.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío.");
+        int minimo = arbol[0];
+        posiciones[minimo] = -1;
+        if (--elementos > 0) {
+            arbol[0] = arbol[elementos];
+            posiciones[arbol[0]] = 0;
+            acomodaAbajo(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Regresa el índice con la clave mínima, sin eliminarlo.
+     * @return el índice con la clave mínima.
+     * @throws NoSuchElementException si el montículo es vacío.
+     */
+    public int minimo() {
+        if (elementos == 0)
+            throw new NoSuchElementException("Montículo vacío.");
+        return arbol[0];
+    }
+
+    /**
+     * Regresa la clave mínima del montículo.
+     * @return la clave mínima del montículo, o infinito si es vacío.
+     */
+    public double claveMinima() {
+        return elementos == 0 ? Double.POSITIVE_INFINITY : claves[arbol[0]];
+    }
+
+    /**
+     * Regresa la clave de un índice.
+     * @param indice el índice.
+     * @return la última clave que se le asignó al índice.
+     */
+    public double clave(int indice) {
+        return claves[indice];
+    }
+
+    /**
+     * Nos dice si un índice está en el montículo.
+     * @param indice el índice.
+     * @return <code>true</code> si el índice está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int indice) {
+        return posiciones[indice] != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si el montículo es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo para poder reutilizarlo. Sólo recorre los elementos
+     * que quedaban en el montículo.
+     */
+    public void limpia() {
+        for (int i = 0; i < elementos; i++)
+            posiciones[arbol[i]] = -1;
+        elementos = 0;
+    }
+
+    /* Sube el elemento en la posición i mientras sea menor que su padre. */
+    private void acomodaArriba(int i) {
+        int indice = arbol[i];
+        double clave = claves[indice];
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (claves[arbol[p]] <= clave)
+                break;
+            arbol[i] = arbol[p];
+            posiciones[arbol[i]] = i;
+            i = p;
+        }
+        arbol[i] = indice;
+        posiciones[indice] = i;
+    }
+
+    /* Baja el elemento en la posición i mientras sea mayor que algún hijo. */
+    private void acomodaAbajo(int i) {
+        int indice = arbol[i];
+        double clave = claves[indice];
+        while (true) {
+            int h = 2 * i + 1;
+            if (h >= elementos)
+                break;
+            if (h + 1 < elementos && claves[arbol[h + 1]] < claves[arbol[h]])
+                h++;
+            if (clave <= claves[arbol[h]])
+                break;
+            arbol[i] = arbol[h];
+            posiciones[arbol[i]] = i;
+            i = h;
+        }
+        arbol[i] = indice;
+        posiciones[indice] = i;
+    }
+}
@@ -0,0 +1,395 @@
+package mx.unam.ciencias.edd;
+
+import java.util.*;
+
+/**
+ * <p>Clase para montículos mínimos (<i>min heaps</i>).</p>
+ *
+ * <p>El montículo guarda la posición de cada elemento en un diccionario. Si
+ * los elementos implementan {@link ConIndice}, en cambio, la guarda en el
+ * elemento mismo: así no se calculan dispersiones ni se crean objetos al
+ * mover elementos, y {@link #reordena} y {@link #contiene} toman tiempo
+ * constante para encontrarlo.</p>
+ */
+public class MonticuloMinimo<T extends Comparable<T>>
+    implements Coleccion<T>, MonticuloDijkstra<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Índice del iterador. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            // Aquí va su código.
+            return indice < elementos;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            // Aquí va su código.
+            if(indice >= elementos){
+                throw new NoSuchElementException("Iteración inválida.");
+            }
+            //Incrementamos el indice y regresamos el elemento.
+            T elem = arbol[indice];//Guardamos el elemento antes de incrementar
+            indice++;//Incrementamos
+            return elem;
+        }
+    }
+
+    /* El número de elementos en el arreglo. */
+    private int elementos;
+    /* Los índices de los elementos que no implementan ConIndice; se crea
+     * con el primero de ellos. */
+    private Map<T, Integer> indices;
+    /* Usamos un truco para poder utilizar arreglos genéricos. */
+    private T[] arbol;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /**
+     * Constructor sin parámetros. Es más eficiente usar {@link
+     * #MonticuloMinimo(Coleccion)} o {@link #MonticuloMinimo(Iterable,int)},
+     * pero se ofrece este constructor por completez.
+     */
+    public MonticuloMinimo() {
+        // Aquí va su código.
+        arbol = nuevoArreglo(100);
+        elementos = 0;
+    }
+
+    /**
+     * Constructor para montículo mínimo que recibe una colección. Es más barato
+     * construir un montículo con todos sus elementos de antemano (tiempo
+     * <i>O</i>(<i>n</i>)), que el insertándolos uno por uno (tiempo
+     * <i>O</i>(<i>n</i> log <i>n</i>)).
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloMinimo(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo mínimo que recibe un iterable y el número de
+     * elementos en el mismo. Es más barato construir un montículo con todos sus
+     * elementos de antemano (tiempo <i>O</i>(<i>n</i>)), que el insertándolos
+     * uno por uno (tiempo <i>O</i>(<i>n</i> log <i>n</i>)).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloMinimo(Iterable<T> iterable, int n) {
+        // Aquí va su código.
+        arbol = nuevoArreglo(n);
+        elementos = 0;
+        llena(iterable, n);
+    }
+
+    /* Vacía el montículo y lo vuelve a construir con los elementos del
+     * iterable en tiempo O(n), reutilizando el arreglo si le caben. */
+    void llena(Iterable<T> iterable, int n) {
+        limpia();
+        if (arbol.length < n) {
+            arbol = nuevoArreglo(n);
+        }
+        //Recorremos el iterable y vaciamos los elementos en el arreglo.
+        for (T e : iterable) {
+            if (elementos == arbol.length) {
+                ensanchaArreglo();
+            }
+            coloca(e, elementos);
+            elementos++;
+        }
+        //Acomodamos hacia abajo los elementos desde n/2 - 1 hasta 0.
+        for (int i = elementos / 2 - 1; i >= 0; i--) {
+            heapifyDown(i);
+        }
+    }
+
+    /**
+     * Método para realizar un acomodo hacia arriba en el monticulo.
+     * @param i un índice del arreglo.
+     */
+    private void heapifyUp(int i){
+        T elemento = arbol[i];
+        //Los padres mayores bajan al hueco, sin intercambios.
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (arbol[p].compareTo(elemento) <= 0) {
+                break;
+            }
+            coloca(arbol[p], i);
+            i = p;
+        }
+        coloca(elemento, i);
+    }
+
+    /**
+     * Metodo para realizar un acomodo hacia abajo en el monticulo.
+     * @param i un índice del arreglo.
+     */
+    private void heapifyDown(int i){
+        T elemento = arbol[i];
+        while (true) {
+            //Buscamos al menor de los hijos.
+            int menor = 2 * i + 1;
+            if (menor >= elementos) {
+                break;
+            }
+            if (menor + 1 < elementos && arbol[menor + 1].compareTo(arbol[menor]) < 0) {
+                menor++;
+            }
+            //Si no es menor que el elemento, ya acabamos.
+            if (arbol[menor].compareTo(elemento) >= 0) {
+                break;
+            }
+            coloca(arbol[menor], i);
+            i = menor;
+        }
+        coloca(elemento, i);
+    }
+
+    /* Pone al elemento en el índice del arreglo, y se lo hace saber. */
+    private void coloca(T elemento, int i) {
+        arbol[i] = elemento;
+        if (elemento instanceof ConIndice) {
+            ((ConIndice)elemento).setIndice(i);
+        } else {
+            if (indices == null) {
+                indices = new HashMap<>();
+            }
+            indices.put(elemento, i);
+        }
+    }
+
+    /* Regresa el índice del elemento en el arreglo, o -1 si no está. */
+    private int indice(T elemento) {
+        if (elemento instanceof ConIndice) {
+            int i = ((ConIndice)elemento).getIndice();
+            //El índice puede ser de cuando estuvo en otro montículo.
+            return i >= 0 && i < elementos && arbol[i] == elemento ? i : -1;
+        }
+        Integer i = indices == null ? null : indices.get(elemento);
+        return i == null ? -1 : i;
+    }
+
+    /* Le quita su índice al elemento, que ya no está en el arreglo. */
+    private void quita(T elemento) {
+        if (elemento instanceof ConIndice) {
+            ((ConIndice)elemento).setIndice(-1);
+        } else if (indices != null) {
+            indices.remove(elemento);
+        }
+    }
+
+    /**
+     * Agrega un nuevo elemento en el montículo.
+     * @param elemento el elemento a agregar en el montículo.
+     */
+    @Override public void agrega(T elemento) {
+        // Aquí va su código.
+        if (elementos == arbol.length) {
+            ensanchaArreglo();
+        }
+        coloca(elemento, elementos);
+        heapifyUp(elementos);
+        elementos++;
+    }
+
+    /* Método auxiliar para incrementar el tamaño del arreglo. */
+    private void ensanchaArreglo() {
+        T[] nuevoArbol = nuevoArreglo(arbol.length * 2);
+        for (int i = 0; i < elementos; i++) {
+            nuevoArbol[i] = arbol[i];
+        }
+        arbol = nuevoArbol;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        // Aquí va su código.
+        if (elementos == 0) {
+            throw new IllegalStateException("Montículo vacío.");
+        }
+
+        //Usamos el método auxiliar.
+        return eliminaElemento(0);
+    }
+
+    /**
+     * Elimina un elemento del montículo.
+     * @param elemento a eliminar del montículo.
+     */
+    @Override public void elimina(T elemento) {
+        // Aquí va su código.
+        if (esVacia()) {
+            throw new IllegalStateException("El montículo está vacío");
+        }
+        
+        //Sacamos su índice.
+        int indice = indice(elemento);
+        
+        //Eliminamos con el método auxiliar
+        eliminaElemento(indice);
+    }
+
+    /* Elimina el elemento en el índice. */
+    private T eliminaElemento(int indice) {
+        if (indice < 0 || indice >= elementos) {
+            throw new NoSuchElementException("Índice fuera de rango");
+        }
+        //Sacamos el elemento del índice y ponemos al último en su lugar.
+        T eliminado = arbol[indice];
+        elementos--;
+        if (indice < elementos) {
+            coloca(arbol[elementos], indice);
+        }
+        arbol[elementos] = null;
+        //Reordenamos
+        if (indice < elementos){
+            heapifyUp(indice);
+            heapifyDown(indice);
+        }
+        //Eliminamos y regresamos el elemento.
+        quita(eliminado);
+        return eliminado;
+    }
+
+    /**
+     * Nos dice si un elemento está contenido en el montículo.
+     * @param elemento el elemento que queremos saber si está contenido.
+     * @return <code>true</code> si el elemento está contenido,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        // Aquí va su código.
+        return indice(elemento) != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        // Aquí va su código.
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    @Override public void limpia() {
+        // Aquí va su código.
+        //Conservamos el arreglo para volver a llenarlo sin crear otro.
+        for (int i = 0; i < elementos; i++) {
+            quita(arbol[i]);
+            arbol[i] = null;
+        }
+        elementos = 0;
+    }
+
+   /**
+     * Reordena un elemento en el árbol. Si el elemento no está en el
+     * montículo, no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        // Aquí va su código.
+        int i = indice(elemento);
+        if (i == -1) {
+            return;
+        }
+        heapifyUp(i);
+        heapifyDown(i);
+
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo mínimo.
+     * @return el número de elementos en el montículo mínimo.
+     */
+    @Override public int getElementos() {
+        // Aquí va su código.
+        return elementos;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @param i el índice del elemento que queremos, en <em>in-order</em>.
+     * @return el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        // Aquí va su código.
+        if(i < 0 || i >= elementos){
+            throw new NoSuchElementException("Índice inválido.");
+        }
+
+        return arbol[i];
+
+    }
+
+    /**
+     * Regresa una representación en cadena del montículo mínimo.
+     * @return una representación en cadena del montículo mínimo.
+     */
+    @Override public String toString() {
+        // Aquí va su código.
+        StringBuilder sb = new StringBuilder();
+        //Recorremos el arreglo en orden de los índices y adjuntamos al sb.
+        for(int i = 0; i<elementos; i++){
+            sb.append(arbol[i].toString() + ", ");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el montículo mínimo es igual al objeto recibido.
+     * @param objeto el objeto con el que queremos comparar el montículo mínimo.
+     * @return <code>true</code> si el objeto recibido es un montículo mínimo
+     *         igual al que llama el método; <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") MonticuloMinimo<T> monticulo =
+            (MonticuloMinimo<T>)objeto;
+        // Aquí va su código.
+        if(monticulo.getElementos() != this.getElementos()){//Si sus contadores de elementos difieren.
+            return false;
+        }
+        //Para recorrer los arreglos.
+        for(int i = 0; i < elementos; i++){
+            //Itera hasta que se tope (o no) con una inconsistencia de elementos.
+            if(monticulo.arbol[i].equals(arbol[i])){
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar el montículo mínimo. El montículo se
+     * itera en orden BFS.
+     * @return un iterador para iterar el montículo mínimo.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,214 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Clase para montículos radix (<i>radix heaps</i>) de Dijkstra.</p>
+ *
+ * <p>Es una cola monótona: ninguna clave puede ser menor que la del último
+ * elemento eliminado, lo que siempre se cumple en el algoritmo de Dijkstra.
+ * Las claves son dobles no negativos, y se ordenan por sus bits, que para
+ * esos dobles tienen el mismo orden que los números. Un elemento está en la
+ * cubeta del bit más alto en que su clave difiere de la del último mínimo;
+ * al vaciarse la cubeta 0, la primera cubeta no vacía se reparte en las de
+ * abajo. Cada elemento baja de cubeta a lo más 64 veces, y no se hacen
+ * comparaciones entre elementos.</p>
+ *
+ * <p>Cada elemento tiene un índice entre 0 y <i>n</i>-1, que el montículo
+ * usa para guardar su clave y su cubeta en arreglos.</p>
+ */
+public class MonticuloRadix<T extends Comparable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* El número de cubetas: una por bit, más la de las claves iguales al
+     * último mínimo. */
+    private static final int CUBETAS = 65;
+
+    /* Los elementos, por índice. */
+    private T[] arreglo;
+    /* Las claves de los elementos, como bits. */
+    private long[] llaves;
+    /* Las cubetas. */
+    private Cubetas cubetas;
+    /* La clave del último elemento eliminado. */
+    private long ultimo;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+    /* Regresa el índice de un elemento. */
+    private ToIntFunction<T> indices;
+    /* Regresa la clave de un elemento. */
+    private ToDoubleFunction<T> claves;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /**
+     * Construye un montículo radix a partir de un iterable.
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de índices posibles de los elementos.
+     * @param indices regresa el índice, entre 0 y n-1, de cada elemento.
+     * @param claves regresa la clave de cada elemento.
+     * @throws IllegalArgumentException si alguna clave es negativa o NaN.
+     */
+    public MonticuloRadix(Iterable<T> iterable, int n, ToIntFunction<T> indices,
+                          ToDoubleFunction<T> claves) {
+        this.indices = indices;
+        this.claves = claves;
+        arreglo = nuevoArreglo(n);
+        llaves = new long[n];
+        cubetas = new Cubetas(n, CUBETAS);
+        llena(iterable, n);
+    }
+
+    /* Vacía el montículo y lo vuelve a llenar con los elementos del
+     * iterable, cuyos índices están entre 0 y n-1; reutiliza sus arreglos si
+     * les caben. */
+    void llena(Iterable<T> iterable, int n) {
+        cubetas.limpia(n);
+        if (arreglo.length < n) {
+            arreglo = nuevoArreglo(n);
+            llaves = new long[n];
+        }
+        elementos = 0;
+        ultimo = 0;
+        for (T e : iterable) {
+            int i = indices.applyAsInt(e);
+            arreglo[i] = e;
+            llaves[i] = llave(claves.applyAsDouble(e));
+            cubetas.agrega(i, cubeta(llaves[i]));
+            elementos++;
+        }
+    }
+
+    /* Regresa los bits de una clave no negativa. */
+    private static long llave(double clave) {
+        if (!(clave >= 0))
+            throw new IllegalArgumentException("Clave inválida: " + clave);
+        //Sumar 0.0 convierte -0.0 en 0.0.
+        return Double.doubleToLongBits(clave + 0.0);
+    }
+
+    /* Regresa la cubeta de una llave respecto al último mínimo. */
+    private int cubeta(long llave) {
+        return llave == ultimo ? 0 : 64 - Long.numberOfLeadingZeros(llave ^ ultimo);
+    }
+
+    /**
+     * Agrega un elemento, que no está en el montículo, al montículo. Su clave
+     * no puede ser menor que la del último elemento eliminado.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si la clave es negativa, NaN o menor
+     *         que la del último elemento eliminado.
+     */
+    @Override public void agrega(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        long llave = llave(claves.applyAsDouble(elemento));
+        if (llave < ultimo)
+            throw new IllegalArgumentException("La clave es menor que el último mínimo.");
+        llaves[i] = llave;
+        cubetas.agrega(i, cubeta(llave));
+        arreglo[i] = elemento;
+        elementos++;
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento que queremos saber si está en el montículo.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        return cubetas.cubeta(i) != -1 && arreglo[i] == elemento;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío.");
+        if (cubetas.primero(0) == -1) {
+            //Buscamos la primera cubeta con elementos y su mínimo.
+            int c = 1;
+            while (cubetas.primero(c) == -1)
+                c++;
+            long minimo = Long.MAX_VALUE;
+            for (int i = cubetas.primero(c); i != -1; i = cubetas.siguiente(i))
+                minimo = Math.min(minimo, llaves[i]);
+            //Todos sus elementos bajan a cubetas menores.
+            ultimo = minimo;
+            for (int i = cubetas.primero(c); i != -1; ) {
+                int siguiente = cubetas.siguiente(i);
+                cubetas.mueve(i, cubeta(llaves[i]));
+                i = siguiente;
+            }
+        }
+        int i = cubetas.primero(0);
+        cubetas.elimina(i);
+        elementos--;
+        return arreglo[i];
+    }
+
+    /**
+     * Reordena un elemento en el montículo, cuya clave cambió. La nueva clave
+     * no puede ser menor que la del último elemento eliminado. Si el elemento
+     * no está en el montículo, no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     * @throws IllegalArgumentException si la nueva clave es negativa, NaN o
+     *         menor que la del último elemento eliminado.
+     */
+    @Override public void reordena(T elemento) {
+        int i = indices.applyAsInt(elemento);
+        if (cubetas.cubeta(i) == -1)
+            return;
+        long nueva = llave(claves.applyAsDouble(elemento));
+        if (nueva < ultimo)
+            throw new IllegalArgumentException("La clave es menor que el último mínimo.");
+        llaves[i] = nueva;
+        cubetas.mueve(i, cubeta(nueva));
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del montículo, recorriendo las
+     * cubetas en orden. Toma tiempo <i>O</i>(<i>i</i>).
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del montículo.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido.");
+        for (int c = 0; c < cubetas.getCubetas(); c++)
+            for (int j = cubetas.primero(c); j != -1; j = cubetas.siguiente(j))
+                if (i-- == 0)
+                    return arreglo[j];
+        throw new NoSuchElementException("Índice inválido.");
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
@@ -0,0 +1,37 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para las políticas con las que se resuelve el peso de una
+ * arista que aparece en más de una gráfica al combinarlas.
+ */
+public enum PoliticaConflicto {
+
+    /** Se queda con el peso menor. */
+    MINIMO {
+        @Override public double resuelve(double actual, double nuevo) {
+            return Math.min(actual, nuevo);
+        }
+    },
+
+    /** Se queda con el peso mayor. */
+    MAXIMO {
+        @Override public double resuelve(double actual, double nuevo) {
+            return Math.max(actual, nuevo);
+        }
+    },
+
+    /** Se queda con el peso de la primera gráfica que tiene la arista. */
+    PRIMERO {
+        @Override public double resuelve(double actual, double nuevo) {
+            return actual;
+        }
+    };
+
+    /**
+     * Resuelve el peso de una arista repetida.
+     * @param actual el peso que se tenía, de una gráfica anterior.
+     * @param nuevo el peso de la arista en una gráfica posterior.
+     * @return el peso con el que se queda la arista.
+     */
+    public abstract double resuelve(double actual, double nuevo);
+}
@@ -0,0 +1,345 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Clase para los puntos de referencia (<i>landmarks</i>) de la búsqueda
+ * ALT: A* con cotas de la desigualdad del triángulo.</p>
+ *
+ * <p>Para cada punto de referencia <i>L</i> se guardan las distancias
+ * <i>d</i>(<i>L</i>, <i>v</i>) y <i>d</i>(<i>v</i>, <i>L</i>) de todos los
+ * vértices <i>v</i>. Por la desigualdad del triángulo, la distancia de
+ * <i>v</i> a un destino <i>t</i> es al menos <i>d</i>(<i>L</i>, <i>t</i>) -
+ * <i>d</i>(<i>L</i>, <i>v</i>) y al menos <i>d</i>(<i>v</i>, <i>L</i>) -
+ * <i>d</i>(<i>t</i>, <i>L</i>); la mayor de esas cotas es una heurística
+ * admisible y consistente que cuesta <i>O</i>(<i>k</i>) evaluar.</p>
+ *
+ * <p>Los puntos se eligen por el más lejano: cada punto nuevo es el vértice
+ * más lejano de los puntos ya elegidos. Calcularlos cuesta dos Dijkstra por
+ * punto, por lo que conviene guardarlos con {@link #guarda} y cargarlos con
+ * {@link GraficaDirigida#cargaPuntosReferencia} mientras la gráfica no
+ * cambie. Ocupan 16<i>kn</i> bytes.</p>
+ */
+public class PuntosReferencia<T> implements Heuristica<T> {
+
+    /* La firma del formato, "EDDL" en little-endian. */
+    private static final int FIRMA = 0x4C444445;
+    /* La versión del formato. */
+    private static final int VERSION = 1;
+    /* El tamaño del encabezado. */
+    private static final int ENCABEZADO = 32;
+    /* El tamaño de los pedazos en que se escriben y leen los arreglos. */
+    private static final int PEDAZO = 1 << 20;
+    /* El número máximo de puntos. */
+    private static final int MAXIMO = 1024;
+
+    /* Los identificadores de los puntos. */
+    private int[] puntos;
+    /* Las distancias de cada punto a cada vértice; las de v empiezan en v*k. */
+    private double[] desde;
+    /* Las distancias de cada vértice a cada punto; las de v empiezan en v*k. */
+    private double[] hacia;
+    /* El número de vértices de la gráfica de la que salieron los puntos. */
+    private int n;
+    /* La huella de la gráfica de la que salieron los puntos. */
+    private long huella;
+    /* La gráfica donde se calcularon o cargaron los puntos, y su número de
+     * modificaciones en ese momento. */
+    private Object grafica;
+    private long modificaciones;
+    /* Regresa el índice de un elemento de la gráfica. */
+    private ToIntFunction<T> indices;
+    /* Regresa el elemento de un índice de la gráfica. */
+    private IntFunction<T> elementos;
+
+    /* Construye los puntos a partir de sus arreglos. Los arreglos pasan a ser
+     * de los puntos. */
+    private PuntosReferencia(int[] puntos, double[] desde, double[] hacia, int n, long huella,
+                             Object grafica, long modificaciones,
+                             ToIntFunction<T> indices, IntFunction<T> elementos) {
+        this.puntos = puntos;
+        this.desde = desde;
+        this.hacia = hacia;
+        this.n = n;
+        this.huella = huella;
+        this.grafica = grafica;
+        this.modificaciones = modificaciones;
+        this.indices = indices;
+        this.elementos = elementos;
+    }
+
+    /* Elige k puntos y calcula sus distancias sobre las aristas por vértice
+     * (las de u están entre inicios[u] e inicios[u+1]-1) y sobre las aristas
+     * invertidas. La gráfica y su número de modificaciones permiten
+     * verificar después en tiempo constante que los puntos son suyos. */
+    static <T> PuntosReferencia<T> calcula(int k,
+                                           int[] inicios, int[] destinos, double[] pesos,
+                                           int[] iniciosInversos, int[] destinosInversos,
+                                           double[] pesosInversos,
+                                           Object grafica, long modificaciones,
+                                           ToIntFunction<T> indices, IntFunction<T> elementos) {
+        int n = inicios.length - 1;
+        if (k < 1 || k > n || k > MAXIMO)
+            throw new IllegalArgumentException("Número de puntos inválido: " + k);
+        int[] puntos = new int[k];
+        double[] desde = distancias(n, k);
+        double[] hacia = distancias(n, k);
+        double[] d = new double[n];
+        double[] cobertura = new double[n];
+        Arrays.fill(cobertura, Double.POSITIVE_INFINITY);
+        BitSet elegidos = new BitSet(n);
+        MonticuloIndexado monticulo = new MonticuloIndexado(n);
+
+        //El primer punto es el vértice más lejano del vértice 0.
+        dijkstra(inicios, destinos, pesos, 0, d, monticulo);
+        int p = lejano(d, elegidos);
+        for (int l = 0; l < k; l++) {
+            puntos[l] = p;
+            elegidos.set(p);
+            dijkstra(inicios, destinos, pesos, p, d, monticulo);
+            for (int v = 0; v < n; v++)
+                desde[v * k + l] = d[v];
+            dijkstra(iniciosInversos, destinosInversos, pesosInversos, p, d, monticulo);
+            for (int v = 0; v < n; v++) {
+                hacia[v * k + l] = d[v];
+                cobertura[v] = Math.min(cobertura[v], desde[v * k + l] + d[v]);
+            }
+            //El siguiente punto es el vértice peor cubierto.
+            p = lejano(cobertura, elegidos);
+        }
+        return new PuntosReferencia<>(puntos, desde, hacia, n,
+                                      huella(inicios, destinos, pesos),
+                                      grafica, modificaciones, indices, elementos);
+    }
+
+    /* Carga los puntos guardados en el archivo, verificando que sean de la
+     * gráfica con la huella recibida. */
+    static <T> PuntosReferencia<T> carga(Path archivo, long huella, int n,
+                                         Object grafica, long modificaciones,
+                                         ToIntFunction<T> indices,
+                                         IntFunction<T> elementos) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer e = ByteBuffer.allocate(ENCABEZADO).order(ByteOrder.LITTLE_ENDIAN);
+            while (e.hasRemaining() && canal.read(e) != -1)
+                ;
+            if (e.hasRemaining() || e.getInt(0) != FIRMA)
+                throw new IllegalArgumentException("El archivo no tiene puntos de referencia: " +
+                                                   archivo);
+            if (e.getInt(4) != VERSION)
+                throw new IllegalArgumentException("Versión no soportada: " + e.getInt(4));
+            int k = e.getInt(8);
+            if (e.getInt(12) != n || e.getLong(16) != huella || k < 1 || k > n || k > MAXIMO)
+                throw new IllegalArgumentException("Los puntos de referencia son de otra gráfica: " +
+                                                   archivo);
+            long tamano = ENCABEZADO + 8L * ((k + 1) / 2) + 16L * n * k;
+            if (canal.size() != tamano)
+                throw new IllegalArgumentException("Archivo truncado: " + archivo);
+            int[] puntos = new int[k];
+            double[] desde = distancias(n, k);
+            double[] hacia = distancias(n, k);
+            ByteBuffer b = ByteBuffer.allocateDirect(PEDAZO).order(ByteOrder.LITTLE_ENDIAN);
+            lee(canal, b, 4L * k);
+            b.asIntBuffer().get(puntos);
+            lee(canal, b, 8L * ((k + 1) / 2) - 4L * k);
+            for (double[] arreglo : new double[][] { desde, hacia }) {
+                for (int i = 0; i < arreglo.length; i += PEDAZO / 8) {
+                    int t = Math.min(PEDAZO / 8, arreglo.length - i);
+                    lee(canal, b, 8L * t);
+                    b.asDoubleBuffer().get(arreglo, i, t);
+                }
+            }
+            return new PuntosReferencia<>(puntos, desde, hacia, n, huella,
+                                          grafica, modificaciones, indices, elementos);
+        }
+    }
+
+    /**
+     * Guarda los puntos en un archivo binario, junto con una huella de la
+     * gráfica para detectar al cargarlos si la gráfica cambió.
+     * @param archivo el archivo donde se guardan los puntos.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void guarda(Path archivo) throws IOException {
+        int k = puntos.length;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.allocateDirect(PEDAZO).order(ByteOrder.LITTLE_ENDIAN);
+            b.putInt(FIRMA).putInt(VERSION).putInt(k).putInt(n)
+                .putLong(huella).putLong(0);
+            for (int p : puntos)
+                b.putInt(p);
+            if (k % 2 == 1)
+                b.putInt(0);
+            escribe(canal, b);
+            for (double[] arreglo : new double[][] { desde, hacia }) {
+                for (int i = 0; i < arreglo.length; i += PEDAZO / 8) {
+                    int t = Math.min(PEDAZO / 8, arreglo.length - i);
+                    b.asDoubleBuffer().put(arreglo, i, t);
+                    b.position(8 * t);
+                    escribe(canal, b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Regresa el número de vértices de la gráfica de la que son los puntos.
+     * @return el número de vértices de la gráfica de la que son los puntos.
+     */
+    public int getVertices() {
+        return n;
+    }
+
+    /**
+     * Regresa la huella de la gráfica de la que son los puntos: un hash de
+     * sus aristas por vértice.
+     * @return la huella de la gráfica de la que son los puntos.
+     */
+    public long getHuella() {
+        return huella;
+    }
+
+    /* Nos dice si los puntos se calcularon o cargaron en la gráfica recibida
+     * cuando tenía el número de modificaciones recibido. */
+    boolean deGrafica(Object grafica, long modificaciones) {
+        return this.grafica == grafica && this.modificaciones == modificaciones;
+    }
+
+    /**
+     * Regresa el número de puntos de referencia.
+     * @return el número de puntos de referencia.
+     */
+    public int getPuntos() {
+        return puntos.length;
+    }
+
+    /**
+     * Regresa los identificadores en la gráfica de los puntos de referencia,
+     * en el orden en que se eligieron.
+     * @return un arreglo nuevo con los identificadores de los puntos.
+     */
+    public int[] puntos() {
+        return puntos.clone();
+    }
+
+    /**
+     * Regresa el elemento de un punto de referencia.
+     * @param i el número del punto, entre 0 y {@link #getPuntos}-1.
+     * @return el elemento del punto.
+     * @throws IndexOutOfBoundsException si el número es inválido.
+     */
+    public T punto(int i) {
+        return elementos.apply(puntos[i]);
+    }
+
+    /**
+     * Estima con las cotas de los puntos de referencia el peso de una
+     * trayectoria mínima del elemento al destino. La estimación es infinita
+     * si los puntos prueban que el destino no se alcanza.
+     * @param elemento el elemento desde el que se estima.
+     * @param destino el elemento destino.
+     * @return una cota inferior del peso de una trayectoria mínima.
+     * @throws java.util.NoSuchElementException si algún elemento no está en
+     *         la gráfica.
+     */
+    @Override public double estima(T elemento, T destino) {
+        return cota(indices.applyAsInt(elemento), indices.applyAsInt(destino));
+    }
+
+    /* Regresa la mayor cota de la distancia de v a t. Las restas de dos
+     * infinitos dan NaN y las comparaciones las ignoran. */
+    double cota(int v, int t) {
+        int k = puntos.length;
+        int iv = v * k, it = t * k;
+        double cota = 0;
+        for (int l = 0; l < k; l++) {
+            double a = desde[it + l] - desde[iv + l];
+            if (a > cota)
+                cota = a;
+            double b = hacia[iv + l] - hacia[it + l];
+            if (b > cota)
+                cota = b;
+        }
+        return cota;
+    }
+
+    /* Crea el arreglo de distancias de k puntos a n vértices. */
+    private static double[] distancias(int n, int k) {
+        long tamano = (long)n * k;
+        //Algunas máquinas virtuales no permiten arreglos de MAX_VALUE.
+        if (tamano > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Demasiados puntos de referencia para " +
+                                               n + " vértices: " + k);
+        return new double[(int)tamano];
+    }
+
+    /* Regresa la huella de una gráfica: un hash de sus aristas por
+     * vértice. */
+    static long huella(int[] inicios, int[] destinos, double[] pesos) {
+        long h = inicios.length;
+        for (int j = 0; j < destinos.length; j++)
+            h = h * 0x9E3779B97F4A7C15L +
+                destinos[j] * 31L + Double.doubleToLongBits(pesos[j]);
+        for (int inicio : inicios)
+            h = h * 31 + inicio;
+        return h;
+    }
+
+    /* Calcula en d las distancias desde s. */
+    private static void dijkstra(int[] inicios, int[] destinos, double[] pesos,
+                                 int s, double[] d, MonticuloIndexado monticulo) {
+        Arrays.fill(d, Double.POSITIVE_INFINITY);
+        d[s] = 0;
+        monticulo.limpia();
+        monticulo.agrega(s, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            for (int j = inicios[u]; j < inicios[u + 1]; j++) {
+                int v = destinos[j];
+                double nueva = d[u] + pesos[j];
+                if (nueva < d[v]) {
+                    d[v] = nueva;
+                    monticulo.actualiza(v, nueva);
+                }
+            }
+        }
+    }
+
+    /* Regresa el vértice no elegido con el mayor valor; los infinitos
+     * ganan. */
+    private static int lejano(double[] valores, BitSet elegidos) {
+        int mejor = elegidos.nextClearBit(0);
+        for (int v = mejor + 1; v < valores.length; v++)
+            if (!elegidos.get(v) && valores[v] > valores[mejor])
+                mejor = v;
+        return mejor;
+    }
+
+    /* Lee del canal los siguientes bytes al búfer, listo para leerse. */
+    private static void lee(FileChannel canal, ByteBuffer b, long bytes) throws IOException {
+        b.clear();
+        b.limit((int)bytes);
+        while (b.hasRemaining())
+            if (canal.read(b) == -1)
+                throw new IllegalArgumentException("Archivo truncado.");
+        b.flip();
+    }
+
+    /* Escribe el contenido del búfer en el canal y lo limpia. */
+    private static void escribe(FileChannel canal, ByteBuffer b) throws IOException {
+        b.flip();
+        while (b.hasRemaining())
+            canal.write(b);
+        b.clear();
+    }
+}
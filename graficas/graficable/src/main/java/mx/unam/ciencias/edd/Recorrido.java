@@ -0,0 +1,34 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>Clase para el espacio de trabajo de los recorridos BFS y DFS.</p>
+ *
+ * <p>Un recorrido marca los vértices visitados por su índice en un {@link
+ * BitSet}, y guarda los índices pendientes en un arreglo de enteros que hace
+ * de cola en BFS y de pila en DFS. Las gráficas reutilizan sus recorridos, por
+ * lo que recorrer la gráfica no crea objetos por cada vértice visitado.</p>
+ */
+class Recorrido {
+
+    /* Los índices de los vértices visitados. */
+    final BitSet visitados;
+    /* Los índices de los vértices pendientes. */
+    int[] pendientes;
+
+    /* Construye un recorrido vacío. */
+    Recorrido() {
+        visitados = new BitSet();
+        pendientes = new int[0];
+    }
+
+    /* Prepara el recorrido para una gráfica de n vértices: crece si hace falta
+     * y desmarca todos los vértices. */
+    void prepara(int n) {
+        if (pendientes.length < n)
+            pendientes = Arrays.copyOf(pendientes, Math.max(n, pendientes.length * 2));
+        visitados.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package mx.unam.ciencias.edd.graficable;
+
+import mx.unam.ciencias.edd.ContextoDijkstra;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.Heuristica;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase para buscar rutas entre vértices con coordenadas usando A*. Por
+ * omisión la heurística es la distancia euclidiana entre las coordenadas de
+ * los vértices, que es admisible siempre que el peso de cada arista sea al
+ * menos la distancia entre sus extremos.
+ */
+public class BuscadorRutas<T extends VerticeCoordenado> {
+
+    /** Grafo dirigido. */
+    private GraficaDirigida<T> grafo;
+    /** Heurística de la búsqueda. */
+    private Heuristica<T> heuristica;
+    /** Contexto de las consultas. */
+    private ContextoDijkstra contexto;
+    /** Vértices asentados en la última ruta calculada. */
+    private int asentados;
+
+    /**
+     * Constructor del buscador, con la heurística euclidiana.
+     *
+     * @param grafo Grafo dirigido de vértices que implementan VerticeCoordenado.
+     */
+    public BuscadorRutas(GraficaDirigida<T> grafo) {
+        this.grafo = grafo;
+        this.heuristica = euclidiana();
+        this.contexto = new ContextoDijkstra(grafo.getElementos());
+    }
+
+    /**
+     * Regresa la heurística euclidiana entre las coordenadas de dos vértices.
+     *
+     * @param <T> el tipo de los vértices.
+     * @return la heurística euclidiana.
+     */
+    public static <T extends VerticeCoordenado> Heuristica<T> euclidiana() {
+        return (a, b) -> Math.hypot(a.getCoordX() - b.getCoordX(),
+                                    a.getCoordY() - b.getCoordY());
+    }
+
+    /**
+     * Configura la heurística de la búsqueda.
+     *
+     * @param heuristica una heurística admisible.
+     * @return La instancia actual del buscador para encadenamiento.
+     */
+    public BuscadorRutas<T> setHeuristica(Heuristica<T> heuristica) {
+        this.heuristica = heuristica;
+        return this;
+    }
+
+    /**
+     * Calcula una ruta de peso mínimo entre dos vértices usando A*.
+     *
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return la lista de vértices de la ruta, o una lista vacía si no hay ruta.
+     */
+    public List<T> ruta(T origen, T destino) {
+        List<VerticeGrafica<T>> vertices = grafo.aEstrella(origen, destino, heuristica, contexto);
+        asentados = contexto.getAsentados();
+        return elementos(vertices);
+    }
+
+    /**
+     * Regresa cuántos vértices asentó el cálculo de la última ruta.
+     *
+     * @return el número de vértices asentados en la última ruta.
+     */
+    public int getAsentados() {
+        return asentados;
+    }
+
+    /**
+     * Calcula cuántos vértices asienta Dijkstra sin heurística para la misma
+     * consulta, para compararlo con {@link #getAsentados}.
+     *
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return el número de vértices que asienta Dijkstra.
+     */
+    public int asentadosDijkstra(T origen, T destino) {
+        grafo.dijkstra(origen, destino, contexto);
+        return contexto.getAsentados();
+    }
+
+    /**
+     * Método que regresa los elementos de una lista de vértices.
+     *
+     * @param vertices la lista de vértices.
+     * @return la lista de sus elementos.
+     */
+    private List<T> elementos(List<VerticeGrafica<T>> vertices) {
+        List<T> lista = new ArrayList<>(vertices.size());
+        for (VerticeGrafica<T> vertice : vertices) {
+            lista.add(vertice.get());
+        }
+        return lista;
+    }
+}
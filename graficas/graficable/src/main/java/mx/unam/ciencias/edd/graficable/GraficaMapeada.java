@@ -0,0 +1,721 @@
+package mx.unam.ciencias.edd.graficable;
+
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.MonticuloIndexado;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>Clase para gráficas dirigidas guardadas en un archivo binario y mapeadas
+ * a memoria.</p>
+ *
+ * <p>El archivo guarda una {@link GraficaCongelada} en formato <i>CSR</i>. Todos
+ * los números están en orden <i>little-endian</i> y cada sección empieza en
+ * un múltiplo de 8 bytes:</p>
+ *
+ * <ol>
+ *   <li>Encabezado de {@link #ENCABEZADO} bytes: la firma <code>EDDG</code>,
+ *       la versión, las banderas, el número de vértices, el número de
+ *       aristas, el número de casillas de la tabla de nombres, el número de
+ *       bytes de los nombres y la posición de cada sección.</li>
+ *   <li>Índices: <i>n</i>+1 enteros; las aristas del vértice <i>i</i> están
+ *       entre <code>indices[i]</code> y <code>indices[i+1]</code>.</li>
+ *   <li>Destinos: <i>m</i> enteros.</li>
+ *   <li>Pesos: <i>m</i> dobles.</li>
+ *   <li>Tabla de vértices: <i>n</i>+1 enteros con la posición del nombre de
+ *       cada vértice, seguidos de los nombres en UTF-8.</li>
+ *   <li>Tabla de dispersión de los nombres: casillas con el identificador de
+ *       un vértice, o -1 si están libres. El número de casillas es una
+ *       potencia de 2 mayor que <i>n</i>; un nombre empieza a buscarse en la
+ *       casilla de su dispersión FNV-1a de 32 bits sobre sus bytes UTF-8 sin
+ *       signo, y sigue en las casillas siguientes.</li>
+ *   <li>Coordenadas, si la bandera {@link #COORDENADAS} está prendida: las
+ *       coordenadas <i>x</i> y <i>y</i> de cada vértice.</li>
+ * </ol>
+ *
+ * <p>Al abrir el archivo sólo se lee el encabezado; los recorridos, las
+ * búsquedas de nombres y Dijkstra trabajan directamente sobre las secciones
+ * mapeadas, sin copiarlas al heap, por lo que abrir una gráfica no depende de
+ * su tamaño.</p>
+ */
+public class GraficaMapeada {
+
+    /** La firma del formato, "EDDG" en little-endian. */
+    private static final int FIRMA = 0x47444445;
+    /** La versión del formato. */
+    public static final int VERSION = 1;
+    /** La bandera de las coordenadas. */
+    public static final int COORDENADAS = 1;
+    /** El tamaño del encabezado. */
+    public static final int ENCABEZADO = 128;
+    /** El tamaño del búfer de escritura. */
+    private static final int BUFER = 1 << 20;
+
+    /** El número de vértices. */
+    private int n;
+    /** El número de aristas. */
+    private int m;
+    /** Las banderas del archivo. */
+    private int banderas;
+    /** Los índices de las aristas de cada vértice. */
+    private IntBuffer indices;
+    /** Los destinos de las aristas. */
+    private IntBuffer destinos;
+    /** Los pesos de las aristas. */
+    private DoubleBuffer pesos;
+    /** La posición del nombre de cada vértice. */
+    private IntBuffer inicios;
+    /** Los nombres de los vértices. */
+    private ByteBuffer nombres;
+    /** La tabla de dispersión de los nombres. */
+    private IntBuffer tabla;
+    /** Las coordenadas de los vértices, o null. */
+    private DoubleBuffer coordenadas;
+
+    /**
+     * Constructor privado; las gráficas mapeadas se obtienen con {@link
+     * #abre}.
+     */
+    private GraficaMapeada() {}
+
+    /**
+     * Escribe una gráfica congelada en un archivo.
+     *
+     * @param <T> el tipo de los elementos.
+     * @param grafica la gráfica a escribir.
+     * @param nombres la conversión de los elementos a nombres.
+     * @param archivo el archivo donde se escribe.
+     * @throws IOException si no se puede escribir el archivo.
+     * @throws IllegalArgumentException si dos elementos tienen el mismo nombre.
+     */
+    public static <T> void escribe(GraficaCongelada<T> grafica,
+                                   Function<? super T, String> nombres,
+                                   Path archivo) throws IOException {
+        escribe(grafica, nombres, null, null, archivo);
+    }
+
+    /**
+     * Escribe una gráfica congelada de vértices con coordenadas en un
+     * archivo, incluyendo la sección de coordenadas.
+     *
+     * @param <T> el tipo de los elementos.
+     * @param grafica la gráfica a escribir.
+     * @param nombres la conversión de los elementos a nombres.
+     * @param archivo el archivo donde se escribe.
+     * @throws IOException si no se puede escribir el archivo.
+     * @throws IllegalArgumentException si dos elementos tienen el mismo nombre.
+     */
+    public static <T extends VerticeCoordenado> void escribeConCoordenadas(
+            GraficaCongelada<T> grafica, Function<? super T, String> nombres,
+            Path archivo) throws IOException {
+        escribe(grafica, nombres, VerticeCoordenado::getCoordX,
+                VerticeCoordenado::getCoordY, archivo);
+    }
+
+    /**
+     * Escribe una gráfica congelada en un archivo; si x es null, no escribe
+     * coordenadas.
+     *
+     * @param <T> el tipo de los elementos.
+     * @param grafica la gráfica a escribir.
+     * @param nombres la conversión de los elementos a nombres.
+     * @param x la coordenada x de cada elemento, o null.
+     * @param y la coordenada y de cada elemento, o null.
+     * @param archivo el archivo donde se escribe.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    private static <T> void escribe(GraficaCongelada<T> grafica,
+                                    Function<? super T, String> nombres,
+                                    ToDoubleFunction<? super T> x,
+                                    ToDoubleFunction<? super T> y,
+                                    Path archivo) throws IOException {
+        int n = grafica.getElementos();
+        int m = grafica.getAristas();
+
+        //Los nombres, su tabla de dispersión y sus posiciones.
+        byte[][] cadenas = new byte[n][];
+        long bytes = 0;
+        for (int i = 0; i < n; i++) {
+            cadenas[i] = nombres.apply(grafica.elemento(i)).getBytes(StandardCharsets.UTF_8);
+            bytes += cadenas[i].length;
+        }
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Los nombres no caben en el formato.");
+        int casillas = Integer.highestOneBit(Math.max(1, n) * 2 - 1) * 2;
+        int[] dispersion = new int[casillas];
+        Arrays.fill(dispersion, -1);
+        for (int i = 0; i < n; i++) {
+            int c = dispersa(cadenas[i]) & (casillas - 1);
+            while (dispersion[c] != -1) {
+                if (Arrays.equals(cadenas[dispersion[c]], cadenas[i]))
+                    throw new IllegalArgumentException("Nombre repetido: " +
+                                                       nombres.apply(grafica.elemento(i)));
+                c = (c + 1) & (casillas - 1);
+            }
+            dispersion[c] = i;
+        }
+
+        //Las posiciones de las secciones.
+        long pIndices = ENCABEZADO;
+        long pDestinos = alinea(pIndices + 4L * (n + 1));
+        long pPesos = alinea(pDestinos + 4L * m);
+        long pInicios = alinea(pPesos + 8L * m);
+        long pNombres = alinea(pInicios + 4L * (n + 1));
+        long pTabla = alinea(pNombres + bytes);
+        long pCoordenadas = x == null ? 0 : alinea(pTabla + 4L * casillas);
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            Escritor e = new Escritor(canal);
+            e.entero(FIRMA);
+            e.entero(VERSION);
+            e.entero(x == null ? 0 : COORDENADAS);
+            e.entero(n);
+            e.entero(m);
+            e.entero(casillas);
+            e.largo(bytes);
+            for (long p : new long[] { pIndices, pDestinos, pPesos, pInicios,
+                                       pNombres, pTabla, pCoordenadas })
+                e.largo(p);
+            e.rellena(pIndices);
+
+            int aristas = 0;
+            int maximo = 0;
+            e.entero(0);
+            for (int i = 0; i < n; i++) {
+                int grado = grafica.getGrado(i);
+                aristas += grado;
+                maximo = Math.max(maximo, grado);
+                e.entero(aristas);
+            }
+            //Un solo par de arreglos para las aristas de todos los vértices.
+            int[] vecinos = new int[maximo];
+            double[] pesos = new double[maximo];
+            e.rellena(pDestinos);
+            for (int i = 0; i < n; i++) {
+                int grado = grafica.vecinos(i, vecinos, null, 0);
+                for (int j = 0; j < grado; j++)
+                    e.entero(vecinos[j]);
+            }
+            e.rellena(pPesos);
+            for (int i = 0; i < n; i++) {
+                int grado = grafica.vecinos(i, null, pesos, 0);
+                for (int j = 0; j < grado; j++)
+                    e.doble(pesos[j]);
+            }
+            e.rellena(pInicios);
+            int inicio = 0;
+            e.entero(0);
+            for (int i = 0; i < n; i++) {
+                inicio += cadenas[i].length;
+                e.entero(inicio);
+            }
+            e.rellena(pNombres);
+            for (int i = 0; i < n; i++)
+                e.bytes(cadenas[i]);
+            e.rellena(pTabla);
+            for (int c : dispersion)
+                e.entero(c);
+            if (x != null) {
+                e.rellena(pCoordenadas);
+                for (int i = 0; i < n; i++) {
+                    e.doble(x.applyAsDouble(grafica.elemento(i)));
+                    e.doble(y.applyAsDouble(grafica.elemento(i)));
+                }
+            }
+            e.vacia();
+        }
+    }
+
+    /**
+     * Abre una gráfica guardada con {@link #escribe}. Sólo se lee el
+     * encabezado; las secciones se mapean a memoria de sólo lectura.
+     *
+     * @param archivo el archivo de la gráfica.
+     * @return la gráfica mapeada.
+     * @throws IOException si no se puede leer el archivo, o si su encabezado
+     *         es inconsistente o describe secciones que no caben en él.
+     * @throws IllegalArgumentException si el archivo no es una gráfica, o si
+     *         su versión no es {@link #VERSION}.
+     */
+    public static GraficaMapeada abre(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < ENCABEZADO)
+                throw new IllegalArgumentException("El archivo no es una gráfica: " + archivo);
+            ByteBuffer e = canal.map(FileChannel.MapMode.READ_ONLY, 0, ENCABEZADO)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (e.getInt(0) != FIRMA)
+                throw new IllegalArgumentException("El archivo no es una gráfica: " + archivo);
+            if (e.getInt(4) != VERSION)
+                throw new IllegalArgumentException("Versión no soportada: " + e.getInt(4));
+            GraficaMapeada g = new GraficaMapeada();
+            g.banderas = e.getInt(8);
+            g.n = e.getInt(12);
+            g.m = e.getInt(16);
+            int casillas = e.getInt(20);
+            long bytes = e.getLong(24);
+            if (g.n < 0 || g.n == Integer.MAX_VALUE || g.m < 0)
+                throw new IOException("Tamaño inválido: " + g.n + " vértices, " +
+                                      g.m + " aristas");
+            //La máscara casillas-1 necesita una potencia de 2, y la búsqueda
+            //lineal necesita al menos una casilla libre.
+            if (casillas <= g.n || Integer.bitCount(casillas) != 1)
+                throw new IOException("Número de casillas inválido: " + casillas);
+            if (bytes < 0)
+                throw new IOException("Número de bytes inválido: " + bytes);
+            g.indices = mapea(canal, e.getLong(32), 4L * (g.n + 1)).asIntBuffer();
+            g.destinos = mapea(canal, e.getLong(40), 4L * g.m).asIntBuffer();
+            g.pesos = mapea(canal, e.getLong(48), 8L * g.m).asDoubleBuffer();
+            g.inicios = mapea(canal, e.getLong(56), 4L * (g.n + 1)).asIntBuffer();
+            g.nombres = mapea(canal, e.getLong(64), bytes);
+            g.tabla = mapea(canal, e.getLong(72), 4L * casillas).asIntBuffer();
+            if ((g.banderas & COORDENADAS) != 0)
+                g.coordenadas = mapea(canal, e.getLong(80), 16L * g.n).asDoubleBuffer();
+            if (g.indices.get(0) != 0 || g.indices.get(g.n) != g.m ||
+                g.inicios.get(0) != 0 || g.inicios.get(g.n) != bytes)
+                throw new IOException("Las secciones no coinciden con el encabezado.");
+            return g;
+        }
+    }
+
+    /**
+     * Mapea una sección del archivo.
+     *
+     * @param canal el canal del archivo.
+     * @param posicion la posición de la sección.
+     * @param tamano el tamaño de la sección.
+     * @return la sección mapeada, en orden little-endian.
+     * @throws IOException si no se puede mapear la sección, o si no cabe
+     *         entre el encabezado y el final del archivo.
+     */
+    private static ByteBuffer mapea(FileChannel canal, long posicion, long tamano)
+        throws IOException {
+        if (posicion < ENCABEZADO || tamano > Integer.MAX_VALUE ||
+            posicion > canal.size() - tamano)
+            throw new IOException("Sección inválida en el byte " + posicion);
+        return canal.map(FileChannel.MapMode.READ_ONLY, posicion, tamano)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Regresa el número de vértices de la gráfica.
+     *
+     * @return el número de vértices de la gráfica.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de aristas de la gráfica.
+     *
+     * @return el número de aristas de la gráfica.
+     */
+    public int getAristas() {
+        return m;
+    }
+
+    /**
+     * Nos dice si el archivo tiene coordenadas.
+     *
+     * @return <code>true</code> si el archivo tiene coordenadas.
+     */
+    public boolean tieneCoordenadas() {
+        return coordenadas != null;
+    }
+
+    /**
+     * Nos dice si la gráfica tiene un vértice con el nombre recibido.
+     *
+     * @param nombre el nombre.
+     * @return <code>true</code> si hay un vértice con ese nombre.
+     */
+    public boolean contiene(String nombre) {
+        return busca(nombre) != -1;
+    }
+
+    /**
+     * Regresa el identificador del vértice con el nombre recibido.
+     *
+     * @param nombre el nombre.
+     * @return el identificador del vértice.
+     * @throws NoSuchElementException si no hay un vértice con ese nombre.
+     */
+    public int id(String nombre) {
+        int id = busca(nombre);
+        if (id == -1)
+            throw new NoSuchElementException("No se encuentra el elemento: " + nombre);
+        return id;
+    }
+
+    /**
+     * Regresa el nombre de un vértice.
+     *
+     * @param id el identificador del vértice.
+     * @return el nombre del vértice.
+     */
+    public String nombre(int id) {
+        int inicio = inicios.get(id);
+        byte[] cadena = new byte[inicios.get(id + 1) - inicio];
+        for (int i = 0; i < cadena.length; i++)
+            cadena[i] = nombres.get(inicio + i);
+        return new String(cadena, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Regresa el número de aristas que salen de un vértice.
+     *
+     * @param id el identificador del vértice.
+     * @return el grado del vértice.
+     */
+    public int getGrado(int id) {
+        return indices.get(id + 1) - indices.get(id);
+    }
+
+    /**
+     * Regresa los identificadores de los vecinos de un vértice.
+     *
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los identificadores de sus vecinos.
+     */
+    public int[] vecinos(int id) {
+        int[] vecinos = new int[getGrado(id)];
+        for (int j = 0, k = indices.get(id); j < vecinos.length; j++, k++)
+            vecinos[j] = destinos.get(k);
+        return vecinos;
+    }
+
+    /**
+     * Regresa los pesos de las aristas que salen de un vértice, en el mismo
+     * orden que {@link #vecinos}.
+     *
+     * @param id el identificador del vértice.
+     * @return un arreglo nuevo con los pesos de sus aristas.
+     */
+    public double[] pesos(int id) {
+        double[] pesos = new double[getGrado(id)];
+        for (int j = 0, k = indices.get(id); j < pesos.length; j++, k++)
+            pesos[j] = this.pesos.get(k);
+        return pesos;
+    }
+
+    /**
+     * Regresa la coordenada x de un vértice.
+     *
+     * @param id el identificador del vértice.
+     * @return la coordenada x del vértice.
+     * @throws IllegalStateException si el archivo no tiene coordenadas.
+     */
+    public double getCoordX(int id) {
+        if (coordenadas == null)
+            throw new IllegalStateException("El archivo no tiene coordenadas.");
+        return coordenadas.get(2 * id);
+    }
+
+    /**
+     * Regresa la coordenada y de un vértice.
+     *
+     * @param id el identificador del vértice.
+     * @return la coordenada y del vértice.
+     * @throws IllegalStateException si el archivo no tiene coordenadas.
+     */
+    public double getCoordY(int id) {
+        if (coordenadas == null)
+            throw new IllegalStateException("El archivo no tiene coordenadas.");
+        return coordenadas.get(2 * id + 1);
+    }
+
+    /**
+     * Realiza la acción recibida en los identificadores de todos los vértices
+     * alcanzables desde el origen, en el orden determinado por BFS.
+     *
+     * @param origen el identificador del vértice origen.
+     * @param accion la acción a realizar.
+     */
+    public void bfs(int origen, IntConsumer accion) {
+        int[] cola = new int[n];
+        boolean[] visitados = new boolean[n];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = origen;
+        visitados[origen] = true;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            accion.accept(u);
+            for (int j = indices.get(u); j < indices.get(u + 1); j++) {
+                int v = destinos.get(j);
+                if (!visitados[v]) {
+                    visitados[v] = true;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Realiza la acción recibida en los identificadores de todos los vértices
+     * alcanzables desde el origen, en el orden determinado por DFS.
+     *
+     * @param origen el identificador del vértice origen.
+     * @param accion la acción a realizar.
+     */
+    public void dfs(int origen, IntConsumer accion) {
+        int[] pila = new int[n];
+        boolean[] visitados = new boolean[n];
+        int tope = 0;
+        pila[tope++] = origen;
+        visitados[origen] = true;
+        while (tope > 0) {
+            int u = pila[--tope];
+            accion.accept(u);
+            for (int j = indices.get(u); j < indices.get(u + 1); j++) {
+                int v = destinos.get(j);
+                if (!visitados[v]) {
+                    visitados[v] = true;
+                    pila[tope++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula con Dijkstra una trayectoria de peso mínimo entre dos vértices.
+     *
+     * @param origen el identificador del vértice origen.
+     * @param destino el identificador del vértice destino.
+     * @return los identificadores de los vértices de la trayectoria; si no hay
+     *         trayectoria, un arreglo vacío.
+     */
+    public int[] dijkstra(int origen, int destino) {
+        double[] distancias = new double[n];
+        int[] anteriores = new int[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(anteriores, -1);
+        MonticuloIndexado monticulo = new MonticuloIndexado(n);
+        distancias[origen] = 0;
+        anteriores[origen] = origen;
+        monticulo.agrega(origen, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            if (u == destino)
+                break;
+            for (int j = indices.get(u); j < indices.get(u + 1); j++) {
+                int v = destinos.get(j);
+                double d = distancias[u] + pesos.get(j);
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    anteriores[v] = u;
+                    monticulo.actualiza(v, d);
+                }
+            }
+        }
+        if (anteriores[destino] == -1)
+            return new int[0];
+        int longitud = 1;
+        for (int u = destino; u != origen; u = anteriores[u])
+            longitud++;
+        int[] trayectoria = new int[longitud];
+        for (int u = destino, i = longitud - 1; i >= 0; u = anteriores[u], i--)
+            trayectoria[i] = u;
+        return trayectoria;
+    }
+
+    /**
+     * Calcula con Dijkstra una trayectoria de peso mínimo entre dos vértices,
+     * como lista de nombres.
+     *
+     * @param origen el nombre del vértice origen.
+     * @param destino el nombre del vértice destino.
+     * @return los nombres de los vértices de la trayectoria; si no hay
+     *         trayectoria, una lista vacía.
+     * @throws NoSuchElementException si alguno de los nombres no está en la
+     *         gráfica.
+     */
+    public List<String> dijkstraElementos(String origen, String destino) {
+        int[] trayectoria = dijkstra(id(origen), id(destino));
+        List<String> lista = new ArrayList<>(trayectoria.length);
+        for (int u : trayectoria)
+            lista.add(nombre(u));
+        return lista;
+    }
+
+    /**
+     * Busca el identificador de un nombre en la tabla de dispersión.
+     *
+     * @param nombre el nombre.
+     * @return el identificador del vértice, o -1 si no está.
+     */
+    private int busca(String nombre) {
+        byte[] cadena = nombre.getBytes(StandardCharsets.UTF_8);
+        int mascara = tabla.limit() - 1;
+        int c = dispersa(cadena) & mascara;
+        for (int id = tabla.get(c); id != -1; id = tabla.get(c)) {
+            if (iguales(id, cadena))
+                return id;
+            c = (c + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Nos dice si el nombre del vértice es igual a los bytes recibidos.
+     *
+     * @param id el identificador del vértice.
+     * @param cadena los bytes.
+     * @return <code>true</code> si son iguales.
+     */
+    private boolean iguales(int id, byte[] cadena) {
+        int inicio = inicios.get(id);
+        if (inicios.get(id + 1) - inicio != cadena.length)
+            return false;
+        for (int i = 0; i < cadena.length; i++)
+            if (nombres.get(inicio + i) != cadena[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa la dispersión FNV-1a de unos bytes.
+     *
+     * @param cadena los bytes.
+     * @return la dispersión de los bytes.
+     */
+    private static int dispersa(byte[] cadena) {
+        int h = 0x811c9dc5;
+        for (byte b : cadena)
+            h = (h ^ (b & 0xff)) * 0x01000193;
+        return h;
+    }
+
+    /**
+     * Regresa el primer múltiplo de 8 mayor o igual a la posición.
+     *
+     * @param posicion la posición.
+     * @return la posición alineada.
+     */
+    private static long alinea(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+
+    /**
+     * Clase interna para escribir números little-endian en un canal a través
+     * de un búfer.
+     */
+    private static class Escritor {
+
+        /** El canal donde se escribe. */
+        private FileChannel canal;
+        /** El búfer de escritura. */
+        private ByteBuffer bufer;
+        /** La posición en el archivo del inicio del búfer. */
+        private long escritos;
+
+        /**
+         * Construye un escritor sobre el canal.
+         *
+         * @param canal el canal donde se escribe.
+         */
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+            bufer = ByteBuffer.allocate(BUFER).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Se asegura de que quepan k bytes en el búfer.
+         *
+         * @param k el número de bytes.
+         * @throws IOException si no se puede escribir.
+         */
+        private void reserva(int k) throws IOException {
+            if (bufer.remaining() < k)
+                vacia();
+        }
+
+        /**
+         * Escribe un entero.
+         *
+         * @param i el entero.
+         * @throws IOException si no se puede escribir.
+         */
+        void entero(int i) throws IOException {
+            reserva(4);
+            bufer.putInt(i);
+        }
+
+        /**
+         * Escribe un entero largo.
+         *
+         * @param l el entero largo.
+         * @throws IOException si no se puede escribir.
+         */
+        void largo(long l) throws IOException {
+            reserva(8);
+            bufer.putLong(l);
+        }
+
+        /**
+         * Escribe un doble.
+         *
+         * @param d el doble.
+         * @throws IOException si no se puede escribir.
+         */
+        void doble(double d) throws IOException {
+            reserva(8);
+            bufer.putDouble(d);
+        }
+
+        /**
+         * Escribe unos bytes.
+         *
+         * @param bytes los bytes.
+         * @throws IOException si no se puede escribir.
+         */
+        void bytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                reserva(1);
+                int k = Math.min(bufer.remaining(), bytes.length - i);
+                bufer.put(bytes, i, k);
+                i += k;
+            }
+        }
+
+        /**
+         * Escribe ceros hasta llegar a la posición.
+         *
+         * @param posicion la posición en el archivo.
+         * @throws IOException si no se puede escribir.
+         */
+        void rellena(long posicion) throws IOException {
+            while (escritos + bufer.position() < posicion) {
+                reserva(1);
+                bufer.put((byte)0);
+            }
+        }
+
+        /**
+         * Escribe el contenido del búfer en el canal.
+         *
+         * @throws IOException si no se puede escribir.
+         */
+        void vacia() throws IOException {
+            bufer.flip();
+            while (bufer.hasRemaining())
+                escritos += canal.write(bufer);
+            bufer.clear();
+        }
+    }
+}
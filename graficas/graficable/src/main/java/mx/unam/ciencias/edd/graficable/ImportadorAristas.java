@@ -0,0 +1,494 @@
+package mx.unam.ciencias.edd.graficable;
+
+import mx.unam.ciencias.edd.ConstructorGraficaDirigida;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para importar gráficas dirigidas desde listas de aristas en
+ * texto.</p>
+ *
+ * <p>Cada línea del archivo es una arista con el origen, el destino y,
+ * opcionalmente, el peso, separados por espacios o tabuladores; si no hay
+ * peso, el peso es 1. Las líneas vacías y las que empiezan con
+ * <code>#</code> se ignoran.</p>
+ *
+ * <p>El archivo se lee con un {@link FileChannel} mapeado a memoria y se parte
+ * en pedazos que se analizan en paralelo. Los nombres de los vértices se
+ * comparan directamente sobre los bytes del archivo, por lo que sólo se crea
+ * una cadena por vértice distinto y no una por línea; las aristas se guardan
+ * en arreglos primitivos y alimentan a un {@link ConstructorGraficaDirigida}.
+ * La memoria usada crece con la gráfica, no con el tamaño del texto.</p>
+ */
+public class ImportadorAristas {
+
+    /** Tamaño máximo de un pedazo del archivo. */
+    private static final int TRAMO = 1 << 30;
+    /** Longitud máxima de una línea del archivo. */
+    private static final int MARGEN = 1 << 16;
+    /** Tamaño mínimo de archivo para partirlo en varios pedazos. */
+    private static final long MINIMO_PARALELO = 1 << 20;
+
+    /** Pool en el que se analizan los pedazos. */
+    private ForkJoinPool pool;
+
+    /**
+     * Constructor del importador, que analiza en el {@link
+     * ForkJoinPool#commonPool}.
+     */
+    public ImportadorAristas() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor del importador.
+     *
+     * @param pool el pool en el que se analizan los pedazos del archivo.
+     */
+    public ImportadorAristas(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Importa una gráfica cuyos elementos son los nombres de los vértices.
+     *
+     * @param archivo el archivo con la lista de aristas.
+     * @return la gráfica importada.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si alguna línea es inválida, o si
+     *         alguna arista es un lazo, tiene peso no positivo o está repetida.
+     */
+    public GraficaDirigida<String> importa(Path archivo) throws IOException {
+        return importa(archivo, nombre -> nombre);
+    }
+
+    /**
+     * Importa una gráfica, convirtiendo el nombre de cada vértice en su
+     * elemento. La conversión se hace una sola vez por vértice.
+     *
+     * @param <T> el tipo de los elementos.
+     * @param archivo el archivo con la lista de aristas.
+     * @param elementos la conversión de los nombres a elementos.
+     * @return la gráfica importada.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si alguna línea es inválida, si dos
+     *         nombres se convierten en el mismo elemento, o si alguna arista
+     *         es un lazo, tiene peso no positivo o está repetida.
+     */
+    public <T> GraficaDirigida<T> importa(Path archivo,
+                                          Function<String, T> elementos) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            Pedazo[] pedazos = parte(tamano);
+
+            //Analizamos los pedazos en paralelo.
+            try {
+                pool.submit(() -> IntStream.range(0, pedazos.length).parallel().forEach(i -> {
+                    try {
+                        pedazos[i].analiza(canal, tamano);
+                    } catch (IOException ioe) {
+                        throw new UncheckedIOException(ioe);
+                    }
+                })).join();
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+
+            //Juntamos los pedazos, en orden, en un solo constructor.
+            int vertices = 0, aristas = 0;
+            for (Pedazo pedazo : pedazos) {
+                vertices += pedazo.vertices;
+                aristas += pedazo.aristas;
+            }
+            ConstructorGraficaDirigida<T> constructor =
+                new ConstructorGraficaDirigida<>(vertices, aristas);
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < pedazos.length; i++) {
+                pedazos[i].vuelca(constructor, ids, elementos);
+                pedazos[i] = null;
+            }
+            return constructor.construye();
+        }
+    }
+
+    /**
+     * Parte un archivo del tamaño recibido en pedazos consecutivos.
+     *
+     * @param tamano el tamaño del archivo.
+     * @return los pedazos del archivo.
+     */
+    private Pedazo[] parte(long tamano) {
+        long k = tamano < MINIMO_PARALELO ? 1 : pool.getParallelism();
+        k = Math.max(k, (tamano + TRAMO - 1) / TRAMO);
+        k = Math.max(k, 1);
+        Pedazo[] pedazos = new Pedazo[(int)k];
+        for (int i = 0; i < k; i++)
+            pedazos[i] = new Pedazo(tamano * i / k, tamano * (i + 1) / k);
+        return pedazos;
+    }
+
+    /**
+     * Clase interna para los pedazos del archivo. Un pedazo analiza las
+     * líneas que empiezan entre su inicio y su fin, y guarda sus vértices en
+     * una tabla de dispersión propia sobre los bytes del archivo.
+     */
+    private static class Pedazo {
+
+        /** El inicio del pedazo en el archivo. */
+        private final long inicio;
+        /** El fin del pedazo en el archivo. */
+        private final long fin;
+        /** Los bytes mapeados del pedazo. */
+        private MappedByteBuffer bytes;
+        /** El desplazamiento de los bytes mapeados en el archivo. */
+        private long base;
+
+        /** La tabla de dispersión de los vértices; -1 en las casillas libres. */
+        private int[] casillas;
+        /** El inicio del nombre de cada vértice en los bytes mapeados. */
+        private int[] nombres;
+        /** La longitud del nombre de cada vértice. */
+        private int[] longitudes;
+        /** La dispersión del nombre de cada vértice. */
+        private int[] dispersiones;
+        /** El número de vértices del pedazo. */
+        private int vertices;
+
+        /** Los orígenes de las aristas, como vértices del pedazo. */
+        private int[] origenes;
+        /** Los destinos de las aristas, como vértices del pedazo. */
+        private int[] destinos;
+        /** Los pesos de las aristas. */
+        private double[] pesos;
+        /** El número de aristas del pedazo. */
+        private int aristas;
+
+        /**
+         * Construye un pedazo del archivo.
+         *
+         * @param inicio el inicio del pedazo.
+         * @param fin el fin del pedazo.
+         */
+        Pedazo(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+            casillas = new int[1 << 10];
+            Arrays.fill(casillas, -1);
+            nombres = new int[1 << 9];
+            longitudes = new int[1 << 9];
+            dispersiones = new int[1 << 9];
+            origenes = new int[1 << 10];
+            destinos = new int[1 << 10];
+            pesos = new double[1 << 10];
+        }
+
+        /**
+         * Analiza las líneas del pedazo. Se mapea también el byte anterior al
+         * inicio, para saber si el pedazo empieza a mitad de una línea, y
+         * hasta {@link #MARGEN} bytes después del fin, para terminar la
+         * última línea.
+         *
+         * @param canal el canal del archivo.
+         * @param tamano el tamaño del archivo.
+         * @throws IOException si no se puede mapear el pedazo.
+         */
+        void analiza(FileChannel canal, long tamano) throws IOException {
+            if (inicio == fin)
+                return;
+            base = inicio == 0 ? 0 : inicio - 1;
+            long tope = Math.min(tamano, fin + MARGEN);
+            bytes = canal.map(FileChannel.MapMode.READ_ONLY, base, tope - base);
+            int limite = (int)(fin - base);
+            int n = bytes.limit();
+            int p = 0;
+
+            //Si el pedazo empieza a mitad de una línea, esa línea es del anterior.
+            if (inicio > 0) {
+                while (p < n && bytes.get(p) != '\n')
+                    p++;
+                p++;
+            }
+
+            while (p < limite) {
+                int q = p;
+                while (q < n && bytes.get(q) != '\n')
+                    q++;
+                if (q == n && base + n < tamano)
+                    throw new IllegalArgumentException("Línea de más de " + MARGEN +
+                                                       " bytes en el byte " + (base + p));
+                linea(p, q);
+                p = q + 1;
+            }
+        }
+
+        /**
+         * Analiza una línea.
+         *
+         * @param p el inicio de la línea.
+         * @param q el fin de la línea.
+         */
+        private void linea(int p, int q) {
+            p = salta(p, q);
+            if (p == q || bytes.get(p) == '#')
+                return;
+            int finOrigen = token(p, q);
+            int s = salta(finOrigen, q);
+            int finDestino = token(s, q);
+            if (s == finDestino)
+                throw new IllegalArgumentException("Arista sin destino en el byte " + (base + p));
+            int t = salta(finDestino, q);
+            double peso = 1;
+            if (t < q) {
+                int finPeso = token(t, q);
+                peso = peso(t, finPeso);
+                if (salta(finPeso, q) != q)
+                    throw new IllegalArgumentException("Línea inválida en el byte " + (base + p));
+            }
+            if (aristas == origenes.length) {
+                origenes = Arrays.copyOf(origenes, aristas * 2);
+                destinos = Arrays.copyOf(destinos, aristas * 2);
+                pesos = Arrays.copyOf(pesos, aristas * 2);
+            }
+            origenes[aristas] = interna(p, finOrigen);
+            destinos[aristas] = interna(s, finDestino);
+            pesos[aristas++] = peso;
+        }
+
+        /**
+         * Regresa la posición del primer byte que no es blanco a partir de p.
+         *
+         * @param p la posición inicial.
+         * @param q el fin de la línea.
+         * @return la posición del primer byte que no es blanco, o q.
+         */
+        private int salta(int p, int q) {
+            while (p < q && esBlanco(bytes.get(p)))
+                p++;
+            return p;
+        }
+
+        /**
+         * Regresa la posición del primer blanco a partir de p.
+         *
+         * @param p la posición inicial.
+         * @param q el fin de la línea.
+         * @return la posición del primer blanco, o q.
+         */
+        private int token(int p, int q) {
+            while (p < q && !esBlanco(bytes.get(p)))
+                p++;
+            return p;
+        }
+
+        /**
+         * Nos dice si un byte es un blanco.
+         *
+         * @param b el byte.
+         * @return <code>true</code> si el byte es un espacio, un tabulador o
+         *         un retorno de carro.
+         */
+        private static boolean esBlanco(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        /**
+         * Analiza el peso entre p y q. Los decimales con a lo más quince
+         * cifras y exponentes pequeños se convierten directamente de los
+         * bytes, con el mismo redondeo que {@link Double#parseDouble}; el
+         * resto se deja a {@link Double#parseDouble}.
+         *
+         * @param p el inicio del peso.
+         * @param q el fin del peso.
+         * @return el peso.
+         */
+        private double peso(int p, int q) {
+            int i = p;
+            boolean negativo = false;
+            if (i < q && (bytes.get(i) == '-' || bytes.get(i) == '+'))
+                negativo = bytes.get(i++) == '-';
+            long mantisa = 0;
+            int cifras = 0, escala = 0;
+            boolean punto = false, alguna = false;
+            for (; i < q; i++) {
+                byte b = bytes.get(i);
+                if (b >= '0' && b <= '9') {
+                    alguna = true;
+                    if (mantisa == 0 && b == '0') {
+                        if (punto)
+                            escala--;
+                        continue;
+                    }
+                    mantisa = mantisa * 10 + (b - '0');
+                    cifras++;
+                    if (punto)
+                        escala--;
+                } else if (b == '.' && !punto) {
+                    punto = true;
+                } else {
+                    break;
+                }
+            }
+            if (i < q && alguna && (bytes.get(i) == 'e' || bytes.get(i) == 'E')) {
+                int j = i + 1;
+                boolean negativa = false;
+                if (j < q && (bytes.get(j) == '-' || bytes.get(j) == '+'))
+                    negativa = bytes.get(j++) == '-';
+                int exponente = 0;
+                int k = j;
+                for (; k < q && bytes.get(k) >= '0' && bytes.get(k) <= '9' && exponente < 10000; k++)
+                    exponente = exponente * 10 + (bytes.get(k) - '0');
+                if (k > j) {
+                    escala += negativa ? -exponente : exponente;
+                    i = k;
+                }
+            }
+            if (i != q || !alguna || cifras > 15 || escala < -22 || escala > 22)
+                return lento(p, q);
+            double valor = escala < 0 ? mantisa / POTENCIAS[-escala]
+                                      : mantisa * POTENCIAS[escala];
+            return negativo ? -valor : valor;
+        }
+
+        /** Las potencias de diez que se representan sin error. */
+        private static final double[] POTENCIAS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        /**
+         * Analiza el peso entre p y q con {@link Double#parseDouble}.
+         *
+         * @param p el inicio del peso.
+         * @param q el fin del peso.
+         * @return el peso.
+         */
+        private double lento(int p, int q) {
+            String texto = cadena(p, q - p);
+            try {
+                return Double.parseDouble(texto);
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("Peso inválido en el byte " +
+                                                   (base + p) + ": " + texto);
+            }
+        }
+
+        /**
+         * Regresa el vértice del pedazo con el nombre entre p y q,
+         * agregándolo si hace falta.
+         *
+         * @param p el inicio del nombre.
+         * @param q el fin del nombre.
+         * @return el vértice del pedazo.
+         */
+        private int interna(int p, int q) {
+            int h = 0x811c9dc5;
+            for (int i = p; i < q; i++)
+                h = (h ^ bytes.get(i)) * 0x01000193;
+            int mascara = casillas.length - 1;
+            int c = h & mascara;
+            while (casillas[c] != -1) {
+                int v = casillas[c];
+                if (dispersiones[v] == h && iguales(v, p, q))
+                    return v;
+                c = (c + 1) & mascara;
+            }
+            if (vertices == nombres.length) {
+                nombres = Arrays.copyOf(nombres, vertices * 2);
+                longitudes = Arrays.copyOf(longitudes, vertices * 2);
+                dispersiones = Arrays.copyOf(dispersiones, vertices * 2);
+            }
+            nombres[vertices] = p;
+            longitudes[vertices] = q - p;
+            dispersiones[vertices] = h;
+            casillas[c] = vertices;
+            if (++vertices * 2 > casillas.length)
+                crece();
+            return vertices - 1;
+        }
+
+        /**
+         * Nos dice si el nombre del vértice es igual a los bytes entre p y q.
+         *
+         * @param v el vértice.
+         * @param p el inicio de los bytes.
+         * @param q el fin de los bytes.
+         * @return <code>true</code> si son iguales.
+         */
+        private boolean iguales(int v, int p, int q) {
+            if (longitudes[v] != q - p)
+                return false;
+            for (int i = 0, j = nombres[v]; i < q - p; i++, j++)
+                if (bytes.get(p + i) != bytes.get(j))
+                    return false;
+            return true;
+        }
+
+        /**
+         * Duplica la tabla de dispersión.
+         */
+        private void crece() {
+            casillas = new int[casillas.length * 2];
+            Arrays.fill(casillas, -1);
+            int mascara = casillas.length - 1;
+            for (int v = 0; v < vertices; v++) {
+                int c = dispersiones[v] & mascara;
+                while (casillas[c] != -1)
+                    c = (c + 1) & mascara;
+                casillas[c] = v;
+            }
+        }
+
+        /**
+         * Regresa la cadena de los bytes a partir de p.
+         *
+         * @param p el inicio de los bytes.
+         * @param longitud el número de bytes.
+         * @return la cadena, en UTF-8.
+         */
+        private String cadena(int p, int longitud) {
+            byte[] arreglo = new byte[longitud];
+            for (int i = 0; i < longitud; i++)
+                arreglo[i] = bytes.get(p + i);
+            return new String(arreglo, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Agrega los vértices y aristas del pedazo al constructor. Cada vértice
+         * del pedazo se convierte en cadena una sola vez.
+         *
+         * @param <T> el tipo de los elementos.
+         * @param constructor el constructor de la gráfica.
+         * @param ids los identificadores de los nombres ya agregados.
+         * @param elementos la conversión de los nombres a elementos.
+         */
+        <T> void vuelca(ConstructorGraficaDirigida<T> constructor,
+                        Map<String, Integer> ids,
+                        Function<String, T> elementos) {
+            int[] globales = new int[vertices];
+            for (int v = 0; v < vertices; v++) {
+                String nombre = cadena(nombres[v], longitudes[v]);
+                Integer id = ids.get(nombre);
+                if (id == null) {
+                    id = constructor.getElementos();
+                    constructor.agrega(elementos.apply(nombre));
+                    ids.put(nombre, id);
+                }
+                globales[v] = id;
+            }
+            for (int i = 0; i < aristas; i++)
+                constructor.conectaPorId(globales[origenes[i]], globales[destinos[i]], pesos[i]);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package mx.unam.ciencias.edd.pruebas;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoArbolGenerador;
+import mx.unam.ciencias.edd.ArbolGeneradorMinimo;
+import mx.unam.ciencias.edd.Grafica;
+
+/**
+ * Compara los tiempos de Kruskal, Prim y Borůvka para calcular árboles
+ * generadores de peso mínimo en gráficas aleatorias. Recibe el número de
+ * vértices y el de aristas; por omisión usa 100,000 vértices y 1,000,000 de
+ * aristas. Borůvka usa todos los núcleos del {@link
+ * java.util.concurrent.ForkJoinPool#commonPool}.
+ */
+public class ComparaArbolesGeneradores {
+
+    /* Número de veces que se corre cada algoritmo. */
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        if (m > (long)n * (n - 1) / 2) {
+            System.err.println("Demasiadas aristas para " + n + " vértices.");
+            System.exit(1);
+        }
+
+        //Construimos la gráfica aleatoria.
+        Random random = new Random(1);
+        Grafica<Integer> grafica = new Grafica<>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        while (grafica.getAristas() < m) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinosPorId(a, b))
+                grafica.conectaPorId(a, b, 1 + random.nextInt(1000000));
+        }
+        System.out.printf("%d vértices, %d aristas; se elige %s.%n", n, m,
+                          AlgoritmoArbolGenerador.elige(n, m));
+
+        for (AlgoritmoArbolGenerador algoritmo : AlgoritmoArbolGenerador.values()) {
+            long mejor = Long.MAX_VALUE;
+            double peso = 0;
+            for (int r = 0; r < REPETICIONES; r++) {
+                long inicio = System.nanoTime();
+                ArbolGeneradorMinimo<Integer> arbol = grafica.arbolGeneradorMinimo(algoritmo);
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+                peso = arbol.getPeso();
+            }
+            System.out.printf("%-8s %8.1f ms  peso %.0f%n", algoritmo,
+                              mejor / 1e6, peso);
+        }
+    }
+}
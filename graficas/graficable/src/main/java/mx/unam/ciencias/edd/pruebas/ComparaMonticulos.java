@@ -0,0 +1,174 @@
+package mx.unam.ciencias.edd.pruebas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import mx.unam.ciencias.edd.ConIndice;
+import mx.unam.ciencias.edd.MonticuloArreglo;
+import mx.unam.ciencias.edd.MonticuloCuaternario;
+import mx.unam.ciencias.edd.MonticuloDial;
+import mx.unam.ciencias.edd.MonticuloDijkstra;
+import mx.unam.ciencias.edd.MonticuloEmparejamiento;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import mx.unam.ciencias.edd.MonticuloRadix;
+
+/**
+ * Compara los tiempos del algoritmo de Dijkstra con cada implementación de
+ * {@link MonticuloDijkstra}, en una gráfica dirigida aleatoria dispersa y en
+ * otra densa, con pesos enteros entre 1 y {@link MonticuloDial#PESO_MAXIMO}.
+ * Recibe el número de vértices de la gráfica dispersa y el de la densa; por
+ * omisión usa 100,000 vértices con 4 aristas cada uno, y 2,000 vértices con
+ * la mitad de todas las aristas posibles. El montículo de arreglo sólo se
+ * prueba con a lo más {@link #MAXIMO_ARREGLO} vértices.
+ */
+public class ComparaMonticulos {
+
+    /* Número de veces que se corre cada algoritmo. */
+    private static final int REPETICIONES = 5;
+    /* Número de vértices a partir del cual no se prueba el montículo de
+     * arreglo, que es cuadrático. */
+    private static final int MAXIMO_ARREGLO = 10000;
+
+    /* Vértice del algoritmo de Dijkstra. */
+    private static class Nodo implements Comparable<Nodo>, ConIndice {
+
+        /* El índice del vértice. */
+        private final int vertice;
+        /* La distancia al origen. */
+        private double distancia;
+        /* La posición en el montículo. */
+        private int indice;
+
+        /* Construye un nodo para el vértice. */
+        private Nodo(int vertice) {
+            this.vertice = vertice;
+            indice = -1;
+        }
+
+        @Override public int compareTo(Nodo nodo) {
+            return Double.compare(distancia, nodo.distancia);
+        }
+
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+    }
+
+    /* Gráfica dirigida en arreglos: las aristas del vértice v son las de
+     * inicios[v] a inicios[v+1]-1. */
+    private static class Congelada {
+
+        private final int n;
+        private final int[] inicios;
+        private final int[] destinos;
+        private final double[] pesos;
+
+        /* Construye una gráfica aleatoria con n vértices y m aristas por
+         * vértice. */
+        private Congelada(int n, int m, Random random) {
+            this.n = n;
+            inicios = new int[n + 1];
+            destinos = new int[n * m];
+            pesos = new double[n * m];
+            boolean[] usados = new boolean[n];
+            int a = 0;
+            for (int v = 0; v < n; v++) {
+                inicios[v] = a;
+                while (a < inicios[v] + m) {
+                    int u = random.nextInt(n);
+                    if (u == v || usados[u])
+                        continue;
+                    usados[u] = true;
+                    destinos[a] = u;
+                    pesos[a++] = 1 + random.nextInt(MonticuloDial.PESO_MAXIMO);
+                }
+                for (int i = inicios[v]; i < a; i++)
+                    usados[destinos[i]] = false;
+            }
+            inicios[n] = a;
+        }
+    }
+
+    /* Regresa la suma de las distancias finitas desde el vértice 0, usando
+     * el montículo que construye la fábrica. */
+    private static double dijkstra(Congelada g,
+                                   Function<List<Nodo>, MonticuloDijkstra<Nodo>> fabrica) {
+        List<Nodo> nodos = new ArrayList<>(g.n);
+        for (int v = 0; v < g.n; v++) {
+            Nodo nodo = new Nodo(v);
+            nodo.distancia = v == 0 ? 0 : Double.POSITIVE_INFINITY;
+            nodos.add(nodo);
+        }
+        MonticuloDijkstra<Nodo> m = fabrica.apply(nodos);
+        double suma = 0;
+        while (!m.esVacia()) {
+            Nodo u = m.elimina();
+            if (u.distancia == Double.POSITIVE_INFINITY)
+                break;
+            suma += u.distancia;
+            for (int a = g.inicios[u.vertice]; a < g.inicios[u.vertice + 1]; a++) {
+                Nodo v = nodos.get(g.destinos[a]);
+                double d = u.distancia + g.pesos[a];
+                if (d < v.distancia) {
+                    v.distancia = d;
+                    m.reordena(v);
+                }
+            }
+        }
+        return suma;
+    }
+
+    /* Corre y mide el algoritmo de Dijkstra con cada montículo. */
+    private static void compara(String nombre, Congelada g) {
+        System.out.printf("%s: %d vértices, %d aristas.%n", nombre, g.n,
+                          g.inicios[g.n]);
+        List<String> nombres = new ArrayList<>();
+        List<Function<List<Nodo>, MonticuloDijkstra<Nodo>>> fabricas = new ArrayList<>();
+        if (g.n <= MAXIMO_ARREGLO) {
+            nombres.add("Arreglo");
+            fabricas.add(l -> new MonticuloArreglo<>(l, l.size()));
+        }
+        nombres.add("Binario");
+        fabricas.add(l -> new MonticuloMinimo<>(l, l.size()));
+        nombres.add("Cuaternario");
+        fabricas.add(l -> new MonticuloCuaternario<>(l, l.size()));
+        nombres.add("Emparejamiento");
+        fabricas.add(l -> new MonticuloEmparejamiento<>(l, l.size()));
+        nombres.add("Radix");
+        fabricas.add(l -> new MonticuloRadix<>(l, l.size(), e -> e.vertice,
+                                               e -> e.distancia));
+        nombres.add("Dial");
+        fabricas.add(l -> new MonticuloDial<>(l, l.size(), e -> e.vertice,
+                                              e -> e.distancia,
+                                              MonticuloDial.PESO_MAXIMO));
+
+        for (int i = 0; i < fabricas.size(); i++) {
+            long mejor = Long.MAX_VALUE;
+            double suma = 0;
+            for (int r = 0; r < REPETICIONES; r++) {
+                long inicio = System.nanoTime();
+                suma = dijkstra(g, fabricas.get(i));
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+            }
+            System.out.printf("  %-15s %8.1f ms  suma %.0f%n", nombres.get(i),
+                              mejor / 1e6, suma);
+        }
+    }
+
+    public static void main(String[] args) {
+        int dispersa = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int densa = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        if (dispersa < 5 || densa < 3) {
+            System.err.println("Muy pocos vértices.");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        compara("Dispersa", new Congelada(dispersa, 4, random));
+        compara("Densa", new Congelada(densa, (densa - 1) / 2, random));
+    }
+}
@@ -0,0 +1,104 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.CombinadorGraficas;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.PoliticaConflicto;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CombinadorGraficas}.
+ */
+public class TestCombinadorGraficas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Las gráficas a combinar. */
+    private List<GraficaDirigida<Integer>> graficas;
+
+    /**
+     * Crea gráficas aleatorias que comparten vértices y aristas.
+     */
+    public TestCombinadorGraficas() {
+        random = new Random();
+        total = 10 + random.nextInt(50);
+        graficas = new ArrayList<GraficaDirigida<Integer>>();
+        int k = 2 + random.nextInt(6);
+        for (int g = 0; g < k; g++) {
+            GraficaDirigida<Integer> grafica = new GraficaDirigida<Integer>();
+            for (int i = 0; i < total; i++) {
+                int e = random.nextBoolean() ? i : random.nextInt(total * 2);
+                if (!grafica.contiene(e))
+                    grafica.agrega(e);
+            }
+            List<Integer> elementos = grafica.obtenerElementos();
+            for (int i = 0; i < total * 2; i++) {
+                int a = elementos.get(random.nextInt(elementos.size()));
+                int b = elementos.get(random.nextInt(elementos.size()));
+                if (a != b && !grafica.sonVecinos(a, b))
+                    grafica.conecta(a, b, 1 + random.nextInt(10));
+            }
+            graficas.add(grafica);
+        }
+    }
+
+    /* Verifica la combinación con la política recibida. */
+    private void verifica(GraficaDirigida<Integer> combinada,
+                          PoliticaConflicto politica) {
+        Set<Integer> elementos = new HashSet<Integer>();
+        Map<List<Integer>, Double> aristas = new HashMap<List<Integer>, Double>();
+        for (GraficaDirigida<Integer> grafica : graficas) {
+            elementos.addAll(grafica.obtenerElementos());
+            for (Integer a : grafica.obtenerElementos())
+                for (Integer b : grafica.obtenerVecinos(a))
+                    aristas.merge(Arrays.asList(a, b), grafica.getPeso(a, b),
+                                  politica::resuelve);
+        }
+        Assert.assertEquals(elementos.size(), combinada.getElementos());
+        Assert.assertEquals(aristas.size(), combinada.getAristas());
+        for (Integer e : elementos)
+            Assert.assertTrue(combinada.contiene(e));
+        for (Map.Entry<List<Integer>, Double> arista : aristas.entrySet()) {
+            int a = arista.getKey().get(0), b = arista.getKey().get(1);
+            Assert.assertTrue(combinada.sonVecinos(a, b));
+            Assert.assertTrue(arista.getValue() == combinada.getPeso(a, b));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link CombinadorGraficas#combina} con cada
+     * política.
+     */
+    @Test public void testCombina() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            CombinadorGraficas<Integer> combinador = new CombinadorGraficas<Integer>()
+                .setPool(pool);
+            for (PoliticaConflicto politica : PoliticaConflicto.values())
+                verifica(combinador.setPolitica(politica).combina(graficas), politica);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#combinarGraficas}.
+     */
+    @Test public void testCombinarGraficas() {
+        GraficaDirigida<Integer> combinada =
+            new GraficaDirigida<Integer>().combinarGraficas(graficas);
+        verifica(combinada, PoliticaConflicto.PRIMERO);
+        combinada = new GraficaDirigida<Integer>()
+            .combinarGraficas(graficas, PoliticaConflicto.MINIMO);
+        verifica(combinada, PoliticaConflicto.MINIMO);
+    }
+}
@@ -0,0 +1,117 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ConstructorGraficaDirigida;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConstructorGraficaDirigida}.
+ */
+public class TestConstructorGraficaDirigida {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El constructor. */
+    private ConstructorGraficaDirigida<Integer> constructor;
+
+    /**
+     * Crea un constructor para cada prueba.
+     */
+    public TestConstructorGraficaDirigida() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        constructor = new ConstructorGraficaDirigida<Integer>(total, total * 3);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConstructorGraficaDirigida#construye}.
+     */
+    @Test public void testConstruye() {
+        GraficaDirigida<Integer> grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            constructor.agrega(i);
+        }
+        for (int i = 0; i < total * 4; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b)) {
+                double peso = 1 + random.nextInt(100);
+                grafica.conecta(a, b, peso);
+                constructor.conecta(a, b, peso);
+            }
+        }
+        GraficaDirigida<Integer> construida = constructor.construye();
+        Assert.assertEquals(grafica, construida);
+        Assert.assertEquals(grafica.getAristas(), construida.getAristas());
+        Assert.assertEquals(constructor.getAristas(), construida.getAristas());
+        for (int i = 0; i < total; i++) {
+            Assert.assertEquals(i, construida.id(i));
+            Assert.assertEquals(grafica.vertice(i).getGrado(),
+                                construida.vertice(i).getGrado());
+            for (int j = 0; j < total; j++)
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(grafica.getPeso(i, j) ==
+                                      construida.getPeso(i, j));
+            Assert.assertEquals(grafica.dijkstraElementos(0, i),
+                                construida.dijkstraElementos(0, i));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ConstructorGraficaDirigida#conecta} con
+     * elementos que no se habían agregado.
+     */
+    @Test public void testConectaAgrega() {
+        constructor.conecta(1, 2, 1).conecta(2, 3, 2);
+        Assert.assertEquals(3, constructor.getElementos());
+        GraficaDirigida<Integer> grafica = constructor.construye();
+        Assert.assertTrue(grafica.sonVecinos(1, 2));
+        Assert.assertTrue(grafica.sonVecinos(2, 3));
+        Assert.assertFalse(grafica.sonVecinos(2, 1));
+        Assert.assertTrue(grafica.getPeso(2, 3) == 2);
+        grafica.agrega(4);
+        grafica.conecta(3, 4);
+        Assert.assertEquals(3, grafica.getAristas());
+    }
+
+    /**
+     * Prueba unitaria para las validaciones de {@link
+     * ConstructorGraficaDirigida}.
+     */
+    @Test public void testValidaciones() {
+        constructor.agrega(0);
+        try {
+            constructor.agrega(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            constructor.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            constructor.conecta(0, 0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            constructor.conecta(0, 1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        constructor.conecta(0, 1, 1);
+        constructor.construye();
+        constructor.conecta(0, 1, 2);
+        try {
+            constructor.construye();
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -2,8 +2,17 @@ package mx.unam.ciencias.edd.test;
 
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
+import mx.unam.ciencias.edd.AlgoritmoArbolGenerador;
+import mx.unam.ciencias.edd.ArbolGeneradorMinimo;
+import mx.unam.ciencias.edd.ArbolDistancias;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.MonticuloArreglo;
+import mx.unam.ciencias.edd.MonticuloDial;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import mx.unam.ciencias.edd.MonticuloRadix;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -674,4 +683,326 @@ public class TestGrafica {
             Assert.assertTrue(lista.equals(dijkstra));
         }
     }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstra} después de eliminar
+     * vértices.
+     */
+    @Test public void testDijkstraElimina() {
+        if (total < 3)
+            total += 3;
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        grafica.agrega(-1);
+        grafica.conecta(-1, 0);
+        grafica.elimina(-1);
+        List<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(0, total-1);
+        Assert.assertTrue(dijkstra.size() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(dijkstra.get(i).get() == i);
+        grafica.elimina(total/2);
+        Assert.assertTrue(grafica.dijkstra(0, total-1).isEmpty());
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#arbolDistancias}.
+     */
+    @Test public void testArbolDistancias() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 2; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+        ArbolDistancias<Integer> arbol = grafica.arbolDistancias(0);
+        for (int i = 0; i < total; i++) {
+            List<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(0, i);
+            List<Integer> trayectoria = arbol.trayectoria(i);
+            Assert.assertEquals(!dijkstra.isEmpty(), arbol.alcanza(i));
+            if (dijkstra.isEmpty()) {
+                Assert.assertTrue(trayectoria.isEmpty());
+                Assert.assertTrue(arbol.distancia(i) == Double.POSITIVE_INFINITY);
+                continue;
+            }
+            double esperado = 0, peso = 0;
+            for (int j = 1; j < dijkstra.size(); j++)
+                esperado += grafica.getPeso(dijkstra.get(j-1).get(),
+                                            dijkstra.get(j).get());
+            for (int j = 1; j < trayectoria.size(); j++)
+                peso += grafica.getPeso(trayectoria.get(j-1), trayectoria.get(j));
+            Assert.assertTrue(esperado == peso);
+            Assert.assertTrue(peso == arbol.distancia(i));
+            Assert.assertEquals(0, (int)trayectoria.get(0));
+            Assert.assertEquals(i, (int)trayectoria.get(trayectoria.size()-1));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#getMonticuloDijkstra}: el
+     * montículo cambia cuando cambian los pesos, y con cada uno {@link
+     * Grafica#arbolDistancias} regresa las mismas distancias.
+     */
+    @Test public void testGetMonticuloDijkstra() {
+        total = 10 + random.nextInt(100);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        //Una trayectoria 0 - 1 - ... - (total-1) con pesos de 1 a 20.
+        int[] pesos = new int[total];
+        for (int i = 1; i < total; i++) {
+            pesos[i] = 1 + random.nextInt(20);
+            grafica.conecta(i-1, i, pesos[i]);
+        }
+        Assert.assertSame(MonticuloDial.class, grafica.getMonticuloDijkstra());
+        revisaTrayectoria(pesos);
+        grafica.setPeso(0, 1, pesos[1] = MonticuloDial.PESO_MAXIMO + 1);
+        Assert.assertSame(MonticuloRadix.class, grafica.getMonticuloDijkstra());
+        revisaTrayectoria(pesos);
+        grafica.setPeso(0, 1, pesos[1] = MonticuloDial.PESO_MAXIMO);
+        Assert.assertSame(MonticuloDial.class, grafica.getMonticuloDijkstra());
+        revisaTrayectoria(pesos);
+        //Una arista fraccionaria, que no acorta la trayectoria.
+        grafica.conecta(0, total-1, 1e9 + 0.5);
+        Assert.assertSame(MonticuloMinimo.class, grafica.getMonticuloDijkstra());
+        revisaTrayectoria(pesos);
+        grafica.desconecta(0, total-1);
+        Assert.assertSame(MonticuloDial.class, grafica.getMonticuloDijkstra());
+        revisaTrayectoria(pesos);
+        //Una gráfica completa con pesos fraccionarios.
+        grafica.limpia();
+        for (int i = 0; i < 10; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 10; i++)
+            for (int j = i + 1; j < 10; j++)
+                grafica.conecta(i, j, j - i + 0.5);
+        Assert.assertSame(MonticuloArreglo.class, grafica.getMonticuloDijkstra());
+        ArbolDistancias<Integer> arbol = grafica.arbolDistancias(0);
+        for (int i = 1; i < 10; i++)
+            Assert.assertTrue(i + 0.5 == arbol.distancia(i));
+    }
+
+    /* Revisa las distancias desde 0 en la trayectoria con los pesos. */
+    private void revisaTrayectoria(int[] pesos) {
+        ArbolDistancias<Integer> arbol = grafica.arbolDistancias(0);
+        double distancia = 0;
+        for (int i = 0; i < total; i++) {
+            distancia += pesos[i];
+            Assert.assertTrue(distancia == arbol.distancia(i));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dfsInt}, incluyendo recorridos
+     * anidados dentro de la acción.
+     */
+    @Test public void testDfsInt() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i += 2)
+            grafica.conecta(i-1, i);
+        Assert.assertEquals(1 + (total > 1 ? 1 : 0), grafica.dfsInt(0, v -> {}));
+        int[] anidados = { 0 };
+        int visitados = grafica.dfsInt(total-1, v -> {
+                anidados[0] += grafica.dfsInt(v.get(), w -> {});
+            });
+        Assert.assertEquals(visitados * visitados, anidados[0]);
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#componente}, {@link
+     * Grafica#mismosComponentes} y {@link Grafica#getComponentes}.
+     */
+    @Test public void testComponentes() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Assert.assertEquals(total, grafica.getComponentes());
+        for (int i = 0; i < total; i++)
+            Assert.assertEquals(1, grafica.tamanoComponente(i));
+        for (int i = 0; i < total; i++) {
+            int j = random.nextInt(total);
+            if (i != j && !grafica.sonVecinos(i, j))
+                grafica.conecta(i, j);
+            revisaComponentes();
+        }
+        for (int i = 0; i < total/2; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (grafica.sonVecinos(a, b) || a == b)
+                continue;
+            grafica.conecta(a, b);
+            Assert.assertTrue(grafica.mismosComponentes(a, b));
+            grafica.desconecta(a, b);
+            revisaComponentes();
+        }
+        grafica.elimina(total-1);
+        revisaComponentes();
+        grafica.agrega(total-1);
+        revisaComponentes();
+        grafica.limpia();
+        Assert.assertEquals(0, grafica.getComponentes());
+        try {
+            grafica.componente(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#arbolGeneradorMinimo}.
+     */
+    @Test public void testArbolGeneradorMinimo() {
+        for (int i = 0; i < 4; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1, 4);
+        grafica.conecta(1, 2, 1);
+        grafica.conecta(2, 3, 2);
+        grafica.conecta(3, 0, 3);
+        grafica.conecta(0, 2, 5);
+        for (AlgoritmoArbolGenerador algoritmo : AlgoritmoArbolGenerador.values()) {
+            ArbolGeneradorMinimo<Integer> arbol = grafica.arbolGeneradorMinimo(algoritmo);
+            Assert.assertEquals(3, arbol.getAristas());
+            Assert.assertEquals(6.0, arbol.getPeso(), 0.0);
+            Grafica<Integer> g = arbol.getGrafica();
+            Assert.assertTrue(g.sonVecinos(1, 2));
+            Assert.assertTrue(g.sonVecinos(2, 3));
+            Assert.assertTrue(g.sonVecinos(3, 0));
+        }
+
+        grafica.limpia();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(20));
+        }
+        ArbolGeneradorMinimo<Integer> kruskal =
+            grafica.arbolGeneradorMinimo(AlgoritmoArbolGenerador.KRUSKAL);
+        ArbolGeneradorMinimo<Integer> prim =
+            grafica.arbolGeneradorMinimo(AlgoritmoArbolGenerador.PRIM);
+        Assert.assertEquals(kruskal.getPeso(), prim.getPeso(), 0.0);
+        Assert.assertEquals(kruskal.getPeso(), grafica.arbolGeneradorMinimo().getPeso(), 0.0);
+        for (ArbolGeneradorMinimo<Integer> arbol : Arrays.asList(kruskal, prim)) {
+            Assert.assertEquals(grafica.getComponentes(), arbol.getArboles());
+            Grafica<Integer> bosque = arbol.getGrafica();
+            Assert.assertEquals(grafica.getComponentes(), bosque.getComponentes());
+            int[] origenes = arbol.origenes();
+            int[] destinos = arbol.destinos();
+            double[] pesos = arbol.pesos();
+            for (int i = 0; i < arbol.getAristas(); i++)
+                Assert.assertEquals(grafica.getPesoPorId(origenes[i], destinos[i]),
+                                    pesos[i], 0.0);
+        }
+    }
+
+    /**
+     * Prueba unitaria para consultar las componentes desde varios hilos
+     * después de desconectar y eliminar.
+     */
+    @Test public void testComponentesConcurrentes() {
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        for (int i = 0; i < n / 10; i++) {
+            int a = random.nextInt(n);
+            for (Integer b : new ArrayList<Integer>(grafica.obtenerVecinos(a)))
+                grafica.desconecta(a, b);
+        }
+        grafica.elimina(n - 1);
+        int[] representantes = new int[n - 1];
+        for (int i = 0; i < n - 1; i++)
+            representantes[i] = grafica.componente(i);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            pool.submit(() -> IntStream.range(0, n - 1).parallel().forEach(i -> {
+                Assert.assertEquals(representantes[i], grafica.componente(i));
+                for (int j = 0; j < n - 1; j += 7)
+                    Assert.assertEquals(representantes[i] == representantes[j],
+                                        grafica.mismosComponentes(i, j));
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link AlgoritmoArbolGenerador#BORUVKA} con varios
+     * hilos y muchos pesos repetidos.
+     */
+    @Test public void testArbolGeneradorMinimoBoruvka() {
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n * 4; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinosPorId(a, b))
+                grafica.conectaPorId(a, b, 1 + random.nextInt(3));
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ArbolGeneradorMinimo<Integer> boruvka =
+                grafica.arbolGeneradorMinimo(AlgoritmoArbolGenerador.BORUVKA, pool);
+            ArbolGeneradorMinimo<Integer> kruskal =
+                grafica.arbolGeneradorMinimo(AlgoritmoArbolGenerador.KRUSKAL);
+            Assert.assertEquals(kruskal.getPeso(), boruvka.getPeso(), 0.0);
+            Assert.assertEquals(kruskal.getAristas(), boruvka.getAristas());
+            Assert.assertEquals(grafica.getComponentes(),
+                                boruvka.getGrafica().getComponentes());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#getGrado(int)} y {@link
+     * Grafica#vecinos(int,int[],int)}.
+     */
+    @Test public void testVecinosEnArreglo() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 2; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinosPorId(a, b))
+                grafica.conectaPorId(a, b, 1);
+        }
+        int[] ids = new int[total + 1];
+        for (int i = 0; i < total; i++) {
+            int[] vecinos = grafica.vecinos(i);
+            Assert.assertEquals(grafica.vertice(grafica.elemento(i)).getGrado(),
+                                grafica.getGrado(i));
+            Assert.assertEquals(vecinos.length, grafica.getGrado(i));
+            Assert.assertEquals(vecinos.length, grafica.vecinos(i, ids, 1));
+            for (int x = 0; x < vecinos.length; x++) {
+                Assert.assertEquals(vecinos[x], ids[1 + x]);
+                Assert.assertTrue(grafica.sonVecinosPorId(i, ids[1 + x]));
+            }
+        }
+    }
+
+    /* Compara las componentes con las que calcula BFS. */
+    private void revisaComponentes() {
+        Set<Integer> representantes = new HashSet<>();
+        for (Integer a : grafica) {
+            Set<Integer> alcanzados = new HashSet<>();
+            grafica.bfs(a, v -> alcanzados.add(v.get()));
+            Assert.assertEquals(alcanzados.size(), grafica.tamanoComponente(a));
+            for (Integer b : grafica)
+                Assert.assertEquals(alcanzados.contains(b),
+                                    grafica.mismosComponentes(a, b));
+            representantes.add(grafica.componente(a));
+        }
+        Assert.assertEquals(representantes.size(), grafica.getComponentes());
+        Assert.assertEquals(grafica.getComponentes() == 1, grafica.esConexa());
+    }
 }
@@ -0,0 +1,298 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaCongelada}.
+ */
+public class TestGraficaCongelada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaDirigida<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestGraficaCongelada() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#congela}.
+     */
+    @Test public void testCongela() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Assert.assertEquals(grafica.getElementos(), congelada.getElementos());
+        Assert.assertEquals(grafica.getAristas(), congelada.getAristas());
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(congelada.contiene(i));
+            Assert.assertEquals(i, (int)congelada.elemento(congelada.id(i)));
+            Assert.assertEquals(grafica.vertice(i).getGrado(),
+                                congelada.vertice(i).getGrado());
+            for (int j = 0; j < total; j++) {
+                if (i == j)
+                    continue;
+                Assert.assertEquals(grafica.sonVecinos(i, j),
+                                    congelada.sonVecinos(i, j));
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(grafica.getPeso(i, j) ==
+                                      congelada.getPeso(i, j));
+            }
+        }
+        Assert.assertFalse(congelada.contiene(-1));
+        try {
+            congelada.id(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para verificar que la gráfica congelada conserva los
+     * identificadores de la gráfica original.
+     */
+    @Test public void testIdentificadores() {
+        //Con cadenas, el orden del diccionario de vértices no es el de
+        //los identificadores.
+        GraficaDirigida<String> g = new GraficaDirigida<String>();
+        for (int i = 0; i < total; i++)
+            g.agrega("v" + random.nextInt(total * 10) + "_" + i);
+        List<String> elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++)
+            elementos.add(g.elemento(i));
+        for (int i = 0; i < total * 3; i++) {
+            String a = elementos.get(random.nextInt(total));
+            String b = elementos.get(random.nextInt(total));
+            if (!a.equals(b) && !g.sonVecinos(a, b))
+                g.conecta(a, b, 1 + random.nextInt(100));
+        }
+        GraficaCongelada<String> congelada = g.congela();
+        for (String a : elementos) {
+            Assert.assertEquals(g.id(a), congelada.id(a));
+            for (String b : elementos)
+                if (g.sonVecinos(a, b))
+                    Assert.assertTrue(congelada.sonVecinos(a, b));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * GraficaDirigida#vecinos(int,int[],double[],int)} y {@link
+     * GraficaCongelada#vecinos(int,int[],double[],int)}: escriben las mismas
+     * aristas que {@link GraficaDirigida#vecinos(int)} y {@link
+     * GraficaDirigida#pesos(int)} en la posición pedida.
+     */
+    @Test public void testVecinosEnArreglo() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int[] ids = new int[total + 1];
+        double[] pesos = new double[total + 1];
+        for (int i = 0; i < total; i++) {
+            int[] vecinos = grafica.vecinos(i);
+            double[] ps = grafica.pesos(i);
+            Assert.assertEquals(vecinos.length, grafica.getGrado(i));
+            Assert.assertEquals(vecinos.length, congelada.getGrado(i));
+            Assert.assertEquals(vecinos.length, grafica.vecinos(i, ids, pesos, 1));
+            for (int x = 0; x < vecinos.length; x++) {
+                Assert.assertEquals(vecinos[x], ids[1 + x]);
+                Assert.assertTrue(ps[x] == pesos[1 + x]);
+            }
+            Arrays.fill(ids, -1);
+            Assert.assertEquals(vecinos.length, congelada.vecinos(i, null, pesos, 0));
+            Assert.assertEquals(-1, ids[0]);
+            for (int x = 0; x < vecinos.length; x++)
+                Assert.assertTrue(ps[x] == pesos[x]);
+            Assert.assertEquals(vecinos.length, congelada.vecinos(i, ids, null, 0));
+            Assert.assertArrayEquals(congelada.vecinos(i),
+                                     Arrays.copyOf(ids, vecinos.length));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#apuntadores} y {@link
+     * GraficaCongelada#pesosApuntadores}.
+     */
+    @Test public void testApuntadores() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int aristas = 0;
+        for (int i = 0; i < total; i++) {
+            int id = congelada.id(i);
+            int[] apuntadores = congelada.apuntadores(id);
+            double[] pesos = congelada.pesosApuntadores(id);
+            Assert.assertEquals(apuntadores.length, pesos.length);
+            for (int j = 0; j < apuntadores.length; j++) {
+                int a = congelada.elemento(apuntadores[j]);
+                Assert.assertTrue(grafica.sonVecinos(a, i));
+                Assert.assertTrue(grafica.getPeso(a, i) == pesos[j]);
+            }
+            aristas += apuntadores.length;
+        }
+        Assert.assertEquals(grafica.getAristas(), aristas);
+    }
+
+    /**
+     * Prueba unitaria para verificar que la gráfica congelada no cambia al
+     * modificar la gráfica original.
+     */
+    @Test public void testInmutable() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int aristas = congelada.getAristas();
+        grafica.agrega(total);
+        grafica.conecta(0, total);
+        Assert.assertFalse(congelada.contiene(total));
+        Assert.assertEquals(aristas, congelada.getAristas());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#bfs} y {@link
+     * GraficaCongelada#dfs}.
+     */
+    @Test public void testRecorridos() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Set<Integer> esperados = new HashSet<Integer>();
+        grafica.bfs(0, v -> esperados.add(v.get()));
+        List<Integer> bfs = new ArrayList<Integer>();
+        congelada.bfs(0, v -> bfs.add(v.get()));
+        List<Integer> dfs = new ArrayList<Integer>();
+        congelada.dfs(0, v -> dfs.add(v.get()));
+        Assert.assertEquals(esperados, new HashSet<Integer>(bfs));
+        Assert.assertEquals(esperados, new HashSet<Integer>(dfs));
+        Assert.assertEquals(bfs.size(), esperados.size());
+        Assert.assertEquals(dfs.size(), esperados.size());
+        Assert.assertEquals(0, (int)bfs.get(0));
+        Assert.assertEquals(0, (int)dfs.get(0));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#trayectoriaMinima}.
+     */
+    @Test public void testTrayectoriaMinima() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            List<Integer> original = grafica.trayectoriaMinimaElementos(0, i);
+            List<Integer> tm = congelada.trayectoriaMinimaElementos(0, i);
+            Assert.assertEquals(original.size(), tm.size());
+            verificaTrayectoria(tm, 0, i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#dijkstra}.
+     */
+    @Test public void testDijkstra() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            List<Integer> original = grafica.dijkstraElementos(0, i);
+            List<Integer> dijkstra = congelada.dijkstraElementos(0, i);
+            Assert.assertEquals(original.isEmpty(), dijkstra.isEmpty());
+            Assert.assertTrue(peso(original) == peso(dijkstra));
+            verificaTrayectoria(dijkstra, 0, i);
+        }
+        List<VerticeGrafica<Integer>> lista = congelada.dijkstra(0, 0);
+        Assert.assertEquals(1, lista.size());
+        Assert.assertEquals(congelada.vertice(0), lista.get(0));
+    }
+
+    /**
+     * Prueba unitaria para las consultas de {@link GraficaCongelada} que
+     * reutilizan su espacio de trabajo: alternando consultas desde distintos
+     * orígenes, anidando recorridos y desde varios hilos.
+     */
+    @Test public void testConsultasReutilizadas() throws InterruptedException {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        List<Set<Integer>> alcanzables = new ArrayList<>();
+        List<List<Integer>> trayectorias = new ArrayList<>();
+        List<List<Integer>> caminos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            Set<Integer> alcanzados = new HashSet<Integer>();
+            grafica.bfs(i, v -> alcanzados.add(v.get()));
+            alcanzables.add(alcanzados);
+            trayectorias.add(congelada.trayectoriaMinimaElementos(i, 0));
+            caminos.add(congelada.dijkstraElementos(i, 0));
+        }
+        for (int i = total - 1; i >= 0; i--) {
+            Set<Integer> dfs = new HashSet<Integer>();
+            congelada.dfs(i, v -> dfs.add(v.get()));
+            Assert.assertEquals(alcanzables.get(i), dfs);
+            List<Integer> tm = congelada.trayectoriaMinimaElementos(i, 0);
+            Assert.assertEquals(trayectorias.get(i).size(), tm.size());
+            Assert.assertTrue(peso(caminos.get(i)) ==
+                              peso(congelada.dijkstraElementos(i, 0)));
+        }
+        //Un recorrido dentro de otro usa su propio espacio.
+        Set<Integer> externos = new HashSet<Integer>();
+        congelada.bfs(0, v -> {
+                externos.add(v.get());
+                Set<Integer> internos = new HashSet<Integer>();
+                congelada.bfs(v.get(), w -> internos.add(w.get()));
+                Assert.assertEquals(alcanzables.get(v.get()), internos);
+            });
+        Assert.assertEquals(alcanzables.get(0), externos);
+
+        Thread[] hilos = new Thread[4];
+        boolean[] correctos = new boolean[hilos.length];
+        for (int h = 0; h < hilos.length; h++) {
+            final int k = h;
+            hilos[h] = new Thread(() -> {
+                boolean correcto = true;
+                for (int r = 0; r < 5; r++) {
+                    for (int i = 0; i < total; i++) {
+                        Set<Integer> bfs = new HashSet<Integer>();
+                        congelada.bfs(i, v -> bfs.add(v.get()));
+                        correcto &= alcanzables.get(i).equals(bfs);
+                        correcto &= peso(caminos.get(i)) ==
+                            peso(congelada.dijkstraElementos(i, 0));
+                    }
+                }
+                correctos[k] = correcto;
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (boolean correcto : correctos)
+            Assert.assertTrue(correcto);
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(List<Integer> trayectoria) {
+        double peso = 0;
+        for (int i = 1; i < trayectoria.size(); i++)
+            peso += grafica.getPeso(trayectoria.get(i - 1), trayectoria.get(i));
+        return peso;
+    }
+
+    /* Verifica que la lista sea una trayectoria de a a b en la gráfica, o que
+     * sea vacía. */
+    private void verificaTrayectoria(List<Integer> trayectoria, int a, int b) {
+        if (trayectoria.isEmpty())
+            return;
+        Assert.assertEquals(a, (int)trayectoria.get(0));
+        Assert.assertEquals(b, (int)trayectoria.get(trayectoria.size() - 1));
+        for (int i = 1; i < trayectoria.size(); i++)
+            Assert.assertTrue(grafica.sonVecinos(trayectoria.get(i - 1),
+                                                 trayectoria.get(i)));
+    }
+}
@@ -2,13 +2,28 @@ package mx.unam.ciencias.edd.test;
 
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
+import mx.unam.ciencias.edd.ArbolDistancias;
+import mx.unam.ciencias.edd.ComponentesFuertes;
+import mx.unam.ciencias.edd.ConstructorGraficaDirigida;
+import mx.unam.ciencias.edd.ContextoDijkstra;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCongelada;
 import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.Heuristica;
+import mx.unam.ciencias.edd.JerarquiaContracciones;
+import mx.unam.ciencias.edd.MonticuloDial;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import mx.unam.ciencias.edd.MonticuloRadix;
+import mx.unam.ciencias.edd.PuntosReferencia;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 import java.util.*;
 
@@ -19,6 +34,8 @@ public class TestGraficaDirigida {
 
     /** Expiración para que ninguna prueba tarde más de 5 segundos. */
     @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder directorio = new TemporaryFolder();
 
     /* Generador de números aleatorios. */
     private Random random;
@@ -653,6 +670,546 @@ public class TestGraficaDirigida {
         }
     }
 
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#dijkstra(Object,Object,
+     * ContextoDijkstra)} con varios hilos consultando la misma gráfica.
+     */
+    @Test public void testDijkstraConcurrente() throws InterruptedException {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 4; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(50));
+        }
+        List<List<VerticeGrafica<Integer>>> esperadas =
+            new ArrayList<List<VerticeGrafica<Integer>>>();
+        for (int i = 0; i < total; i++)
+            esperadas.add(grafica.dijkstra(0, i));
+        Thread[] hilos = new Thread[4];
+        boolean[] correctos = new boolean[hilos.length];
+        for (int h = 0; h < hilos.length; h++) {
+            final int k = h;
+            hilos[h] = new Thread(() -> {
+                ContextoDijkstra contexto = new ContextoDijkstra();
+                boolean correcto = true;
+                for (int r = 0; r < 5; r++)
+                    for (int i = 0; i < total; i++)
+                        correcto &= esperadas.get(i).equals(
+                            grafica.dijkstra(0, i, contexto));
+                correctos[k] = correcto;
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (boolean correcto : correctos)
+            Assert.assertTrue(correcto);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#dijkstra(Object,Object,
+     * ContextoDijkstra)} reutilizando un contexto con cada montículo, en
+     * gráficas que crecen: las consultas que se detienen antes de vaciar el
+     * montículo no afectan a las siguientes.
+     */
+    @Test public void testDijkstraContextoReutilizado() {
+        ContextoDijkstra contexto = new ContextoDijkstra();
+        double[] factores = { 1, MonticuloDial.PESO_MAXIMO, 0.5 };
+        Class<?>[] monticulos = { MonticuloDial.class, MonticuloRadix.class,
+                                  MonticuloMinimo.class };
+        int n = 0;
+        for (int k = 0; k < factores.length; k++) {
+            //Cada vez la gráfica tiene más vértices que la capacidad del contexto.
+            int nuevos = contexto.getCapacidad() + 10 + random.nextInt(50);
+            for (int i = 0; i < nuevos; i++)
+                grafica.agrega(n++);
+            for (int i = 0; i < nuevos * 3; i++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                if (a != b && !grafica.sonVecinos(a, b))
+                    grafica.conecta(a, b, (1 + random.nextInt(20)) * factores[k]);
+            }
+            Assert.assertSame(monticulos[k], grafica.getMonticuloDijkstra());
+            for (int q = 0; q < 20; q++) {
+                int s = random.nextInt(n);
+                ArbolDistancias<Integer> arbol = grafica.arbolDistancias(s);
+                for (int r = 0; r < 5; r++) {
+                    int t = random.nextInt(n);
+                    List<VerticeGrafica<Integer>> trayectoria =
+                        grafica.dijkstra(s, t, contexto);
+                    Assert.assertEquals(arbol.alcanza(t), !trayectoria.isEmpty());
+                    if (arbol.alcanza(t))
+                        Assert.assertEquals(arbol.distancia(t), peso(trayectoria), 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#aEstrella}.
+     */
+    @Test public void testAEstrella() {
+        //Una cuadrícula de lado x lado, con aristas en ambos sentidos.
+        int lado = 10 + random.nextInt(20);
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < lado * lado; i++) {
+            if (i % lado + 1 < lado) {
+                grafica.conecta(i, i + 1, 1 + random.nextInt(3));
+                grafica.conecta(i + 1, i, 1 + random.nextInt(3));
+            }
+            if (i + lado < lado * lado) {
+                grafica.conecta(i, i + lado, 1 + random.nextInt(3));
+                grafica.conecta(i + lado, i, 1 + random.nextInt(3));
+            }
+        }
+        Heuristica<Integer> euclidiana = (a, b) ->
+            Math.hypot(a % lado - b % lado, a / lado - b / lado);
+        ContextoDijkstra contexto = new ContextoDijkstra();
+        int origen = lado / 2 * lado + lado / 2;
+        for (int destino = 0; destino < lado * lado; destino++) {
+            List<VerticeGrafica<Integer>> dijkstra =
+                grafica.dijkstra(origen, destino, contexto);
+            int asentadosDijkstra = contexto.getAsentados();
+            List<VerticeGrafica<Integer>> aEstrella =
+                grafica.aEstrella(origen, destino, euclidiana, contexto);
+            Assert.assertTrue(peso(dijkstra) == peso(aEstrella));
+            Assert.assertEquals(origen, (int)aEstrella.get(0).get());
+            Assert.assertEquals(destino,
+                                (int)aEstrella.get(aEstrella.size()-1).get());
+            Assert.assertTrue(contexto.getAsentados() <= asentadosDijkstra);
+        }
+        Assert.assertTrue(grafica.aEstrella(0, 1, euclidiana).size() == 2);
+        grafica.agrega(-1);
+        Assert.assertTrue(grafica.aEstrella(0, -1, (a, b) -> 0).isEmpty());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#dijkstra} con pesos cuyas
+     * sumas no son exactas en punto flotante.
+     */
+    @Test public void testDijkstraPesosReales() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 4; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 0.1 + random.nextDouble());
+        }
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        for (int i = 0; i < total; i++) {
+            List<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(0, i);
+            List<VerticeGrafica<Integer>> esperada = congelada.dijkstra(0, i);
+            Assert.assertEquals(esperada.size(), dijkstra.size());
+            Assert.assertTrue(peso(esperada) == peso(dijkstra));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#arbolDistancias}.
+     */
+    @Test public void testArbolDistancias() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 0.1 + random.nextDouble());
+        }
+        ArbolDistancias<Integer> arbol = grafica.arbolDistancias(0);
+        Assert.assertEquals(0, (int)arbol.getOrigen());
+        Assert.assertTrue(arbol.distancia(0) == 0.0);
+        for (int i = 0; i < total; i++) {
+            List<Integer> trayectoria = arbol.trayectoria(i);
+            List<Integer> dijkstra = grafica.dijkstraElementos(0, i);
+            Assert.assertEquals(dijkstra.size(), trayectoria.size());
+            if (trayectoria.isEmpty()) {
+                Assert.assertTrue(arbol.distancia(i) == Double.POSITIVE_INFINITY);
+                continue;
+            }
+            double peso = 0;
+            for (int j = 1; j < trayectoria.size(); j++)
+                peso += grafica.getPeso(trayectoria.get(j-1), trayectoria.get(j));
+            Assert.assertTrue(peso == arbol.distancia(i));
+            Assert.assertEquals(0, (int)trayectoria.get(0));
+            Assert.assertEquals(i, (int)trayectoria.get(trayectoria.size()-1));
+        }
+        try {
+            arbol.distancia(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#arbolDistanciasDelta}.
+     */
+    @Test public void testArbolDistanciasDelta() {
+        int n = 3000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n * 5; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinosPorId(a, b))
+                grafica.conectaPorId(a, b, i % 2 == 0 ? 0.1 + random.nextDouble()
+                                                      : 1 + random.nextInt(4));
+        }
+        ArbolDistancias<Integer> dijkstra = grafica.arbolDistancias(0);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (double delta : new double[] { 0.05, 0.7, 10 }) {
+                ArbolDistancias<Integer> arbol = grafica.arbolDistanciasDelta(0, delta, pool);
+                for (int i = 0; i < n; i++) {
+                    Assert.assertTrue(dijkstra.distancia(i) == arbol.distancia(i));
+                    Assert.assertEquals(dijkstra.alcanza(i), arbol.alcanza(i));
+                    List<Integer> trayectoria = arbol.trayectoria(i);
+                    double peso = 0;
+                    for (int j = 1; j < trayectoria.size(); j++)
+                        peso += grafica.getPeso(trayectoria.get(j-1), trayectoria.get(j));
+                    if (arbol.alcanza(i))
+                        Assert.assertTrue(peso == arbol.distancia(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            grafica.arbolDistanciasDelta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#arbolDistanciasDelta} con
+     * pesos que el redondeo absorbe.
+     */
+    @Test public void testArbolDistanciasDeltaRedondeo() {
+        for (int i = 0; i < 4; i++)
+            grafica.agrega(i);
+        //1e20 + 1 == 1e20, así que 0, 1 y 2 tienen la misma distancia.
+        grafica.conecta(3, 0, 1e20);
+        grafica.conecta(0, 1, 1);
+        grafica.conecta(1, 0, 1);
+        grafica.conecta(1, 2, 1);
+        ArbolDistancias<Integer> arbol = grafica.arbolDistanciasDelta(3, 1);
+        for (int i = 0; i < 3; i++)
+            Assert.assertTrue(arbol.distancia(i) == 1e20);
+        Assert.assertEquals(Arrays.asList(3, 0), arbol.trayectoria(0));
+        Assert.assertEquals(Arrays.asList(3, 0, 1), arbol.trayectoria(1));
+        Assert.assertEquals(Arrays.asList(3, 0, 1, 2), arbol.trayectoria(2));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#alt} y {@link
+     * GraficaDirigida#puntosReferencia}.
+     */
+    @Test public void testAlt() throws IOException {
+        int lado = 30;
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int r = 0; r < lado; r++) {
+            for (int c = 0; c < lado; c++) {
+                int v = r * lado + c;
+                if (c + 1 < lado) {
+                    grafica.conecta(v, v + 1, 1 + random.nextInt(5));
+                    if (random.nextInt(4) != 0)
+                        grafica.conecta(v + 1, v, 1 + random.nextInt(5));
+                }
+                if (r + 1 < lado) {
+                    grafica.conecta(v, v + lado, 1 + random.nextInt(5));
+                    if (random.nextInt(4) != 0)
+                        grafica.conecta(v + lado, v, 1 + random.nextInt(5));
+                }
+            }
+        }
+        PuntosReferencia<Integer> puntos = grafica.puntosReferencia(6);
+        Assert.assertEquals(6, puntos.getPuntos());
+        Path archivo = directorio.newFile("puntos.eddl").toPath();
+        puntos.guarda(archivo);
+        PuntosReferencia<Integer> cargados = grafica.cargaPuntosReferencia(archivo);
+        Assert.assertArrayEquals(puntos.puntos(), cargados.puntos());
+
+        ContextoDijkstra contexto = new ContextoDijkstra();
+        long asentadosDijkstra = 0, asentadosAlt = 0;
+        for (int q = 0; q < 50; q++) {
+            int s = random.nextInt(lado * lado);
+            int t = random.nextInt(lado * lado);
+            ArbolDistancias<Integer> arbol = grafica.arbolDistancias(s);
+            grafica.dijkstra(s, t, contexto);
+            asentadosDijkstra += contexto.getAsentados();
+            for (PuntosReferencia<Integer> p : Arrays.asList(puntos, cargados)) {
+                List<VerticeGrafica<Integer>> trayectoria = grafica.alt(s, t, p, contexto);
+                double peso = 0;
+                for (int j = 1; j < trayectoria.size(); j++)
+                    peso += grafica.getPeso(trayectoria.get(j-1).get(), trayectoria.get(j).get());
+                Assert.assertEquals(arbol.alcanza(t), !trayectoria.isEmpty());
+                if (arbol.alcanza(t))
+                    Assert.assertEquals(arbol.distancia(t), peso, 1e-9);
+                Assert.assertTrue(p.estima(s, t) <= arbol.distancia(t));
+            }
+            asentadosAlt += contexto.getAsentados();
+        }
+        Assert.assertTrue(asentadosAlt < asentadosDijkstra);
+
+        //Una copia con las mismas aristas acepta los puntos por su huella.
+        GraficaDirigida<Integer> copia = new GraficaDirigida<Integer>();
+        for (int i = 0; i < lado * lado; i++)
+            copia.agrega(grafica.elemento(i));
+        for (int i = 0; i < lado * lado; i++) {
+            int[] vecinos = grafica.vecinos(i);
+            double[] pesos = grafica.pesos(i);
+            for (int x = 0; x < vecinos.length; x++)
+                copia.conectaPorId(i, vecinos[x], pesos[x]);
+        }
+        //Puede haber varias trayectorias mínimas; comparamos sus pesos.
+        Assert.assertEquals(peso(grafica.dijkstra(0, lado * lado - 1)),
+                            peso(copia.alt(0, lado * lado - 1, puntos)), 1e-9);
+        //Una gráfica con otros vértices o que cambió los rechaza.
+        copia.agrega(-1);
+        try {
+            copia.alt(0, 1, puntos);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        grafica.setPeso(0, 1, 100);
+        for (PuntosReferencia<Integer> p : Arrays.asList(puntos, cargados)) {
+            try {
+                grafica.alt(0, 1, p);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        try {
+            grafica.cargaPuntosReferencia(archivo);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.puntosReferencia(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#arbolDistancias} con pesos enteros
+     * pequeños, enteros grandes y fraccionarios, que usan montículos
+     * distintos: al multiplicar los pesos por una constante, las distancias
+     * se multiplican por ella.
+     */
+    @Test public void testArbolDistanciasPesosEnteros() {
+        total = 100 + random.nextInt(100);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        List<int[]> aristas = new ArrayList<>();
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b)) {
+                int peso = 1 + random.nextInt(20);
+                grafica.conecta(a, b, peso);
+                aristas.add(new int[] { a, b, peso });
+            }
+        }
+        Assert.assertSame(MonticuloDial.class, grafica.getMonticuloDijkstra());
+        ArbolDistancias<Integer> enteros = grafica.arbolDistancias(0);
+        double[] factores = { 1.5, 1000, 0.25, 1 };
+        Class<?>[] monticulos = { MonticuloMinimo.class, MonticuloRadix.class,
+                                  MonticuloMinimo.class, MonticuloDial.class };
+        for (int k = 0; k < factores.length; k++) {
+            double factor = factores[k];
+            for (int[] arista : aristas)
+                grafica.setPeso(arista[0], arista[1], arista[2] * factor);
+            Assert.assertSame(monticulos[k], grafica.getMonticuloDijkstra());
+            ArbolDistancias<Integer> arbol = grafica.arbolDistancias(0);
+            for (int i = 0; i < total; i++) {
+                Assert.assertEquals(enteros.alcanza(i), arbol.alcanza(i));
+                if (enteros.alcanza(i))
+                    Assert.assertTrue(enteros.distancia(i) * factor == arbol.distancia(i));
+            }
+        }
+        grafica.desconecta(aristas.get(0)[0], aristas.get(0)[1]);
+        grafica.conecta(aristas.get(0)[0], aristas.get(0)[1], 0.5);
+        Assert.assertSame(MonticuloMinimo.class, grafica.getMonticuloDijkstra());
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(grafica.arbolDistancias(0).distancia(i) <= enteros.distancia(i));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#jerarquiaContracciones}.
+     */
+    @Test public void testJerarquiaContracciones() {
+        int n = 400;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n * 3; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(20));
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            JerarquiaContracciones<Integer> jerarquia = grafica.jerarquiaContracciones(pool);
+            for (int q = 0; q < 40; q++) {
+                int s = random.nextInt(n);
+                ArbolDistancias<Integer> arbol = grafica.arbolDistancias(s);
+                for (int t = 0; t < n; t++) {
+                    Assert.assertEquals(arbol.distancia(t), jerarquia.distancia(s, t), 1e-9);
+                    List<Integer> trayectoria = jerarquia.trayectoria(s, t);
+                    Assert.assertEquals(arbol.alcanza(t), !trayectoria.isEmpty());
+                    if (trayectoria.isEmpty())
+                        continue;
+                    Assert.assertEquals(s, (int)trayectoria.get(0));
+                    Assert.assertEquals(t, (int)trayectoria.get(trayectoria.size() - 1));
+                    double peso = 0;
+                    for (int j = 1; j < trayectoria.size(); j++)
+                        peso += grafica.getPeso(trayectoria.get(j-1), trayectoria.get(j));
+                    Assert.assertEquals(arbol.distancia(t), peso, 1e-9);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            grafica.jerarquiaContracciones().distancia(0, n);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+
+        //En 2 -> 0 -> 1 se contrae primero 0, que necesita el atajo 2 -> 1.
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < 3; i++)
+            grafica.agrega(i);
+        grafica.conecta(2, 0, 1);
+        grafica.conecta(0, 1, 1);
+        JerarquiaContracciones<Integer> jerarquia = grafica.jerarquiaContracciones();
+        Assert.assertEquals(1, jerarquia.getAtajos());
+        Assert.assertEquals(2, jerarquia.distancia(2, 1), 1e-9);
+        //Con la arista 2 -> 1 de peso 2 como testigo, no hace falta.
+        grafica.conecta(2, 1, 2);
+        jerarquia = grafica.jerarquiaContracciones();
+        Assert.assertEquals(0, jerarquia.getAtajos());
+        Assert.assertEquals(2, jerarquia.distancia(2, 1), 1e-9);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#matrizDistancias}.
+     */
+    @Test public void testMatrizDistancias() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 0.1 + random.nextDouble());
+        }
+        List<Integer> origenes = new ArrayList<Integer>();
+        List<Integer> destinos = new ArrayList<Integer>();
+        for (int i = 0; i < total; i++) {
+            if (random.nextBoolean())
+                origenes.add(i);
+            if (random.nextBoolean())
+                destinos.add(i);
+        }
+        double[][] matriz = grafica.matrizDistancias(origenes, destinos);
+        Assert.assertEquals(origenes.size(), matriz.length);
+        for (int i = 0; i < origenes.size(); i++) {
+            ArbolDistancias<Integer> arbol = grafica.arbolDistancias(origenes.get(i));
+            Assert.assertEquals(destinos.size(), matriz[i].length);
+            for (int j = 0; j < destinos.size(); j++)
+                Assert.assertTrue(arbol.distancia(destinos.get(j)) == matriz[i][j]);
+        }
+        try {
+            grafica.matrizDistancias(Arrays.asList(-1), destinos);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para la interfaz por identificadores de {@link
+     * GraficaDirigida}.
+     */
+    @Test public void testIdentificadores() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(total - i);
+        for (int i = 0; i < total; i++) {
+            int id = grafica.id(total - i);
+            Assert.assertEquals(total - i, (int)grafica.elemento(id));
+        }
+        int a = grafica.id(total), b = grafica.id(1);
+        if (a != b) {
+            grafica.conectaPorId(a, b, 2.5);
+            Assert.assertTrue(grafica.sonVecinos(total, 1));
+            Assert.assertTrue(grafica.sonVecinosPorId(a, b));
+            Assert.assertFalse(grafica.sonVecinosPorId(b, a));
+            Assert.assertTrue(grafica.getPesoPorId(a, b) == 2.5);
+            Assert.assertTrue(grafica.getPeso(total, 1) == 2.5);
+            Assert.assertArrayEquals(new int[] { b }, grafica.vecinos(a));
+            Assert.assertEquals(0, grafica.vecinos(b).length);
+            try {
+                grafica.conectaPorId(a, b, 1);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                grafica.getPesoPorId(b, a);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        try {
+            grafica.elemento(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.conectaPorId(0, -1, 1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#dijkstraBidireccional}.
+     */
+    @Test public void testDijkstraBidireccional() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(50));
+        }
+        ContextoDijkstra adelante = new ContextoDijkstra();
+        ContextoDijkstra atras = new ContextoDijkstra();
+        for (int i = 0; i < total; i++) {
+            for (int j = 0; j < total; j += 1 + random.nextInt(5)) {
+                List<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(i, j);
+                List<VerticeGrafica<Integer>> bidireccional =
+                    grafica.dijkstraBidireccional(i, j, adelante, atras);
+                Assert.assertEquals(dijkstra.isEmpty(), bidireccional.isEmpty());
+                Assert.assertTrue(peso(dijkstra) == peso(bidireccional));
+                if (bidireccional.isEmpty())
+                    continue;
+                Assert.assertEquals(i, (int)bidireccional.get(0).get());
+                Assert.assertEquals(j, (int)bidireccional.get(
+                                        bidireccional.size()-1).get());
+            }
+        }
+        Assert.assertTrue(grafica.dijkstraBidireccional(0, 0).size() == 1);
+        try {
+            grafica.dijkstraBidireccional(0, 1, adelante, adelante);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(List<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        for (int i = 1; i < trayectoria.size(); i++)
+            peso += grafica.getPeso(trayectoria.get(i - 1).get(),
+                                    trayectoria.get(i).get());
+        return peso;
+    }
+
     @Test public void testCombinarGraficas() {
         // Crear gráficas individuales
         GraficaDirigida<Integer> grafica1 = new GraficaDirigida<>();
@@ -743,4 +1300,72 @@ public class TestGraficaDirigida {
         Assert.assertTrue(lista2.equals(dijkstra));
     }
 
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#componentesFuertes}.
+     */
+    @Test public void testComponentesFuertes() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 2; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(10));
+        }
+        ComponentesFuertes<Integer> componentes = grafica.componentesFuertes();
+        List<Set<Integer>> alcanzables = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            Set<Integer> alcanzados = new HashSet<>();
+            grafica.bfs(i, v -> alcanzados.add(v.get()));
+            alcanzables.add(alcanzados);
+        }
+        int tamanos = 0;
+        for (int c = 0; c < componentes.getComponentes(); c++)
+            tamanos += componentes.getTamano(c);
+        Assert.assertEquals(total, tamanos);
+        for (int a = 0; a < total; a++)
+            for (int b = 0; b < total; b++)
+                Assert.assertEquals(alcanzables.get(a).contains(b) &&
+                                    alcanzables.get(b).contains(a),
+                                    componentes.mismaComponente(a, b));
+        Assert.assertEquals(componentes.getComponentes() == 1,
+                            grafica.esFuertementeConexa());
+
+        GraficaDirigida<Integer> condensacion = componentes.condensacion();
+        Assert.assertEquals(componentes.getComponentes(), condensacion.getElementos());
+        for (int a = 0; a < total; a++) {
+            for (int b : grafica.obtenerVecinos(a)) {
+                int ca = componentes.componente(a), cb = componentes.componente(b);
+                if (ca == cb)
+                    continue;
+                Assert.assertTrue(ca < cb);
+                Assert.assertTrue(condensacion.sonVecinos(ca, cb));
+                Assert.assertTrue(condensacion.getPeso(ca, cb) <= grafica.getPeso(a, b));
+            }
+        }
+        for (int c = 0; c < condensacion.getElementos(); c++)
+            for (int d : condensacion.obtenerVecinos(c))
+                Assert.assertTrue(c < d);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#esFuertementeConexa} en una
+     * gráfica grande.
+     */
+    @Test public void testEsFuertementeConexaGrande() {
+        int n = 100000;
+        ConstructorGraficaDirigida<Integer> constructor =
+            new ConstructorGraficaDirigida<>(n, n);
+        for (int i = 0; i < n; i++)
+            constructor.agrega(i);
+        for (int i = 1; i < n; i++)
+            constructor.conectaPorId(i-1, i, 1);
+        GraficaDirigida<Integer> camino = constructor.construye();
+        Assert.assertFalse(camino.esFuertementeConexa());
+        Assert.assertEquals(n, camino.componentesFuertes().getComponentes());
+        camino.conecta(n-1, 0);
+        Assert.assertTrue(camino.esFuertementeConexa());
+        Assert.assertEquals(1, camino.componentesFuertes().condensacion().getElementos());
+    }
 }
@@ -0,0 +1,204 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.graficable.GraficaMapeada;
+import mx.unam.ciencias.edd.graficable.svg.ColorHex;
+import mx.unam.ciencias.edd.pruebas.Estacion;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaMapeada}.
+ */
+public class TestGraficaMapeada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder directorio = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica congelada. */
+    private GraficaCongelada<Integer> congelada;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestGraficaMapeada() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        GraficaDirigida<Integer> grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total * 3; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 0.1 + random.nextDouble());
+        }
+        congelada = grafica.congela();
+    }
+
+    /* Escribe la gráfica congelada y la abre mapeada. */
+    private GraficaMapeada mapea() throws IOException {
+        Path archivo = directorio.newFile().toPath();
+        GraficaMapeada.escribe(congelada, i -> "v" + i, archivo);
+        return GraficaMapeada.abre(archivo);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#abre}.
+     */
+    @Test public void testAbre() throws IOException {
+        GraficaMapeada mapeada = mapea();
+        Assert.assertEquals(total, mapeada.getElementos());
+        Assert.assertEquals(congelada.getAristas(), mapeada.getAristas());
+        Assert.assertFalse(mapeada.tieneCoordenadas());
+        for (int i = 0; i < total; i++) {
+            int id = mapeada.id("v" + i);
+            Assert.assertEquals("v" + i, mapeada.nombre(id));
+            Assert.assertEquals(congelada.id(i), id);
+            Assert.assertArrayEquals(congelada.vecinos(id), mapeada.vecinos(id));
+            Assert.assertArrayEquals(congelada.pesos(id), mapeada.pesos(id), 0.0);
+        }
+        Assert.assertFalse(mapeada.contiene("v-1"));
+        try {
+            mapeada.id("w");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#bfs}, {@link
+     * GraficaMapeada#dfs} y {@link GraficaMapeada#dijkstra}.
+     */
+    @Test public void testRecorridos() throws IOException {
+        GraficaMapeada mapeada = mapea();
+        List<Integer> esperado = new ArrayList<Integer>();
+        congelada.bfs(0, v -> esperado.add(congelada.id(v.get())));
+        List<Integer> bfs = new ArrayList<Integer>();
+        mapeada.bfs(congelada.id(0), bfs::add);
+        Assert.assertEquals(esperado, bfs);
+        esperado.clear();
+        congelada.dfs(0, v -> esperado.add(congelada.id(v.get())));
+        List<Integer> dfs = new ArrayList<Integer>();
+        mapeada.dfs(congelada.id(0), dfs::add);
+        Assert.assertEquals(esperado, dfs);
+        for (int i = 0; i < total; i++) {
+            List<String> nombres = new ArrayList<String>();
+            for (Integer e : congelada.dijkstraElementos(0, i))
+                nombres.add("v" + e);
+            Assert.assertEquals(nombres, mapeada.dijkstraElementos("v0", "v" + i));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#escribeConCoordenadas}.
+     */
+    @Test public void testCoordenadas() throws IOException {
+        GraficaDirigida<Estacion> grafica = new GraficaDirigida<Estacion>();
+        Estacion a = new Estacion(1.5, -2, ColorHex.ROJO, "a");
+        Estacion b = new Estacion(3, 4.25, ColorHex.AZUL, "b");
+        grafica.agrega(a);
+        grafica.agrega(b);
+        grafica.conecta(a, b, 2);
+        Path archivo = directorio.newFile().toPath();
+        GraficaMapeada.escribeConCoordenadas(grafica.congela(),
+                                             Estacion::getDescripcion, archivo);
+        GraficaMapeada mapeada = GraficaMapeada.abre(archivo);
+        Assert.assertTrue(mapeada.tieneCoordenadas());
+        int ia = mapeada.id("a"), ib = mapeada.id("b");
+        Assert.assertTrue(mapeada.getCoordX(ia) == 1.5);
+        Assert.assertTrue(mapeada.getCoordY(ia) == -2);
+        Assert.assertTrue(mapeada.getCoordX(ib) == 3);
+        Assert.assertTrue(mapeada.getCoordY(ib) == 4.25);
+        Assert.assertArrayEquals(new int[] { ia, ib }, mapeada.dijkstra(ia, ib));
+        Assert.assertEquals(0, mapeada.dijkstra(ib, ia).length);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#abre} con archivos que no
+     * son gráficas.
+     */
+    @Test public void testArchivoInvalido() throws IOException {
+        Path archivo = directorio.newFile().toPath();
+        Files.write(archivo, new byte[200]);
+        try {
+            GraficaMapeada.abre(archivo);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#abre} con encabezados
+     * corruptos.
+     */
+    @Test public void testEncabezadoCorrupto() throws IOException {
+        Path archivo = directorio.newFile().toPath();
+        GraficaMapeada.escribe(congelada, i -> "v" + i, archivo);
+        byte[] original = Files.readAllBytes(archivo);
+        //Vértices negativos, aristas negativas, casillas que no son potencia
+        //de 2, casillas sin lugar libre y secciones fuera del archivo.
+        int[][] corrupciones = {
+            { 12, -1 }, { 16, -5 }, { 20, 3 }, { 20, 0 }, { 20, -8 },
+            { 20, Integer.highestOneBit(total) }, { 16, congelada.getAristas() + 1 },
+            { 32, original.length }, { 40, 8 }
+        };
+        for (int[] c : corrupciones) {
+            byte[] bytes = original.clone();
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(c[0], c[1]);
+            Files.write(archivo, bytes);
+            try {
+                GraficaMapeada.abre(archivo);
+                Assert.fail("Corrupción en el byte " + c[0]);
+            } catch (IOException ioe) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para verificar que la tabla de dispersión de los
+     * nombres sigue el formato con nombres que no son ASCII.
+     */
+    @Test public void testDispersionNoAscii() throws IOException {
+        //Los bytes con signo sólo cambian los bits altos de la dispersión,
+        //así que hacen falta más de 256 casillas para notarlo.
+        int total = 1000 + random.nextInt(1000);
+        GraficaDirigida<Integer> grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Path archivo = directorio.newFile().toPath();
+        GraficaMapeada.escribe(grafica.congela(), i -> "vértice ñ" + i + "ü", archivo);
+        GraficaMapeada mapeada = GraficaMapeada.abre(archivo);
+        ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(archivo))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        int casillas = b.getInt(20);
+        int tabla = (int)b.getLong(72);
+        for (int i = 0; i < total; i++) {
+            String nombre = "vértice ñ" + i + "ü";
+            int id = mapeada.id(nombre);
+            //FNV-1a sobre los bytes sin signo, como dice el formato.
+            int h = 0x811c9dc5;
+            for (byte x : nombre.getBytes(StandardCharsets.UTF_8))
+                h = (h ^ (x & 0xff)) * 0x01000193;
+            int c = h & (casillas - 1);
+            while (b.getInt(tabla + 4 * c) != id) {
+                Assert.assertNotEquals(-1, b.getInt(tabla + 4 * c));
+                c = (c + 1) & (casillas - 1);
+            }
+        }
+    }
+}
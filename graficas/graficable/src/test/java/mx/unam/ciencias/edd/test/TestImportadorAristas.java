@@ -0,0 +1,114 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.graficable.ImportadorAristas;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ImportadorAristas}.
+ */
+public class TestImportadorAristas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder directorio = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random = new Random();
+    /* El importador. */
+    private ImportadorAristas importador = new ImportadorAristas();
+
+    /* Escribe el texto en un archivo temporal. */
+    private Path archivo(String texto) throws IOException {
+        Path archivo = directorio.newFile().toPath();
+        Files.write(archivo, texto.getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+
+    /**
+     * Prueba unitaria para {@link ImportadorAristas#importa} con un archivo
+     * pequeño.
+     */
+    @Test public void testImporta() throws IOException {
+        String texto = "# red de prueba\n" +
+            "a b 2.5\n" +
+            "\n" +
+            "b\tc\r\n" +
+            "  c a 1e-3  \n" +
+            "Ñandú a 0.1\n" +
+            "a c 12345678901234567890";
+        GraficaDirigida<String> grafica = importador.importa(archivo(texto));
+        Assert.assertEquals(4, grafica.getElementos());
+        Assert.assertEquals(5, grafica.getAristas());
+        Assert.assertTrue(grafica.getPeso("a", "b") == 2.5);
+        Assert.assertTrue(grafica.getPeso("b", "c") == 1);
+        Assert.assertTrue(grafica.getPeso("c", "a") == 1e-3);
+        Assert.assertTrue(grafica.getPeso("Ñandú", "a") == 0.1);
+        Assert.assertTrue(grafica.getPeso("a", "c") == 12345678901234567890.0);
+        Assert.assertFalse(grafica.sonVecinos("b", "a"));
+        Assert.assertEquals(0, importador.importa(archivo("")).getElementos());
+    }
+
+    /**
+     * Prueba unitaria para {@link ImportadorAristas#importa} con un archivo
+     * que se analiza en varios pedazos.
+     */
+    @Test public void testImportaParalelo() throws IOException {
+        int total = 1000 + random.nextInt(1000);
+        GraficaDirigida<Integer> esperada = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++)
+            esperada.agrega(i);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < (3 << 20)) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a == b || esperada.sonVecinos(a, b))
+                continue;
+            double peso = (1 + random.nextInt(100000)) / 1000.0;
+            esperada.conecta(a, b, peso);
+            sb.append(a).append(' ').append(b).append(' ').append(peso).append('\n');
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        GraficaDirigida<Integer> grafica;
+        try {
+            importador = new ImportadorAristas(pool);
+            grafica = importador.importa(archivo(sb.toString()), Integer::valueOf);
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertEquals(esperada.getAristas(), grafica.getAristas());
+        for (int i = 0; i < 100; i++) {
+            int a = random.nextInt(total);
+            for (Integer b : esperada.obtenerVecinos(a))
+                Assert.assertTrue(esperada.getPeso(a, b) == grafica.getPeso(a, b));
+            Assert.assertEquals(esperada.vertice(a).getGrado(),
+                                grafica.vertice(a).getGrado());
+        }
+    }
+
+    /**
+     * Prueba unitaria para las líneas inválidas de {@link
+     * ImportadorAristas#importa}.
+     */
+    @Test public void testInvalidas() throws IOException {
+        String[] invalidas = { "a\n", "a b c\n", "a b 1 2\n", "a a 1\n",
+                               "a b -1\n", "a b 1\na b 2\n" };
+        for (String texto : invalidas) {
+            try {
+                importador.importa(archivo(texto));
+                Assert.fail(texto);
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.ConIndice;
+import mx.unam.ciencias.edd.MonticuloCuaternario;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloCuaternario}.
+ */
+public class TestMonticuloCuaternario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Elemento con clave e índice en el montículo. */
+    private static class Elemento implements Comparable<Elemento>, ConIndice {
+
+        /* La clave del elemento. */
+        private int clave;
+        /* El índice del elemento en el montículo. */
+        private int indice;
+
+        /* Construye un elemento con clave. */
+        private Elemento(int clave) {
+            this.clave = clave;
+            indice = -1;
+        }
+
+        @Override public int compareTo(Elemento elemento) {
+            return Integer.compare(clave, elemento.clave);
+        }
+
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+    }
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los elementos. */
+    private List<Elemento> elementos;
+
+    /**
+     * Crea elementos con claves aleatorias.
+     */
+    public TestMonticuloCuaternario() {
+        random = new Random();
+        total = 10 + random.nextInt(200);
+        elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++)
+            elementos.add(new Elemento(random.nextInt(total)));
+    }
+
+    /* Vacía el montículo y revisa que salgan las claves en orden. */
+    private void revisaOrden(MonticuloCuaternario<Elemento> monticulo) {
+        List<Integer> claves = new ArrayList<>();
+        for (Elemento e : elementos)
+            if (monticulo.contiene(e))
+                claves.add(e.clave);
+        Collections.sort(claves);
+        Assert.assertEquals(claves.size(), monticulo.getElementos());
+        for (int clave : claves) {
+            Elemento e = monticulo.elimina();
+            Assert.assertEquals(clave, e.clave);
+            Assert.assertFalse(monticulo.contiene(e));
+            Assert.assertEquals(-1, e.getIndice());
+        }
+        Assert.assertTrue(monticulo.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * MonticuloCuaternario#MonticuloCuaternario(Iterable,int)}.
+     */
+    @Test public void testConstructor() {
+        MonticuloCuaternario<Elemento> monticulo =
+            new MonticuloCuaternario<>(elementos, total);
+        for (Elemento e : elementos)
+            Assert.assertTrue(monticulo.contiene(e));
+        revisaOrden(monticulo);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloCuaternario#agrega} y {@link
+     * MonticuloCuaternario#elimina}.
+     */
+    @Test public void testAgregaElimina() {
+        MonticuloCuaternario<Elemento> monticulo = new MonticuloCuaternario<>();
+        for (Elemento e : elementos) {
+            monticulo.agrega(e);
+            Assert.assertTrue(monticulo.contiene(e));
+        }
+        Assert.assertEquals(total, monticulo.getElementos());
+        revisaOrden(monticulo);
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloCuaternario#reordena}, con claves
+     * que disminuyen y que aumentan.
+     */
+    @Test public void testReordena() {
+        MonticuloCuaternario<Elemento> monticulo =
+            new MonticuloCuaternario<>(elementos, total);
+        for (int i = 0; i < total; i++) {
+            Elemento e = elementos.get(random.nextInt(total));
+            e.clave += random.nextBoolean() ? -random.nextInt(total) :
+                random.nextInt(total);
+            monticulo.reordena(e);
+            //Eliminamos algunos en medio de los cambios.
+            if (random.nextInt(4) == 0) {
+                int minima = Integer.MAX_VALUE;
+                for (Elemento f : elementos)
+                    if (monticulo.contiene(f))
+                        minima = Math.min(minima, f.clave);
+                Assert.assertEquals(minima, monticulo.elimina().clave);
+            }
+        }
+        //Reordenar un elemento que no está no hace nada.
+        Elemento e = new Elemento(-1);
+        monticulo.reordena(e);
+        Assert.assertFalse(monticulo.contiene(e));
+        revisaOrden(monticulo);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloCuaternario#limpia}.
+     */
+    @Test public void testLimpia() {
+        MonticuloCuaternario<Elemento> monticulo =
+            new MonticuloCuaternario<>(elementos, total);
+        monticulo.limpia();
+        Assert.assertTrue(monticulo.esVacia());
+        for (Elemento e : elementos) {
+            Assert.assertFalse(monticulo.contiene(e));
+            Assert.assertEquals(-1, e.getIndice());
+        }
+        for (Elemento e : elementos)
+            monticulo.agrega(e);
+        revisaOrden(monticulo);
+    }
+}
@@ -0,0 +1,204 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.MonticuloDial;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloDial}.
+ */
+public class TestMonticuloDial {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Elemento con índice y clave. */
+    private static class Elemento implements Comparable<Elemento> {
+
+        /* El índice del elemento. */
+        private int indice;
+        /* La clave del elemento. */
+        private double clave;
+
+        /* Construye un elemento con índice y clave. */
+        private Elemento(int indice, double clave) {
+            this.indice = indice;
+            this.clave = clave;
+        }
+
+        @Override public int compareTo(Elemento elemento) {
+            return Double.compare(clave, elemento.clave);
+        }
+    }
+
+    /* El peso máximo de las pruebas. */
+    private static final int MAXIMO = 10;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los elementos. */
+    private List<Elemento> elementos;
+    /* El montículo. */
+    private MonticuloDial<Elemento> monticulo;
+
+    /* Construye un montículo con los elementos. */
+    private MonticuloDial<Elemento> monticulo() {
+        return new MonticuloDial<>(elementos, total, e -> e.indice, e -> e.clave,
+                                   MAXIMO);
+    }
+
+    /**
+     * Crea elementos con claves enteras entre 0 y el máximo, o infinitas.
+     */
+    public TestMonticuloDial() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            double clave = random.nextInt(4) == 0 ? Double.POSITIVE_INFINITY :
+                random.nextInt(MAXIMO + 1);
+            elementos.add(new Elemento(i, clave));
+        }
+        monticulo = monticulo();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDial#elimina}.
+     */
+    @Test public void testElimina() {
+        List<Double> claves = new ArrayList<>();
+        for (Elemento e : elementos)
+            claves.add(e.clave);
+        Collections.sort(claves);
+        Assert.assertEquals(total, monticulo.getElementos());
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(monticulo.esVacia());
+            Assert.assertTrue(claves.get(i) == monticulo.elimina().clave);
+            Assert.assertEquals(total - i - 1, monticulo.getElementos());
+        }
+        Assert.assertTrue(monticulo.esVacia());
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDial#reordena} disminuyendo
+     * claves como el algoritmo de Dijkstra: cada nueva clave está entre la
+     * del último mínimo y ésa más el máximo.
+     */
+    @Test public void testReordena() {
+        for (Elemento e : elementos)
+            e.clave = e.indice == 0 ? 0 : Double.POSITIVE_INFINITY;
+        monticulo = monticulo();
+        double[] esperadas = new double[total];
+        Arrays.fill(esperadas, Double.POSITIVE_INFINITY);
+        esperadas[0] = 0;
+        boolean[] eliminados = new boolean[total];
+        double ultimo = 0;
+        while (!monticulo.esVacia()) {
+            Elemento minimo = monticulo.elimina();
+            Assert.assertFalse(eliminados[minimo.indice]);
+            eliminados[minimo.indice] = true;
+            //El mínimo es el menor de los que quedaban.
+            for (int i = 0; i < total; i++)
+                if (!eliminados[i])
+                    Assert.assertTrue(minimo.clave <= esperadas[i]);
+            Assert.assertTrue(minimo.clave >= ultimo);
+            if (minimo.clave == Double.POSITIVE_INFINITY)
+                continue;
+            ultimo = minimo.clave;
+            for (int k = 0; k < 3; k++) {
+                Elemento e = elementos.get(random.nextInt(total));
+                double clave = ultimo + 1 + random.nextInt(MAXIMO);
+                if (eliminados[e.indice] || clave >= e.clave)
+                    continue;
+                e.clave = esperadas[e.indice] = clave;
+                monticulo.reordena(e);
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDial#reordena} con claves fuera
+     * del rango.
+     */
+    @Test public void testReordenaFueraDeRango() {
+        for (Elemento e : elementos)
+            e.clave = e.indice < 2 ? 5 : Double.POSITIVE_INFINITY;
+        monticulo = monticulo();
+        Assert.assertTrue(5 == monticulo.elimina().clave);
+        Elemento e = elementos.get(2);
+        e.clave = 4;
+        try {
+            monticulo.reordena(e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        e = elementos.get(3);
+        e.clave = 5 + MAXIMO + 1;
+        try {
+            monticulo.reordena(e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        e = elementos.get(4);
+        e.clave = 1.5;
+        try {
+            monticulo.reordena(e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        e = elementos.get(5);
+        e.clave = 5 + MAXIMO;
+        monticulo.reordena(e);
+        Assert.assertTrue(5 == monticulo.elimina().clave);
+        Assert.assertSame(e, monticulo.elimina());
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDial#agrega} y {@link
+     * MonticuloDial#contiene}, agregando los elementos conforme se alcanzan,
+     * como el algoritmo de Dijkstra con un destino.
+     */
+    @Test public void testAgrega() {
+        monticulo = new MonticuloDial<>(new ArrayList<Elemento>(), total,
+                                  e -> e.indice, e -> e.clave, MAXIMO);
+        for (Elemento e : elementos) {
+            e.clave = Double.POSITIVE_INFINITY;
+            Assert.assertFalse(monticulo.contiene(e));
+        }
+        elementos.get(0).clave = 0;
+        monticulo.agrega(elementos.get(0));
+        Assert.assertTrue(monticulo.contiene(elementos.get(0)));
+        boolean[] eliminados = new boolean[total];
+        double ultimo = 0;
+        while (!monticulo.esVacia()) {
+            Elemento minimo = monticulo.elimina();
+            Assert.assertFalse(monticulo.contiene(minimo));
+            Assert.assertTrue(minimo.clave >= ultimo);
+            //Nadie alcanzado tiene una clave menor.
+            for (Elemento e : elementos)
+                if (monticulo.contiene(e))
+                    Assert.assertTrue(minimo.clave <= e.clave);
+            eliminados[minimo.indice] = true;
+            ultimo = minimo.clave;
+            for (int k = 0; k < 3; k++) {
+                Elemento e = elementos.get(random.nextInt(total));
+                double clave = ultimo + 1 + random.nextInt(MAXIMO);
+                if (eliminados[e.indice] || clave >= e.clave)
+                    continue;
+                e.clave = clave;
+                if (monticulo.contiene(e)) {
+                    monticulo.reordena(e);
+                } else {
+                    monticulo.agrega(e);
+                    Assert.assertTrue(monticulo.contiene(e));
+                }
+            }
+        }
+    }
+}
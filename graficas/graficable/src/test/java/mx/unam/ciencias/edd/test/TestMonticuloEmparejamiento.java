@@ -0,0 +1,177 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.ConIndice;
+import mx.unam.ciencias.edd.MonticuloEmparejamiento;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloEmparejamiento}.
+ */
+public class TestMonticuloEmparejamiento {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Elemento con clave e índice en el montículo. */
+    private static class Elemento implements Comparable<Elemento>, ConIndice {
+
+        /* La clave del elemento. */
+        private int clave;
+        /* El índice del elemento en el montículo. */
+        private int indice;
+
+        /* Construye un elemento con clave. */
+        private Elemento(int clave) {
+            this.clave = clave;
+            indice = -1;
+        }
+
+        @Override public int compareTo(Elemento elemento) {
+            return Integer.compare(clave, elemento.clave);
+        }
+
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+    }
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los elementos. */
+    private List<Elemento> elementos;
+
+    /**
+     * Crea elementos con claves aleatorias.
+     */
+    public TestMonticuloEmparejamiento() {
+        random = new Random();
+        total = 10 + random.nextInt(200);
+        elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++)
+            elementos.add(new Elemento(random.nextInt(total)));
+    }
+
+    /* Vacía el montículo y revisa que salgan las claves en orden. */
+    private void revisaOrden(MonticuloEmparejamiento<Elemento> monticulo) {
+        List<Integer> claves = new ArrayList<>();
+        for (Elemento e : elementos)
+            if (monticulo.contiene(e))
+                claves.add(e.clave);
+        Collections.sort(claves);
+        Assert.assertEquals(claves.size(), monticulo.getElementos());
+        for (int clave : claves) {
+            Elemento e = monticulo.elimina();
+            Assert.assertEquals(clave, e.clave);
+            Assert.assertFalse(monticulo.contiene(e));
+            Assert.assertEquals(-1, e.getIndice());
+        }
+        Assert.assertTrue(monticulo.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * MonticuloEmparejamiento#MonticuloEmparejamiento(Iterable,int)}.
+     */
+    @Test public void testConstructor() {
+        MonticuloEmparejamiento<Elemento> monticulo =
+            new MonticuloEmparejamiento<>(elementos, total);
+        for (Elemento e : elementos)
+            Assert.assertTrue(monticulo.contiene(e));
+        revisaOrden(monticulo);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#agrega} y {@link
+     * MonticuloEmparejamiento#elimina}, reutilizando las casillas de los
+     * elementos eliminados.
+     */
+    @Test public void testAgregaElimina() {
+        MonticuloEmparejamiento<Elemento> monticulo = new MonticuloEmparejamiento<>();
+        //Agregamos y eliminamos alternadamente para reutilizar casillas.
+        List<Elemento> fuera = new ArrayList<>(elementos);
+        for (int i = 0; i < total * 2; i++) {
+            if (!fuera.isEmpty() && (monticulo.esVacia() || random.nextBoolean())) {
+                Elemento e = fuera.remove(fuera.size() - 1);
+                monticulo.agrega(e);
+                Assert.assertTrue(monticulo.contiene(e));
+            } else if (!monticulo.esVacia()) {
+                int minima = Integer.MAX_VALUE;
+                for (Elemento e : elementos)
+                    if (monticulo.contiene(e))
+                        minima = Math.min(minima, e.clave);
+                Elemento e = monticulo.elimina();
+                Assert.assertEquals(minima, e.clave);
+                fuera.add(e);
+            }
+        }
+        revisaOrden(monticulo);
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#reordena}: las
+     * claves sólo disminuyen, de la raíz y de elementos en cualquier lugar
+     * del árbol.
+     */
+    @Test public void testReordena() {
+        MonticuloEmparejamiento<Elemento> monticulo =
+            new MonticuloEmparejamiento<>(elementos, total);
+        //Una eliminación deja un árbol con varios niveles.
+        monticulo.elimina();
+        for (int i = 0; i < total; i++) {
+            Elemento e = elementos.get(random.nextInt(total));
+            e.clave -= random.nextInt(total);
+            monticulo.reordena(e);
+            if (random.nextInt(4) == 0) {
+                int minima = Integer.MAX_VALUE;
+                for (Elemento f : elementos)
+                    if (monticulo.contiene(f))
+                        minima = Math.min(minima, f.clave);
+                Assert.assertEquals(minima, monticulo.elimina().clave);
+            }
+        }
+        //El mínimo disminuido sigue saliendo primero.
+        Elemento minimo = monticulo.get(0);
+        for (Elemento e : elementos)
+            if (monticulo.contiene(e) && e.clave < minimo.clave)
+                minimo = e;
+        minimo.clave -= 1;
+        monticulo.reordena(minimo);
+        //Reordenar un elemento que no está no hace nada.
+        Elemento e = new Elemento(-total * 2);
+        monticulo.reordena(e);
+        Assert.assertFalse(monticulo.contiene(e));
+        Assert.assertSame(minimo, monticulo.elimina());
+        revisaOrden(monticulo);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#limpia}.
+     */
+    @Test public void testLimpia() {
+        MonticuloEmparejamiento<Elemento> monticulo =
+            new MonticuloEmparejamiento<>(elementos, total);
+        monticulo.limpia();
+        Assert.assertTrue(monticulo.esVacia());
+        for (Elemento e : elementos) {
+            Assert.assertFalse(monticulo.contiene(e));
+            Assert.assertEquals(-1, e.getIndice());
+        }
+        for (Elemento e : elementos)
+            monticulo.agrega(e);
+        revisaOrden(monticulo);
+    }
+}
@@ -0,0 +1,234 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.ConIndice;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloMinimo}, con
+ * elementos que guardan su índice y con elementos que no.
+ */
+public class TestMonticuloMinimo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Elemento con clave, cuyo índice guarda el montículo en un
+     * diccionario. */
+    private static class Elemento implements Comparable<Elemento> {
+
+        /* La clave del elemento. */
+        protected int clave;
+
+        /* Construye un elemento con clave. */
+        private Elemento(int clave) {
+            this.clave = clave;
+        }
+
+        @Override public int compareTo(Elemento elemento) {
+            return Integer.compare(clave, elemento.clave);
+        }
+    }
+
+    /* Elemento con clave que guarda su propio índice. */
+    private static class ElementoIndice extends Elemento implements ConIndice {
+
+        /* El índice del elemento en el montículo. */
+        private int indice;
+
+        /* Construye un elemento con clave. */
+        private ElementoIndice(int clave) {
+            super(clave);
+            indice = -1;
+        }
+
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+    }
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+
+    /**
+     * Crea el generador de números aleatorios.
+     */
+    public TestMonticuloMinimo() {
+        random = new Random();
+        total = 10 + random.nextInt(200);
+    }
+
+    /* Crea elementos con claves aleatorias, con índice o sin él. */
+    private List<Elemento> elementos(boolean conIndice) {
+        List<Elemento> elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            int clave = random.nextInt(total);
+            elementos.add(conIndice ? new ElementoIndice(clave) : new Elemento(clave));
+        }
+        return elementos;
+    }
+
+    /* Vacía el montículo y revisa que salgan las claves en orden. */
+    private void revisaOrden(MonticuloMinimo<Elemento> monticulo,
+                             List<Elemento> elementos) {
+        List<Integer> claves = new ArrayList<>();
+        for (Elemento e : elementos)
+            if (monticulo.contiene(e))
+                claves.add(e.clave);
+        Collections.sort(claves);
+        Assert.assertEquals(claves.size(), monticulo.getElementos());
+        for (int clave : claves) {
+            Elemento e = monticulo.elimina();
+            Assert.assertEquals(clave, e.clave);
+            Assert.assertFalse(monticulo.contiene(e));
+        }
+        Assert.assertTrue(monticulo.esVacia());
+    }
+
+    /* Cambia claves y reordena, eliminando el mínimo de vez en cuando. */
+    private void reordena(List<Elemento> elementos, boolean aumenta) {
+        MonticuloMinimo<Elemento> monticulo = new MonticuloMinimo<>(elementos, total);
+        for (int i = 0; i < total; i++) {
+            Elemento e = elementos.get(random.nextInt(total));
+            e.clave += aumenta ? random.nextInt(total) : -random.nextInt(total);
+            monticulo.reordena(e);
+            if (random.nextInt(4) == 0) {
+                int minima = Integer.MAX_VALUE;
+                for (Elemento f : elementos)
+                    if (monticulo.contiene(f))
+                        minima = Math.min(minima, f.clave);
+                Assert.assertEquals(minima, monticulo.elimina().clave);
+            }
+        }
+        revisaOrden(monticulo, elementos);
+    }
+
+    /* Elimina elementos de en medio del montículo. */
+    private void eliminaElementos(List<Elemento> elementos) {
+        MonticuloMinimo<Elemento> monticulo = new MonticuloMinimo<>();
+        for (Elemento e : elementos)
+            monticulo.agrega(e);
+        for (int i = 0; i < total / 2; i++) {
+            //Un elemento que no es la raíz ni el último.
+            Elemento e = monticulo.get(1 + random.nextInt(monticulo.getElementos() - 2));
+            monticulo.elimina(e);
+            Assert.assertFalse(monticulo.contiene(e));
+        }
+        revisaOrden(monticulo, elementos);
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#agrega} y {@link
+     * MonticuloMinimo#elimina()}.
+     */
+    @Test public void testAgregaElimina() {
+        for (boolean conIndice : new boolean[] { true, false }) {
+            List<Elemento> elementos = elementos(conIndice);
+            MonticuloMinimo<Elemento> monticulo = new MonticuloMinimo<>();
+            Assert.assertFalse(monticulo.contiene(elementos.get(0)));
+            for (Elemento e : elementos) {
+                monticulo.agrega(e);
+                Assert.assertTrue(monticulo.contiene(e));
+            }
+            revisaOrden(monticulo, elementos);
+            monticulo = new MonticuloMinimo<>(elementos, total);
+            for (Elemento e : elementos)
+                Assert.assertTrue(monticulo.contiene(e));
+            revisaOrden(monticulo, elementos);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#reordena} con claves que
+     * disminuyen.
+     */
+    @Test public void testReordenaDisminuye() {
+        reordena(elementos(true), false);
+        reordena(elementos(false), false);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#reordena} con claves que
+     * aumentan.
+     */
+    @Test public void testReordenaAumenta() {
+        reordena(elementos(true), true);
+        reordena(elementos(false), true);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#elimina(Comparable)} con
+     * elementos de en medio del montículo.
+     */
+    @Test public void testEliminaElemento() {
+        eliminaElementos(elementos(true));
+        eliminaElementos(elementos(false));
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#contiene} con un elemento
+     * que pasa a otro montículo: su índice es de ése, y el primero ya no lo
+     * contiene aunque el índice sea válido en él.
+     */
+    @Test public void testContieneOtroMonticulo() {
+        MonticuloMinimo<Elemento> a = new MonticuloMinimo<>();
+        MonticuloMinimo<Elemento> b = new MonticuloMinimo<>();
+        ElementoIndice x = new ElementoIndice(0);
+        ElementoIndice e = new ElementoIndice(1);
+        ElementoIndice y = new ElementoIndice(2);
+        ElementoIndice z = new ElementoIndice(0);
+        a.agrega(x);
+        a.agrega(e);
+        a.agrega(y);
+        b.agrega(z);
+        int indice = e.getIndice();
+        a.elimina(e);
+        b.agrega(e);
+        Assert.assertEquals(indice, e.getIndice());
+        Assert.assertTrue(e.getIndice() < a.getElementos());
+        Assert.assertFalse(a.contiene(e));
+        Assert.assertTrue(b.contiene(e));
+        //Reordenar en el montículo que ya no lo tiene no hace nada.
+        e.clave = -1;
+        a.reordena(e);
+        Assert.assertSame(x, a.elimina());
+        Assert.assertSame(y, a.elimina());
+        b.reordena(e);
+        Assert.assertSame(e, b.elimina());
+        Assert.assertSame(z, b.elimina());
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloMinimo#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (boolean conIndice : new boolean[] { true, false }) {
+            List<Elemento> elementos = elementos(conIndice);
+            MonticuloMinimo<Elemento> monticulo = new MonticuloMinimo<>(elementos, total);
+            monticulo.limpia();
+            Assert.assertTrue(monticulo.esVacia());
+            for (Elemento e : elementos) {
+                Assert.assertFalse(monticulo.contiene(e));
+                if (conIndice)
+                    Assert.assertEquals(-1, ((ElementoIndice)e).getIndice());
+            }
+            for (Elemento e : elementos)
+                monticulo.agrega(e);
+            revisaOrden(monticulo, elementos);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.*;
+import mx.unam.ciencias.edd.MonticuloRadix;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloRadix}.
+ */
+public class TestMonticuloRadix {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Elemento con índice y clave. */
+    private static class Elemento implements Comparable<Elemento> {
+
+        /* El índice del elemento. */
+        private int indice;
+        /* La clave del elemento. */
+        private double clave;
+
+        /* Construye un elemento con índice y clave. */
+        private Elemento(int indice, double clave) {
+            this.indice = indice;
+            this.clave = clave;
+        }
+
+        @Override public int compareTo(Elemento elemento) {
+            return Double.compare(clave, elemento.clave);
+        }
+    }
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los elementos. */
+    private List<Elemento> elementos;
+    /* El montículo. */
+    private MonticuloRadix<Elemento> monticulo;
+
+    /* Construye un montículo con los elementos. */
+    private MonticuloRadix<Elemento> monticulo() {
+        return new MonticuloRadix<>(elementos, total, e -> e.indice, e -> e.clave);
+    }
+
+    /**
+     * Crea elementos con claves no negativas, enteras, fraccionarias o
+     * infinitas.
+     */
+    public TestMonticuloRadix() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        elementos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            double clave;
+            switch (random.nextInt(4)) {
+            case 0:  clave = Double.POSITIVE_INFINITY; break;
+            case 1:  clave = random.nextDouble() * 1e6; break;
+            default: clave = random.nextInt(1000); break;
+            }
+            elementos.add(new Elemento(i, clave));
+        }
+        monticulo = monticulo();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#elimina}.
+     */
+    @Test public void testElimina() {
+        List<Double> claves = new ArrayList<>();
+        for (Elemento e : elementos)
+            claves.add(e.clave);
+        Collections.sort(claves);
+        Assert.assertEquals(total, monticulo.getElementos());
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(monticulo.esVacia());
+            Assert.assertTrue(claves.get(i) == monticulo.elimina().clave);
+            Assert.assertEquals(total - i - 1, monticulo.getElementos());
+        }
+        Assert.assertTrue(monticulo.esVacia());
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#reordena} disminuyendo
+     * claves como el algoritmo de Dijkstra: ninguna nueva clave es menor que
+     * la del último mínimo.
+     */
+    @Test public void testReordena() {
+        for (Elemento e : elementos)
+            e.clave = e.indice == 0 ? 0 : Double.POSITIVE_INFINITY;
+        monticulo = monticulo();
+        double[] esperadas = new double[total];
+        Arrays.fill(esperadas, Double.POSITIVE_INFINITY);
+        esperadas[0] = 0;
+        boolean[] eliminados = new boolean[total];
+        double ultimo = 0;
+        while (!monticulo.esVacia()) {
+            Elemento minimo = monticulo.elimina();
+            Assert.assertFalse(eliminados[minimo.indice]);
+            eliminados[minimo.indice] = true;
+            //El mínimo es el menor de los que quedaban.
+            for (int i = 0; i < total; i++)
+                if (!eliminados[i])
+                    Assert.assertTrue(minimo.clave <= esperadas[i]);
+            Assert.assertTrue(minimo.clave >= ultimo);
+            if (minimo.clave == Double.POSITIVE_INFINITY)
+                continue;
+            ultimo = minimo.clave;
+            for (int k = 0; k < 3; k++) {
+                Elemento e = elementos.get(random.nextInt(total));
+                double clave = ultimo + random.nextDouble() * 100;
+                if (eliminados[e.indice] || clave >= e.clave)
+                    continue;
+                e.clave = esperadas[e.indice] = clave;
+                monticulo.reordena(e);
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#reordena} con claves menores
+     * que la del último mínimo.
+     */
+    @Test public void testReordenaMenorQueUltimo() {
+        for (Elemento e : elementos)
+            e.clave = e.indice < 2 ? 5 : Double.POSITIVE_INFINITY;
+        monticulo = monticulo();
+        Assert.assertTrue(5 == monticulo.elimina().clave);
+        Elemento e = elementos.get(2);
+        e.clave = 4.5;
+        try {
+            monticulo.reordena(e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        e.clave = -1;
+        try {
+            monticulo.reordena(e);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        e.clave = 5;
+        monticulo.reordena(e);
+        Assert.assertTrue(5 == monticulo.elimina().clave);
+        Assert.assertTrue(5 == monticulo.elimina().clave);
+        Assert.assertEquals(total - 3, monticulo.getElementos());
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#agrega} y {@link
+     * MonticuloRadix#contiene}, agregando los elementos conforme se alcanzan,
+     * como el algoritmo de Dijkstra con un destino.
+     */
+    @Test public void testAgrega() {
+        monticulo = new MonticuloRadix<>(new ArrayList<Elemento>(), total,
+                                  e -> e.indice, e -> e.clave);
+        for (Elemento e : elementos) {
+            e.clave = Double.POSITIVE_INFINITY;
+            Assert.assertFalse(monticulo.contiene(e));
+        }
+        elementos.get(0).clave = 0;
+        monticulo.agrega(elementos.get(0));
+        Assert.assertTrue(monticulo.contiene(elementos.get(0)));
+        boolean[] eliminados = new boolean[total];
+        double ultimo = 0;
+        while (!monticulo.esVacia()) {
+            Elemento minimo = monticulo.elimina();
+            Assert.assertFalse(monticulo.contiene(minimo));
+            Assert.assertTrue(minimo.clave >= ultimo);
+            //Nadie alcanzado tiene una clave menor.
+            for (Elemento e : elementos)
+                if (monticulo.contiene(e))
+                    Assert.assertTrue(minimo.clave <= e.clave);
+            eliminados[minimo.indice] = true;
+            ultimo = minimo.clave;
+            for (int k = 0; k < 3; k++) {
+                Elemento e = elementos.get(random.nextInt(total));
+                double clave = ultimo + random.nextDouble() * 100;
+                if (eliminados[e.indice] || clave >= e.clave)
+                    continue;
+                e.clave = clave;
+                if (monticulo.contiene(e)) {
+                    monticulo.reordena(e);
+                } else {
+                    monticulo.agrega(e);
+                    Assert.assertTrue(monticulo.contiene(e));
+                }
+            }
+        }
+    }
+}